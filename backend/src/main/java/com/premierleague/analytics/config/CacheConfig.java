@@ -0,0 +1,33 @@
+package com.premierleague.analytics.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String STANDINGS = "standings";
+    public static final String FIXTURES = "fixtures";
+    public static final String PREDICTIONS = "predictions";
+
+    @Value("${cache.spec:maximumSize=100,expireAfterWrite=2h,recordStats}")
+    private String cacheSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(STANDINGS, FIXTURES, PREDICTIONS);
+        // Async mode: a @Cacheable(sync = true) miss parks concurrent callers on one future instead of
+        // holding a map lock while it loads, which would pin their virtual threads for the whole query
+        cacheManager.setCaffeine(Caffeine.from(cacheSpec).executor(Executors.newVirtualThreadPerTaskExecutor()));
+        cacheManager.setAsyncCacheMode(true);
+        return cacheManager;
+    }
+}
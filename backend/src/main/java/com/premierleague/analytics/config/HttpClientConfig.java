@@ -0,0 +1,38 @@
+package com.premierleague.analytics.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${football.data.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${football.data.http.read-timeout:30s}")
+    private Duration readTimeout;
+
+    /**
+     * RestTemplate for Football-Data.org on the JDK HTTP client, which keeps
+     * connections alive in its own pool and negotiates HTTP/2 where the server offers it.
+     */
+    @Bean
+    public RestTemplate restTemplate() {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return new RestTemplate(requestFactory);
+    }
+}
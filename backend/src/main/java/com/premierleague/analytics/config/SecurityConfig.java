@@ -47,6 +47,8 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList(allowedMethods.split(",")));
         configuration.setAllowedHeaders(List.of(allowedHeaders));
         configuration.setAllowCredentials(allowCredentials);
+        // Keyset-paginated list endpoints return the next page's cursor in this header
+        configuration.setExposedHeaders(List.of("X-Next-Cursor"));
         configuration.setMaxAge(3600L);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,13 +1,24 @@
 package com.premierleague.analytics.controller;
 
+import com.premierleague.analytics.dto.HeadToHead;
 import com.premierleague.analytics.entity.Club;
 import com.premierleague.analytics.repository.ClubRepository;
-import com.premierleague.analytics.service.FootballDataService;
+import com.premierleague.analytics.service.EloRatings;
+import com.premierleague.analytics.service.HeadToHeadIndex;
+import com.premierleague.analytics.service.ReadCache;
+import com.premierleague.analytics.service.SquadFetchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/clubs")
@@ -17,34 +28,40 @@ public class ClubController {
     private ClubRepository clubRepository;
     
     @Autowired
-    private FootballDataService footballDataService;
+    private SquadFetchService squadFetchService;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private HeadToHeadIndex headToHeadIndex;
+
+    @Autowired
+    private EloRatings eloRatings;
 
     @GetMapping
-    public ResponseEntity<?> getAllClubs() {
-        List<Club> clubs = clubRepository.findAllByOrderByPositionAsc();
-        
+    public ResponseEntity<byte[]> getAllClubs(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         // Return a summary of standings data
-        return ResponseEntity.ok(clubs.stream()
-                .map(club -> {
-                    var data = new java.util.HashMap<String, Object>();
-                    data.put("id", club.getId());
-                    data.put("externalId", club.getExternalId()); // Include external API ID
-                    data.put("position", club.getPosition());
-                    data.put("name", club.getName());
-                    data.put("shortName", club.getShortName());
-                    data.put("tla", club.getTla());
-                    data.put("crestUrl", club.getCrestUrl());
-                    data.put("playedGames", club.getPlayedGames());
-                    data.put("won", club.getWon());
-                    data.put("draw", club.getDraw());
-                    data.put("lost", club.getLost());
-                    data.put("points", club.getPoints());
-                    data.put("goalsFor", club.getGoalsFor());
-                    data.put("goalsAgainst", club.getGoalsAgainst());
-                    data.put("goalDifference", club.getGoalDifference());
-                    return data;
-                })
-                .toList());
+        return SnapshotResponses.serve(readCache.getStandings(), ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Elo table as it stood at a point in time (UTC, default now), highest rating first.
+     */
+    @GetMapping("/ratings")
+    public List<Map<String, Object>> getRatings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return eloRatings.table(at != null ? at : LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * A club's Elo rating after each of its stored matches, oldest first.
+     */
+    @GetMapping("/{id}/ratings")
+    public List<Map<String, Object>> getRatingHistory(@PathVariable Long id) {
+        return eloRatings.history(id);
     }
 
     @GetMapping("/{id}")
@@ -54,27 +71,52 @@ public class ClubController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * All stored meetings with another club, from this club's point of view.
+     * Served from memory; clubs that have never met get an empty record.
+     */
+    @GetMapping("/{id}/head-to-head/{opponentId}")
+    public ResponseEntity<HeadToHead> getHeadToHead(@PathVariable Long id, @PathVariable Long opponentId) {
+        if (id.equals(opponentId)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(headToHeadIndex.get(id, opponentId));
+    }
+
     @PostMapping("/{id}/fetch-squad")
-    public ResponseEntity<?> fetchSquadData(@PathVariable Long id) {
-        try {
-            Club club = clubRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Club not found"));
-            
-            if (club.getExternalId() == null) {
-                return ResponseEntity.badRequest().body("Club does not have an external API ID");
-            }
-            
-            // Fetch squad data from API
-            footballDataService.fetchAndUpdateTeamSquad(club.getExternalId(), club);
-            
-            // Return updated club with players
-            Club updatedClub = clubRepository.findByIdWithPlayers(id)
-                    .orElseThrow(() -> new RuntimeException("Club not found after update"));
-            
-            return ResponseEntity.ok(updatedClub);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error fetching squad data: " + e.getMessage());
+    public CompletableFuture<ResponseEntity<?>> fetchSquadData(@PathVariable Long id) {
+        Club club = clubRepository.findById(id).orElse(null);
+        if (club == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
+        if (club.getExternalId() == null) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body("Club does not have an external API ID"));
+        }
+
+        // Runs on the squad fetcher's executor; the servlet thread is released while waiting
+        return squadFetchService.fetchSquad(club)
+            .<ResponseEntity<?>>thenApply(fetched -> {
+                if (!fetched) {
+                    return ResponseEntity.internalServerError().body("Error fetching squad data for " + club.getName());
+                }
+                return clubRepository.findByIdWithPlayers(id)
+                        .<ResponseEntity<?>>map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build());
+            })
+            .exceptionally(e -> ResponseEntity.internalServerError().body("Error fetching squad data: " + e.getMessage()));
+    }
+
+    @PostMapping("/fetch-squads")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> fetchAllSquads() {
+        return squadFetchService.fetchAllSquads()
+            .thenApply(fetched -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("message", "Squad data refreshed");
+                response.put("status", "success");
+                response.put("teamsUpdated", fetched);
+                return ResponseEntity.ok(response);
+            });
     }
 
     @GetMapping("/name/{name}")
@@ -86,7 +128,9 @@ public class ClubController {
 
     @PostMapping
     public Club createClub(@RequestBody Club club) {
-        return clubRepository.save(club);
+        Club saved = clubRepository.save(club);
+        readCache.standingsChanged();
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -101,7 +145,9 @@ public class ClubController {
                     club.setLogoUrl(clubDetails.getLogoUrl());
                     club.setPrimaryColor(clubDetails.getPrimaryColor());
                     club.setSecondaryColor(clubDetails.getSecondaryColor());
-                    return ResponseEntity.ok(clubRepository.save(club));
+                    Club saved = clubRepository.save(club);
+                    readCache.standingsChanged();
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -111,6 +157,7 @@ public class ClubController {
         return clubRepository.findById(id)
                 .map(club -> {
                     clubRepository.delete(club);
+                    readCache.standingsChanged();
                     return ResponseEntity.ok().build();
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -1,12 +1,22 @@
 package com.premierleague.analytics.controller;
 
 import com.premierleague.analytics.service.FootballDataService;
+import com.premierleague.analytics.service.Job;
+import com.premierleague.analytics.service.JobService;
+import com.premierleague.analytics.service.LiveMatchService;
+import com.premierleague.analytics.service.PredictionRefreshTracker;
+import com.premierleague.analytics.service.ReadCache;
+import com.premierleague.analytics.service.SyncStatistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.support.CronExpression;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/data")
@@ -15,28 +25,58 @@ public class DataController {
     @Autowired
     private FootballDataService footballDataService;
 
+    @Autowired
+    private SyncStatistics syncStatistics;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private LiveMatchService liveMatchService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private PredictionRefreshTracker predictionRefreshTracker;
+
+    private static final CronExpression REFRESH_SCHEDULE = CronExpression.parse(FootballDataService.REFRESH_CRON);
+
+    /**
+     * Start a full refresh as a background job; poll /jobs/{id} for progress.
+     */
     @PostMapping("/refresh")
-    public ResponseEntity<?> refreshData() {
-        try {
-            footballDataService.refreshAllData();
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Data refresh completed successfully");
-            response.put("status", "success");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Data refresh failed: " + e.getMessage());
-            response.put("status", "error");
-            return ResponseEntity.status(500).body(response);
-        }
+    public ResponseEntity<Map<String, Object>> refreshData() {
+        return JobResponses.accepted(footballDataService.submitRefresh("api"), "Data refresh");
     }
 
     @GetMapping("/status")
     public ResponseEntity<?> getDataStatus() {
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "API integration active");
+        Optional<Job> running = jobService.running(Job.Type.DATA_REFRESH);
+        Optional<Job> lastRun = jobService.lastFinished(Job.Type.DATA_REFRESH);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", running.isPresent() ? "refreshing"
+            : lastRun.map(job -> job.getStatus() == Job.Status.FAILED ? "last refresh failed" : "idle").orElse("never refreshed"));
         response.put("api", "Football-Data.org");
-        response.put("schedule", "Hourly (every hour)");
+        Map<Job.Type, Object> runningJobs = new LinkedHashMap<>();
+        Map<Job.Type, Object> lastRuns = new LinkedHashMap<>();
+        for (Job.Type type : Job.Type.values()) {
+            jobService.running(type).ifPresent(job -> runningJobs.put(type, job.toMap()));
+            jobService.lastFinished(type).ifPresent(job -> lastRuns.put(type, job.toMap()));
+        }
+        response.put("running", runningJobs);
+        response.put("lastRuns", lastRuns);
+        response.put("nextScheduledRefresh", REFRESH_SCHEDULE.next(LocalDateTime.now()));
+        response.put("sync", syncStatistics.snapshot());
+        response.put("cache", readCache.stats());
+        response.put("live", liveMatchService.status());
+        response.put("predictionRefresh", predictionRefreshTracker.status());
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(readCache.stats());
+    }
 }
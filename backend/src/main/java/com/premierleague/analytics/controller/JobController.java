@@ -0,0 +1,30 @@
+package com.premierleague.analytics.controller;
+
+import com.premierleague.analytics.service.Job;
+import com.premierleague.analytics.service.JobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/jobs")
+public class JobController {
+
+    @Autowired
+    private JobService jobService;
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getRecentJobs() {
+        return ResponseEntity.ok(jobService.recent().stream().map(Job::toMap).toList());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String id) {
+        return jobService.find(id)
+            .map(job -> ResponseEntity.ok(job.toMap()))
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
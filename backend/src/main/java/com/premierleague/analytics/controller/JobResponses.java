@@ -0,0 +1,30 @@
+package com.premierleague.analytics.controller;
+
+import com.premierleague.analytics.service.JobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 202 Accepted for a submitted job, pointing at its status resource.
+ */
+final class JobResponses {
+
+    private JobResponses() {
+    }
+
+    static ResponseEntity<Map<String, Object>> accepted(JobService.Submission submission, String message) {
+        String id = submission.job().getId();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", submission.deduplicated() ? message + " already in progress" : message + " started");
+        response.put("status", "accepted");
+        response.put("jobId", id);
+        response.put("deduplicated", submission.deduplicated());
+        response.put("job", submission.job().toMap());
+        return ResponseEntity.accepted()
+            .location(ServletUriComponentsBuilder.fromCurrentContextPath().path("/jobs/{id}").buildAndExpand(id).toUri())
+            .body(response);
+    }
+}
@@ -0,0 +1,36 @@
+package com.premierleague.analytics.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination: the sort key and id of the last row of a page,
+ * base64url-encoded so clients pass it back unchanged.
+ */
+record KeysetCursor(String key, long id) {
+
+    static final String HEADER = "X-Next-Cursor";
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((key + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    static KeysetCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new KeysetCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+    }
+
+    static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -1,14 +1,21 @@
 package com.premierleague.analytics.controller;
 
+import com.premierleague.analytics.dto.MatchSummary;
 import com.premierleague.analytics.entity.Match;
 import com.premierleague.analytics.repository.MatchRepository;
+import com.premierleague.analytics.service.LiveScoreBroadcaster;
+import com.premierleague.analytics.service.ReadCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/matches")
@@ -17,9 +24,23 @@ public class MatchController {
     @Autowired
     private MatchRepository matchRepository;
 
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private LiveScoreBroadcaster liveScoreBroadcaster;
+
     @GetMapping
-    public List<Match> getAllMatches() {
-        return matchRepository.findAll();
+    public ResponseEntity<?> getAllMatches(
+            @RequestParam(defaultValue = "" + KeysetCursor.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String cursor) {
+        return pageMatches(null, null, limit, cursor);
+    }
+
+    // Totals for dashboards, so clients never walk every page just to count rows
+    @GetMapping("/count")
+    public Map<String, Object> countMatches() {
+        return Map.of("count", matchRepository.count());
     }
 
     @GetMapping("/{id}")
@@ -30,8 +51,11 @@ public class MatchController {
     }
 
     @GetMapping("/club/{clubId}")
-    public List<Match> getMatchesByClub(@PathVariable Long clubId) {
-        return matchRepository.findByHomeClubIdOrAwayClubId(clubId, clubId);
+    public ResponseEntity<?> getMatchesByClub(
+            @PathVariable Long clubId,
+            @RequestParam(defaultValue = "" + KeysetCursor.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String cursor) {
+        return pageMatches(null, clubId, limit, cursor);
     }
 
     @GetMapping("/date-range")
@@ -47,8 +71,11 @@ public class MatchController {
     }
 
     @GetMapping("/season/{season}")
-    public List<Match> getMatchesBySeason(@PathVariable String season) {
-        return matchRepository.findBySeason(season);
+    public ResponseEntity<?> getMatchesBySeason(
+            @PathVariable String season,
+            @RequestParam(defaultValue = "" + KeysetCursor.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String cursor) {
+        return pageMatches(season, null, limit, cursor);
     }
 
     @GetMapping("/season/{season}/week/{week}")
@@ -57,18 +84,63 @@ public class MatchController {
     }
 
     @GetMapping("/upcoming")
-    public List<Match> getUpcomingMatches() {
-        return matchRepository.findByStatus(Match.MatchStatus.SCHEDULED);
+    public ResponseEntity<byte[]> getUpcomingMatches(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return SnapshotResponses.serve(
+            readCache.getMatchesByStatus(Match.MatchStatus.SCHEDULED), ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/live")
-    public List<Match> getLiveMatches() {
-        return matchRepository.findByStatus(Match.MatchStatus.LIVE);
+    public ResponseEntity<byte[]> getLiveMatches(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return SnapshotResponses.serve(
+            readCache.getMatchesByStatus(Match.MatchStatus.LIVE), ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * One keyset page ordered by kickoff; the cursor for the next page is returned in the X-Next-Cursor header.
+     */
+    private ResponseEntity<?> pageMatches(String season, Long clubId, int limit, String cursor) {
+        int size = KeysetCursor.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<MatchSummary> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = matchRepository.findSummaries(season, clubId, page);
+        } else {
+            try {
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                rows = matchRepository.findSummariesAfter(season, clubId, LocalDateTime.parse(after.key()), after.id(), page);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
+            }
+        }
+
+        if (rows.size() <= size) {
+            return ResponseEntity.ok(rows);
+        }
+        List<MatchSummary> items = rows.subList(0, size);
+        MatchSummary last = items.get(size - 1);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.HEADER, new KeysetCursor(last.matchDate().toString(), last.id()).encode())
+                .body(items);
+    }
+
+    /**
+     * Sends a "snapshot" event with the current live scores, then a "score" event
+     * whenever live mode sees a match change.
+     */
+    @GetMapping("/live/stream")
+    public SseEmitter streamLiveScores() {
+        return liveScoreBroadcaster.subscribe();
     }
 
     @PostMapping
     public Match createMatch(@RequestBody Match match) {
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        readCache.fixturesChanged();
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -96,7 +168,9 @@ public class MatchController {
                     match.setAwayCorners(matchDetails.getAwayCorners());
                     match.setHomeFouls(matchDetails.getHomeFouls());
                     match.setAwayFouls(matchDetails.getAwayFouls());
-                    return ResponseEntity.ok(matchRepository.save(match));
+                    Match saved = matchRepository.save(match);
+                    readCache.fixturesChanged();
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -106,6 +180,7 @@ public class MatchController {
         return matchRepository.findById(id)
                 .map(match -> {
                     matchRepository.delete(match);
+                    readCache.fixturesChanged();
                     return ResponseEntity.ok().build();
                 })
                 .orElse(ResponseEntity.notFound().build());
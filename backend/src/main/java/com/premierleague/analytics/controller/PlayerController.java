@@ -1,13 +1,17 @@
 package com.premierleague.analytics.controller;
 
+import com.premierleague.analytics.dto.PlayerSummary;
 import com.premierleague.analytics.entity.Player;
 import com.premierleague.analytics.repository.PlayerRepository;
+import com.premierleague.analytics.service.Leaderboards;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/players")
@@ -16,9 +20,53 @@ public class PlayerController {
     @Autowired
     private PlayerRepository playerRepository;
 
+    @Autowired
+    private Leaderboards leaderboards;
+
+    // Cursor key once the page has moved past every player with a goals value
+    private static final String NO_GOALS = "-";
+
+    /**
+     * Keyset page ordered by goals (desc) then id, followed by players without a goals value;
+     * the cursor for the next page is returned in the X-Next-Cursor header.
+     */
     @GetMapping
-    public List<Player> getAllPlayers() {
-        return playerRepository.findAll();
+    public ResponseEntity<?> getAllPlayers(
+            @RequestParam(defaultValue = "" + KeysetCursor.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String cursor) {
+        int size = KeysetCursor.clampLimit(limit);
+        List<PlayerSummary> rows = new ArrayList<>(size + 1);
+        try {
+            KeysetCursor after = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+            boolean inTail = after != null && NO_GOALS.equals(after.key());
+            if (!inTail) {
+                PageRequest page = PageRequest.of(0, size + 1);
+                rows.addAll(after == null
+                    ? playerRepository.findSummaries(page)
+                    : playerRepository.findSummariesAfter(Integer.parseInt(after.key()), after.id(), page));
+            }
+            if (rows.size() <= size) {
+                long afterId = inTail ? after.id() : 0L;
+                rows.addAll(playerRepository.findSummariesWithoutGoals(afterId, PageRequest.of(0, size + 1 - rows.size())));
+            }
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+
+        if (rows.size() <= size) {
+            return ResponseEntity.ok(rows);
+        }
+        List<PlayerSummary> items = rows.subList(0, size);
+        PlayerSummary last = items.get(size - 1);
+        String key = last.goals() != null ? String.valueOf(last.goals()) : NO_GOALS;
+        return ResponseEntity.ok()
+                .header(KeysetCursor.HEADER, new KeysetCursor(key, last.id()).encode())
+                .body(items);
+    }
+
+    @GetMapping("/count")
+    public Map<String, Object> countPlayers() {
+        return Map.of("count", playerRepository.count());
     }
 
     @GetMapping("/{id}")
@@ -44,22 +92,26 @@ public class PlayerController {
     }
 
     @GetMapping("/top-scorers")
-    public List<Player> getTopScorers(@RequestParam(defaultValue = "10") int limit) {
-        return playerRepository.findTopScorers().stream()
-                .limit(limit)
-                .toList();
+    public List<PlayerSummary> getTopScorers(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String position,
+            @RequestParam(required = false) Long clubId) {
+        return leaderboards.top(Leaderboards.Metric.GOALS, KeysetCursor.clampLimit(limit), position, clubId);
     }
 
     @GetMapping("/top-assists")
-    public List<Player> getTopAssistProviders(@RequestParam(defaultValue = "10") int limit) {
-        return playerRepository.findTopAssistProviders().stream()
-                .limit(limit)
-                .toList();
+    public List<PlayerSummary> getTopAssistProviders(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String position,
+            @RequestParam(required = false) Long clubId) {
+        return leaderboards.top(Leaderboards.Metric.ASSISTS, KeysetCursor.clampLimit(limit), position, clubId);
     }
 
     @PostMapping
     public Player createPlayer(@RequestBody Player player) {
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(player);
+        leaderboards.invalidate();
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -84,7 +136,9 @@ public class PlayerController {
                     player.setMinutesPlayed(playerDetails.getMinutesPlayed());
                     player.setCleanSheets(playerDetails.getCleanSheets());
                     player.setSaves(playerDetails.getSaves());
-                    return ResponseEntity.ok(playerRepository.save(player));
+                    Player saved = playerRepository.save(player);
+                    leaderboards.invalidate();
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -94,6 +148,7 @@ public class PlayerController {
         return playerRepository.findById(id)
                 .map(player -> {
                     playerRepository.delete(player);
+                    leaderboards.invalidate();
                     return ResponseEntity.ok().build();
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -1,8 +1,14 @@
 package com.premierleague.analytics.controller;
 
 import com.premierleague.analytics.entity.Prediction;
+import com.premierleague.analytics.service.BacktestService;
+import com.premierleague.analytics.service.BatchPredictionService;
+import com.premierleague.analytics.service.PredictionModels;
 import com.premierleague.analytics.service.PredictionService;
+import com.premierleague.analytics.service.PredictionVersions;
+import com.premierleague.analytics.service.ReadCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,14 +23,75 @@ public class PredictionController {
     @Autowired
     private PredictionService predictionService;
 
+    @Autowired
+    private BatchPredictionService batchPredictionService;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private PredictionModels predictionModels;
+
+    @Autowired
+    private BacktestService backtestService;
+
+    @Autowired
+    private PredictionVersions predictionVersions;
+
     @GetMapping
     public ResponseEntity<List<Prediction>> getAllPredictions() {
         return ResponseEntity.ok(predictionService.getAllPredictions());
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<List<Prediction>> getUpcomingPredictions() {
-        return ResponseEntity.ok(predictionService.getUpcomingPredictions());
+    public ResponseEntity<byte[]> getUpcomingPredictions(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return SnapshotResponses.serve(readCache.getUpcomingPredictions(), ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Every stored prediction generation, newest first; one is current.
+     */
+    @GetMapping("/generations")
+    public ResponseEntity<List<Map<String, Object>>> getGenerations() {
+        return ResponseEntity.ok(predictionVersions.list());
+    }
+
+    /**
+     * All stored versions of one match's prediction, newest generation first.
+     */
+    @GetMapping("/match/{matchId}/history")
+    public ResponseEntity<List<Prediction>> getPredictionHistory(@PathVariable Long matchId) {
+        return ResponseEntity.ok(predictionService.getPredictionHistory(matchId));
+    }
+
+    /**
+     * Active model, its fitted parameters and fit time.
+     */
+    @GetMapping("/model")
+    public ResponseEntity<Map<String, Object>> getModelStatus() {
+        return ResponseEntity.ok(predictionModels.status());
+    }
+
+    /**
+     * Replays finished seasons through a model (default: the active one) using only data available
+     * before each kickoff, as a background job; the job result carries Brier score, log-loss,
+     * accuracy and calibration. While a backtest runs, this returns that job instead.
+     */
+    @PostMapping("/backtest")
+    public ResponseEntity<Map<String, Object>> backtest(
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) List<String> season,
+            @RequestParam(defaultValue = "0") int parallelism) {
+        try {
+            return JobResponses.accepted(backtestService.submit(model, season, parallelism, "api"), "Backtest");
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            response.put("status", "error");
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     @GetMapping("/week/{matchWeek}")
@@ -32,35 +99,30 @@ public class PredictionController {
         return ResponseEntity.ok(predictionService.getPredictionsForCurrentWeek(matchWeek));
     }
 
+    /**
+     * Regenerate predictions for the next 10 matches as a background job; poll /jobs/{id}.
+     * The current predictions stay visible until the new generation is complete.
+     */
     @PostMapping("/generate")
-    public ResponseEntity<Map<String, String>> generatePredictions() {
-        try {
-            predictionService.regeneratePredictions(); // Clear old and generate new
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Predictions regenerated successfully for next 10 matches");
-            response.put("status", "success");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Error generating predictions: " + e.getMessage());
-            response.put("status", "error");
-            return ResponseEntity.internalServerError().body(response);
-        }
+    public ResponseEntity<Map<String, Object>> generatePredictions() {
+        return JobResponses.accepted(predictionService.submitRegeneration("api"), "Prediction regeneration");
+    }
+
+    /**
+     * Batch-predict every scheduled fixture as a background job; the job result carries the throughput figures.
+     * Shares the job slot with regeneration, so while either runs the other request returns the job in flight.
+     */
+    @PostMapping("/generate-all")
+    public ResponseEntity<Map<String, Object>> generateAllPredictions() {
+        return JobResponses.accepted(batchPredictionService.submitBatch("api"), "Batch prediction");
     }
-    
+
+    /**
+     * Delete all predictions and their history as a background job. Shares the job slot with
+     * regeneration, so while a prediction job runs this returns that job instead.
+     */
     @DeleteMapping("/clear")
-    public ResponseEntity<Map<String, String>> clearPredictions() {
-        try {
-            predictionService.clearAllPredictions();
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "All predictions cleared successfully");
-            response.put("status", "success");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Error clearing predictions: " + e.getMessage());
-            response.put("status", "error");
-            return ResponseEntity.internalServerError().body(response);
-        }
+    public ResponseEntity<Map<String, Object>> clearPredictions() {
+        return JobResponses.accepted(predictionService.submitClear("api"), "Prediction clearing");
     }
 }
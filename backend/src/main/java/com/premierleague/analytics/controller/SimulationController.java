@@ -0,0 +1,87 @@
+package com.premierleague.analytics.controller;
+
+import com.premierleague.analytics.dto.SeasonSimulationResult;
+import com.premierleague.analytics.service.SeasonSimulationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+@RestController
+@RequestMapping("/simulations")
+public class SimulationController {
+
+    private static final int MAX_ITERATIONS = 10_000_000;
+
+    @Autowired
+    private SeasonSimulationService seasonSimulationService;
+
+    @GetMapping("/season")
+    public ResponseEntity<?> simulateSeason(
+            @RequestParam(defaultValue = "100000") int iterations,
+            @RequestParam(defaultValue = "0") int parallelism) {
+        validate(iterations, parallelism);
+        return ResponseEntity.ok(seasonSimulationService.simulate(iterations, parallelism));
+    }
+
+    /**
+     * Streams a "progress" event after every completed chunk of iterations,
+     * then a final "complete" event. Invalid parameters are rejected before the stream opens.
+     */
+    @GetMapping("/season/stream")
+    public SseEmitter streamSeasonSimulation(
+            @RequestParam(defaultValue = "100000") int iterations,
+            @RequestParam(defaultValue = "0") int parallelism) {
+        validate(iterations, parallelism);
+        SseEmitter emitter = new SseEmitter(0L);
+        ReentrantLock sendLock = new ReentrantLock();
+
+        seasonSimulationService.simulateAsync(iterations, parallelism, partial -> send(emitter, sendLock, "progress", partial))
+            .whenComplete((result, error) -> {
+                if (error != null) {
+                    emitter.completeWithError(error);
+                } else {
+                    send(emitter, sendLock, "complete", result);
+                    emitter.complete();
+                }
+            });
+        return emitter;
+    }
+
+    // Both endpoints reject the same parameters with the same 400, the stream before any event is sent
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        response.put("status", "error");
+        // Explicit type: the stream endpoint's client only accepts text/event-stream
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+
+    private void validate(int iterations, int parallelism) {
+        if (iterations <= 0 || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("iterations must be between 1 and " + MAX_ITERATIONS);
+        }
+        if (parallelism < 0 || parallelism > SeasonSimulationService.MAX_PARALLELISM) {
+            throw new IllegalArgumentException("parallelism must be between 0 and " + SeasonSimulationService.MAX_PARALLELISM);
+        }
+    }
+
+    private void send(SseEmitter emitter, ReentrantLock sendLock, String name, SeasonSimulationResult result) {
+        // A lock rather than synchronized: the send blocks on the client socket
+        sendLock.lock();
+        try {
+            emitter.send(SseEmitter.event().name(name).data(result));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the simulation finishes regardless
+        } finally {
+            sendLock.unlock();
+        }
+    }
+}
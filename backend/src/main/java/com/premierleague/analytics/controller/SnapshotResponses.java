@@ -0,0 +1,51 @@
+package com.premierleague.analytics.controller;
+
+import com.premierleague.analytics.service.JsonSnapshot;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Serves a {@link JsonSnapshot} as-is: 304 when the client's ETag matches, otherwise
+ * the pre-gzipped or plain bytes. Neither path touches Jackson or the database.
+ */
+final class SnapshotResponses {
+
+    private SnapshotResponses() {
+    }
+
+    static ResponseEntity<byte[]> serve(JsonSnapshot snapshot, String ifNoneMatch, String acceptEncoding) {
+        if (matches(ifNoneMatch, snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(snapshot.etag())
+            .cacheControl(CacheControl.noCache())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
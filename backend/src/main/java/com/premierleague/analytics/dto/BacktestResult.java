@@ -0,0 +1,62 @@
+package com.premierleague.analytics.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accuracy and calibration of a model replayed over finished matches, overall
+ * and per season, plus throughput.
+ */
+public record BacktestResult(
+    String model,
+    int fixtures,
+    int parallelism,
+    long durationMs,
+    double fixturesPerSecond,
+    Metrics overall,
+    List<Metrics> seasons
+) {
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("model", model);
+        data.put("fixtures", fixtures);
+        data.put("parallelism", parallelism);
+        data.put("durationMs", durationMs);
+        data.put("fixturesPerSecond", fixturesPerSecond);
+        data.put("overall", overall);
+        data.put("seasons", seasons);
+        return data;
+    }
+    /**
+     * @param brierScore mean over fixtures of the squared error summed across home/draw/away (0 is perfect, 2 is worst)
+     * @param logLoss mean negative log of the probability given to the actual outcome
+     * @param accuracy share of fixtures where the most likely outcome happened
+     * @param exactScoreAccuracy share of fixtures where the predicted scoreline was exact
+     * @param fallbackForecasts fixtures the model could not rate, forecast by the fallback model
+     */
+    public record Metrics(
+        String season,
+        int fixtures,
+        double brierScore,
+        double logLoss,
+        double accuracy,
+        double exactScoreAccuracy,
+        int fallbackForecasts,
+        List<CalibrationBucket> calibration
+    ) {
+    }
+
+    /**
+     * Every outcome probability in [from, to), against how often that outcome happened.
+     */
+    public record CalibrationBucket(
+        double from,
+        double to,
+        int forecasts,
+        double meanPredicted,
+        double observed
+    ) {
+    }
+}
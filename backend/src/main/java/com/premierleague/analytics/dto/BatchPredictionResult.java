@@ -0,0 +1,28 @@
+package com.premierleague.analytics.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome and throughput of a batch prediction run.
+ */
+public record BatchPredictionResult(
+    int fixtures,
+    int skipped,
+    int created,
+    int parallelism,
+    long durationMs,
+    double predictionsPerSecond
+) {
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("fixtures", fixtures);
+        data.put("skipped", skipped);
+        data.put("created", created);
+        data.put("parallelism", parallelism);
+        data.put("durationMs", durationMs);
+        data.put("predictionsPerSecond", predictionsPerSecond);
+        return data;
+    }
+}
@@ -0,0 +1,11 @@
+package com.premierleague.analytics.dto;
+
+/**
+ * Club identity only: local id, Football-Data.org id and name.
+ */
+public record ClubRef(
+    Long id,
+    Long externalId,
+    String name
+) {
+}
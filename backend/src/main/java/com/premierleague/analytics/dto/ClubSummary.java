@@ -0,0 +1,13 @@
+package com.premierleague.analytics.dto;
+
+/**
+ * The club fields list views need to render a badge and name.
+ */
+public record ClubSummary(
+    Long id,
+    String name,
+    String shortName,
+    String tla,
+    String crestUrl
+) {
+}
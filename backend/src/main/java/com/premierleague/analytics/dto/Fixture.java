@@ -0,0 +1,14 @@
+package com.premierleague.analytics.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slim view of a fixture for bulk processing: ids and kickoff only.
+ */
+public record Fixture(
+    Long matchId,
+    Long homeClubId,
+    Long awayClubId,
+    LocalDateTime matchDate
+) {
+}
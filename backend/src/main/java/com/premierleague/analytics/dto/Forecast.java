@@ -0,0 +1,14 @@
+package com.premierleague.analytics.dto;
+
+/**
+ * A model's view of one fixture: outcome probabilities in percent and the predicted scoreline.
+ */
+public record Forecast(
+    String model,
+    double homeWinProbability,
+    double drawProbability,
+    double awayWinProbability,
+    int homeScore,
+    int awayScore
+) {
+}
@@ -0,0 +1,31 @@
+package com.premierleague.analytics.dto;
+
+import java.util.List;
+
+/**
+ * All stored meetings between two clubs, from the first club's point of view.
+ * Recent results are most recent first and keep their home/away sides.
+ */
+public record HeadToHead(
+    Long clubId,
+    Long opponentId,
+    int played,
+    int wins,
+    int draws,
+    int losses,
+    int goalsFor,
+    int goalsAgainst,
+    List<MatchResult> recent
+) {
+
+    public static HeadToHead none(Long clubId, Long opponentId) {
+        return new HeadToHead(clubId, opponentId, 0, 0, 0, 0, 0, 0, List.of());
+    }
+
+    /**
+     * The same record from the opponent's point of view.
+     */
+    public HeadToHead reversed() {
+        return new HeadToHead(opponentId, clubId, played, losses, draws, wins, goalsAgainst, goalsFor, recent);
+    }
+}
@@ -0,0 +1,30 @@
+package com.premierleague.analytics.dto;
+
+import com.premierleague.analytics.entity.Match;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Score line pushed to live subscribers, keyed by the Football-Data.org match id.
+ */
+public record LiveScore(
+    Long externalId,
+    LocalDateTime matchDate,
+    Match.MatchStatus status,
+    String homeTeamName,
+    String awayTeamName,
+    Integer homeScore,
+    Integer awayScore
+) {
+    public static LiveScore of(MatchRecord record) {
+        return new LiveScore(record.externalId(), record.matchDate(), record.status(),
+            record.homeTeamName(), record.awayTeamName(), record.homeScore(), record.awayScore());
+    }
+
+    public boolean sameScore(LiveScore other) {
+        return other != null && status == other.status
+            && Objects.equals(homeScore, other.homeScore)
+            && Objects.equals(awayScore, other.awayScore);
+    }
+}
@@ -0,0 +1,24 @@
+package com.premierleague.analytics.dto;
+
+import com.premierleague.analytics.entity.Match;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the /matches feed, flattened for writing.
+ */
+public record MatchRecord(
+    Long externalId,
+    LocalDateTime matchDate,
+    Match.MatchStatus status,
+    Integer matchday,
+    String venue,
+    Long homeTeamExternalId,
+    String homeTeamName,
+    Long awayTeamExternalId,
+    String awayTeamName,
+    Integer homeScore,
+    Integer awayScore,
+    String contentHash
+) {
+}
@@ -0,0 +1,17 @@
+package com.premierleague.analytics.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slim read-only view of a finished match: just the ids, kickoff and score,
+ * without loading the Match entity or its clubs.
+ */
+public record MatchResult(
+    Long matchId,
+    Long homeClubId,
+    Long awayClubId,
+    LocalDateTime matchDate,
+    Integer homeScore,
+    Integer awayScore
+) {
+}
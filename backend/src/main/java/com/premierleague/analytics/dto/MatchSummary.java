@@ -0,0 +1,34 @@
+package com.premierleague.analytics.dto;
+
+import com.premierleague.analytics.entity.Match;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slim view of a match for list endpoints. Same JSON shape as the entity's
+ * core fields, with only a summary of each club.
+ */
+public record MatchSummary(
+    Long id,
+    LocalDateTime matchDate,
+    Match.MatchStatus status,
+    Integer matchWeek,
+    String season,
+    String venue,
+    Integer homeScore,
+    Integer awayScore,
+    ClubSummary homeClub,
+    ClubSummary awayClub
+) {
+    // Flat form for JPQL constructor expressions
+    public MatchSummary(Long id, LocalDateTime matchDate, Match.MatchStatus status, Integer matchWeek,
+                        String season, String venue, Integer homeScore, Integer awayScore,
+                        Long homeClubId, String homeClubName, String homeClubShortName, String homeClubTla,
+                        String homeClubCrestUrl,
+                        Long awayClubId, String awayClubName, String awayClubShortName, String awayClubTla,
+                        String awayClubCrestUrl) {
+        this(id, matchDate, status, matchWeek, season, venue, homeScore, awayScore,
+            new ClubSummary(homeClubId, homeClubName, homeClubShortName, homeClubTla, homeClubCrestUrl),
+            new ClubSummary(awayClubId, awayClubName, awayClubShortName, awayClubTla, awayClubCrestUrl));
+    }
+}
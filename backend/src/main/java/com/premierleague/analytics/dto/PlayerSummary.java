@@ -0,0 +1,24 @@
+package com.premierleague.analytics.dto;
+
+/**
+ * Slim view of a player for list endpoints.
+ */
+public record PlayerSummary(
+    Long id,
+    String name,
+    String position,
+    String nationality,
+    Integer jerseyNumber,
+    Integer goals,
+    Integer assists,
+    Integer matchesPlayed,
+    ClubSummary club
+) {
+    // Flat form for JPQL constructor expressions; club may be absent
+    public PlayerSummary(Long id, String name, String position, String nationality, Integer jerseyNumber,
+                         Integer goals, Integer assists, Integer matchesPlayed,
+                         Long clubId, String clubName, String clubShortName, String clubTla, String clubCrestUrl) {
+        this(id, name, position, nationality, jerseyNumber, goals, assists, matchesPlayed,
+            clubId != null ? new ClubSummary(clubId, clubName, clubShortName, clubTla, clubCrestUrl) : null);
+    }
+}
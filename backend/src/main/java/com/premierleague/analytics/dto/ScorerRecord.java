@@ -0,0 +1,21 @@
+package com.premierleague.analytics.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One entry of the /scorers feed, flattened for upserting.
+ */
+public record ScorerRecord(
+    Long externalId,
+    String name,
+    Long teamExternalId,
+    String nationality,
+    Integer shirtNumber,
+    String position,
+    LocalDate dateOfBirth,
+    int goals,
+    int assists,
+    int playedMatches,
+    String contentHash
+) {
+}
@@ -0,0 +1,28 @@
+package com.premierleague.analytics.dto;
+
+import java.util.List;
+
+/**
+ * Aggregated odds from a Monte Carlo season simulation. Partial results carry
+ * the iterations completed so far; the final one has completed == requested.
+ */
+public record SeasonSimulationResult(
+    int iterationsRequested,
+    int iterationsCompleted,
+    int remainingFixtures,
+    int parallelism,
+    long durationMs,
+    double simulationsPerSecond,
+    List<ClubOdds> clubs
+) {
+    public record ClubOdds(
+        Long clubId,
+        String name,
+        int currentPoints,
+        double expectedPoints,
+        double titleProbability,
+        double top4Probability,
+        double relegationProbability
+    ) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.premierleague.analytics.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One entry of a /teams/{id} squad, flattened for writing.
+ */
+public record SquadPlayerRecord(
+    Long externalId,
+    String name,
+    String position,
+    LocalDate dateOfBirth,
+    String nationality,
+    Integer shirtNumber
+) {
+}
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -12,6 +14,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "clubs")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,7 +45,7 @@ public class Club {
     @Column(name = "secondary_color")
     private String secondaryColor;
 
-    @Column(name = "external_id")
+    @Column(name = "external_id", unique = true)
     private Long externalId;
 
     @Column(name = "tla")
@@ -80,6 +83,9 @@ public class Club {
 
     @OneToMany(mappedBy = "club", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnoreProperties("club")
+    // Hashing the players recursed into this club while the set was being loaded
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Player> players = new HashSet<>();
 
     @Column(name = "created_at")
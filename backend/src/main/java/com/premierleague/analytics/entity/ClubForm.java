@@ -0,0 +1,36 @@
+package com.premierleague.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted snapshot of a club's recent-form buffer so the in-memory
+ * form index can be restored on startup without scanning the matches table.
+ */
+@Entity
+@Table(name = "club_form")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClubForm {
+    @Id
+    @Column(name = "club_id")
+    private Long clubId;
+
+    // Most recent first, encoded as matchId:kickoffEpochSecond:result (W/D/L) joined by ','
+    @Column(name = "entries", length = 1000)
+    private String entries;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,5 +1,6 @@
 package com.premierleague.analytics.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -10,20 +11,31 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "matches")
+@NamedEntityGraph(name = Match.WITH_CLUBS, attributeNodes = {
+    @NamedAttributeNode("homeClub"),
+    @NamedAttributeNode("awayClub")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Match {
+    public static final String WITH_CLUBS = "Match.withClubs";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Football-Data.org match id
+    @Column(name = "external_id", unique = true)
+    private Long externalId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "home_club_id", nullable = false)
     @JsonIgnoreProperties("players")
     private Club homeClub;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "away_club_id", nullable = false)
     @JsonIgnoreProperties("players")
     private Club awayClub;
@@ -82,6 +94,11 @@ public class Match {
     @Column(name = "away_fouls")
     private Integer awayFouls;
 
+    // Hash of the last API payload applied to this row, used to skip unchanged matches on sync
+    @Column(name = "content_hash", length = 64)
+    @JsonIgnore
+    private String contentHash;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -1,20 +1,27 @@
 package com.premierleague.analytics.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "players")
+@NamedEntityGraph(name = Player.WITH_CLUB, attributeNodes = @NamedAttributeNode("club"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Player {
+    public static final String WITH_CLUB = "Player.withClub";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -22,6 +29,10 @@ public class Player {
     @Column(nullable = false)
     private String name;
 
+    // Football-Data.org person id
+    @Column(name = "external_id", unique = true)
+    private Long externalId;
+
     @Column(name = "jersey_number")
     private Integer jerseyNumber;
 
@@ -42,9 +53,12 @@ public class Player {
     @Column(name = "photo_url")
     private String photoUrl;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "club_id")
     @JsonIgnoreProperties("players")
+    // Hashing a lazy club would load it, outside a session too
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Club club;
 
     // Statistics
@@ -62,6 +76,11 @@ public class Player {
     private Integer cleanSheets = 0;
     private Integer saves = 0;
 
+    // Hash of the last scorers entry applied to this row, used to skip unchanged players on sync
+    @Column(name = "content_hash", length = 64)
+    @JsonIgnore
+    private String contentHash;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
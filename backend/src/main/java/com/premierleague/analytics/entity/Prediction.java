@@ -1,5 +1,6 @@
 package com.premierleague.analytics.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,18 +10,35 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "predictions")
+@NamedEntityGraph(name = Prediction.WITH_MATCH_AND_CLUBS,
+    attributeNodes = @NamedAttributeNode(value = "match", subgraph = "match"),
+    subgraphs = @NamedSubgraph(name = "match", attributeNodes = {
+        @NamedAttributeNode("homeClub"),
+        @NamedAttributeNode("awayClub")
+    }))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Prediction {
+    public static final String WITH_MATCH_AND_CLUBS = "Prediction.withMatchAndClubs";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "match_id", nullable = false)
     private Match match;
 
+    // Generation this row belongs to; rows are never updated once written
+    @Column(name = "generation_id", nullable = false)
+    private Long generationId;
+
+    // Model that produced the forecast, e.g. "dixon-coles" (or the fallback)
+    @Column(name = "model_version")
+    private String modelVersion;
+
     @Column(name = "predicted_home_score")
     private Integer predictedHomeScore;
 
@@ -0,0 +1,37 @@
+package com.premierleague.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One complete set of predictions. Rows are written under a generation that
+ * readers do not see until it is switched to current.
+ */
+@Entity
+@Table(name = "prediction_generations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PredictionGeneration {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Prediction model active when the generation was started
+    @Column(name = "model")
+    private String model;
+
+    // What started it, e.g. "api", "scheduled", "batch"
+    @Column(name = "source")
+    private String source;
+
+    @Column(name = "generated_at")
+    private LocalDateTime generatedAt;
+
+    @Column(name = "is_current", nullable = false)
+    private boolean current;
+}
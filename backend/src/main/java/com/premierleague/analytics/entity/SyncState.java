@@ -0,0 +1,41 @@
+package com.premierleague.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Validators and content hash of the last successfully processed payload
+ * for one Football-Data.org resource, used for conditional fetching.
+ */
+@Entity
+@Table(name = "sync_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncState {
+    @Id
+    @Column(name = "resource")
+    private String resource;
+
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "last_modified")
+    private String lastModified;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
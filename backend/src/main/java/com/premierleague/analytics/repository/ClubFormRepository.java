@@ -0,0 +1,9 @@
+package com.premierleague.analytics.repository;
+
+import com.premierleague.analytics.entity.ClubForm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClubFormRepository extends JpaRepository<ClubForm, Long> {
+}
@@ -1,5 +1,6 @@
 package com.premierleague.analytics.repository;
 
+import com.premierleague.analytics.dto.ClubRef;
 import com.premierleague.analytics.entity.Club;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -20,4 +21,8 @@ public interface ClubRepository extends JpaRepository<Club, Long> {
     // Sort clubs by position (ascending), with nulls last, then by name
     @Query("SELECT c FROM Club c ORDER BY CASE WHEN c.position IS NULL THEN 1 ELSE 0 END, c.position ASC, c.name ASC")
     List<Club> findAllByOrderByPositionAsc();
+
+    // Ids and names only, for resolving API team references without loading clubs
+    @Query("SELECT new com.premierleague.analytics.dto.ClubRef(c.id, c.externalId, c.name) FROM Club c")
+    List<ClubRef> findClubRefs();
 }
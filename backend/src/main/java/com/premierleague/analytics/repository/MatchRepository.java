@@ -1,25 +1,114 @@
 package com.premierleague.analytics.repository;
 
+import com.premierleague.analytics.dto.Fixture;
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.dto.MatchSummary;
 import com.premierleague.analytics.entity.Match;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long> {
-    List<Match> findByHomeClubIdOrAwayClubId(Long homeClubId, Long awayClubId);
+    // Clubs are lazy; every finder that returns entities fetches both in the same select
+    @Override
+    @EntityGraph(Match.WITH_CLUBS)
+    List<Match> findAll();
+
+    @Override
+    @EntityGraph(Match.WITH_CLUBS)
+    Optional<Match> findById(Long id);
+
+    // Compares the foreign keys directly; the derived query filtered on outer-joined clubs and could not use the indexes
+    @EntityGraph(Match.WITH_CLUBS)
+    @Query("SELECT m FROM Match m WHERE m.homeClub.id = :homeClubId OR m.awayClub.id = :awayClubId")
+    List<Match> findByHomeClubIdOrAwayClubId(@Param("homeClubId") Long homeClubId, @Param("awayClubId") Long awayClubId);
+
+    @EntityGraph(Match.WITH_CLUBS)
     List<Match> findByMatchDateBetween(LocalDateTime start, LocalDateTime end);
+
+    @EntityGraph(Match.WITH_CLUBS)
     List<Match> findByStatus(Match.MatchStatus status);
+
+    @EntityGraph(Match.WITH_CLUBS)
     List<Match> findBySeason(String season);
+
+    @EntityGraph(Match.WITH_CLUBS)
     List<Match> findByMatchWeek(Integer matchWeek);
     
+    @EntityGraph(Match.WITH_CLUBS)
     @Query("SELECT m FROM Match m WHERE m.season = :season AND m.matchWeek = :matchWeek")
     List<Match> findBySeasonAndMatchWeek(@Param("season") String season, @Param("matchWeek") Integer matchWeek);
     
+    @EntityGraph(Match.WITH_CLUBS)
     @Query("SELECT m FROM Match m WHERE (m.homeClub.id = :clubId OR m.awayClub.id = :clubId) AND m.status = :status")
     List<Match> findByClubAndStatus(@Param("clubId") Long clubId, @Param("status") Match.MatchStatus status);
+
+    // Scores only, oldest first - used to rebuild in-memory indexes without loading clubs
+    @Query("SELECT new com.premierleague.analytics.dto.MatchResult(m.id, m.homeClub.id, m.awayClub.id, m.matchDate, m.homeScore, m.awayScore) " +
+           "FROM Match m WHERE m.status = :status AND m.homeScore IS NOT NULL AND m.awayScore IS NOT NULL ORDER BY m.matchDate ASC, m.id ASC")
+    List<MatchResult> findResultsByStatus(@Param("status") Match.MatchStatus status);
+
+    // The most recent result, to check that persisted indexes are current
+    @Query("SELECT new com.premierleague.analytics.dto.MatchResult(m.id, m.homeClub.id, m.awayClub.id, m.matchDate, m.homeScore, m.awayScore) " +
+           "FROM Match m WHERE m.status = :status AND m.homeScore IS NOT NULL AND m.awayScore IS NOT NULL " +
+           "ORDER BY m.matchDate DESC, m.id DESC LIMIT 1")
+    Optional<MatchResult> findLatestResult(@Param("status") Match.MatchStatus status);
+
+    // Scores of one season, oldest first - used by the backtest
+    @Query("SELECT new com.premierleague.analytics.dto.MatchResult(m.id, m.homeClub.id, m.awayClub.id, m.matchDate, m.homeScore, m.awayScore) " +
+           "FROM Match m WHERE m.status = :status AND m.season = :season AND m.homeScore IS NOT NULL AND m.awayScore IS NOT NULL " +
+           "ORDER BY m.matchDate ASC, m.id ASC")
+    List<MatchResult> findResultsByStatusAndSeason(@Param("status") Match.MatchStatus status, @Param("season") String season);
+
+    @Query("SELECT DISTINCT m.season FROM Match m WHERE m.status = :status AND m.season IS NOT NULL ORDER BY m.season")
+    List<String> findSeasonsByStatus(@Param("status") Match.MatchStatus status);
+
+    @Query("SELECT new com.premierleague.analytics.dto.Fixture(m.id, m.homeClub.id, m.awayClub.id, m.matchDate) " +
+           "FROM Match m WHERE m.status = :status ORDER BY m.matchDate ASC, m.id ASC")
+    List<Fixture> findFixturesByStatus(@Param("status") Match.MatchStatus status);
+
+    @Query("SELECT new com.premierleague.analytics.dto.Fixture(m.id, m.homeClub.id, m.awayClub.id, m.matchDate) " +
+           "FROM Match m WHERE m.status = :status AND m.season = :season ORDER BY m.matchDate ASC, m.id ASC")
+    List<Fixture> findFixturesByStatusAndSeason(@Param("status") Match.MatchStatus status, @Param("season") String season);
+
+    // Season of the most recent kickoff, played or not
+    @Query("SELECT m.season FROM Match m WHERE m.season IS NOT NULL ORDER BY m.matchDate DESC, m.id DESC LIMIT 1")
+    Optional<String> findLatestSeason();
+
+    @Query("SELECT m.homeClub.id FROM Match m WHERE m.season = :season " +
+           "UNION SELECT m.awayClub.id FROM Match m WHERE m.season = :season")
+    Set<Long> findClubIdsBySeason(@Param("season") String season);
+
+    String MATCH_SUMMARY = "SELECT new com.premierleague.analytics.dto.MatchSummary(m.id, m.matchDate, m.status, " +
+        "m.matchWeek, m.season, m.venue, m.homeScore, m.awayScore, " +
+        "h.id, h.name, h.shortName, h.tla, h.crestUrl, a.id, a.name, a.shortName, a.tla, a.crestUrl) " +
+        "FROM Match m JOIN m.homeClub h JOIN m.awayClub a " +
+        "WHERE (:season IS NULL OR m.season = :season) AND (:clubId IS NULL OR h.id = :clubId OR a.id = :clubId) ";
+
+    // Keyset pages ordered by (matchDate, id); pass the last row of the previous page as the cursor
+    @Query(MATCH_SUMMARY + "ORDER BY m.matchDate ASC, m.id ASC")
+    List<MatchSummary> findSummaries(@Param("season") String season, @Param("clubId") Long clubId, Pageable page);
+
+    @Query(MATCH_SUMMARY + "AND (m.matchDate > :afterDate OR (m.matchDate = :afterDate AND m.id > :afterId)) " +
+           "ORDER BY m.matchDate ASC, m.id ASC")
+    List<MatchSummary> findSummariesAfter(@Param("season") String season, @Param("clubId") Long clubId,
+                                          @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId,
+                                          Pageable page);
+
+    @Query("SELECT m.contentHash FROM Match m WHERE m.contentHash IS NOT NULL")
+    Set<String> findContentHashes();
+
+    @Query("SELECT new com.premierleague.analytics.dto.MatchResult(m.id, m.homeClub.id, m.awayClub.id, m.matchDate, m.homeScore, m.awayScore) " +
+           "FROM Match m WHERE m.externalId IN :externalIds")
+    List<MatchResult> findResultsByExternalIds(@Param("externalIds") Collection<Long> externalIds);
 }
@@ -1,25 +1,77 @@
 package com.premierleague.analytics.repository;
 
+import com.premierleague.analytics.dto.PlayerSummary;
 import com.premierleague.analytics.entity.Player;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface PlayerRepository extends JpaRepository<Player, Long> {
+    // Club is lazy; finders whose results are serialized fetch it in the same select
+    @Override
+    @EntityGraph(Player.WITH_CLUB)
+    Optional<Player> findById(Long id);
+
+    @EntityGraph(Player.WITH_CLUB)
     List<Player> findByClubId(Long clubId);
+
+    Optional<Player> findByExternalId(Long externalId);
+
+    @EntityGraph(Player.WITH_CLUB)
     List<Player> findByPosition(String position);
+
+    @EntityGraph(Player.WITH_CLUB)
     List<Player> findByNationality(String nationality);
     
+    @EntityGraph(Player.WITH_CLUB)
     @Query("SELECT p FROM Player p WHERE p.club.id = :clubId ORDER BY p.goals DESC")
     List<Player> findTopScorersByClub(@Param("clubId") Long clubId);
-    
-    @Query("SELECT p FROM Player p ORDER BY p.goals DESC")
-    List<Player> findTopScorers();
-    
-    @Query("SELECT p FROM Player p ORDER BY p.assists DESC")
-    List<Player> findTopAssistProviders();
+
+    String PLAYER_SUMMARY = "SELECT new com.premierleague.analytics.dto.PlayerSummary(p.id, p.name, p.position, " +
+        "p.nationality, p.jerseyNumber, p.goals, p.assists, p.matchesPlayed, c.id, c.name, c.shortName, c.tla, c.crestUrl) " +
+        "FROM Player p LEFT JOIN p.club c ";
+
+    // Keyset pages ordered by (goals desc, id), served by idx_players_goals; pass the last row of the previous page as the cursor.
+    // Players without a goals value follow as a separate tail ordered by id (idx_players_no_goals)
+    @Query(PLAYER_SUMMARY + "WHERE p.goals IS NOT NULL ORDER BY p.goals DESC, p.id ASC")
+    List<PlayerSummary> findSummaries(Pageable page);
+
+    @Query(PLAYER_SUMMARY + "WHERE p.goals IS NOT NULL " +
+           "AND (p.goals < :afterGoals OR (p.goals = :afterGoals AND p.id > :afterId)) " +
+           "ORDER BY p.goals DESC, p.id ASC")
+    List<PlayerSummary> findSummariesAfter(@Param("afterGoals") int afterGoals, @Param("afterId") Long afterId,
+                                           Pageable page);
+
+    @Query(PLAYER_SUMMARY + "WHERE p.goals IS NULL AND p.id > :afterId ORDER BY p.id ASC")
+    List<PlayerSummary> findSummariesWithoutGoals(@Param("afterId") Long afterId, Pageable page);
+
+    String LEADERBOARD_FILTER = "WHERE (:position IS NULL OR p.position = :position) " +
+        "AND (:clubId IS NULL OR c.id = :clubId) ";
+
+    // Top-N with the limit applied in SQL; served by idx_players_goals / idx_players_assists (V2 migration)
+    @Query(PLAYER_SUMMARY + LEADERBOARD_FILTER + "AND p.goals IS NOT NULL ORDER BY p.goals DESC, p.id ASC")
+    List<PlayerSummary> findTopScorerSummaries(@Param("position") String position, @Param("clubId") Long clubId,
+                                               Pageable page);
+
+    @Query(PLAYER_SUMMARY + LEADERBOARD_FILTER + "AND p.assists IS NOT NULL ORDER BY p.assists DESC, p.id ASC")
+    List<PlayerSummary> findTopAssistSummaries(@Param("position") String position, @Param("clubId") Long clubId,
+                                               Pageable page);
+
+    @Query(PLAYER_SUMMARY + "WHERE p.externalId IN :externalIds")
+    List<PlayerSummary> findSummariesByExternalIds(@Param("externalIds") Collection<Long> externalIds);
+
+    @Query(PLAYER_SUMMARY + "WHERE p.id IN :ids")
+    List<PlayerSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.contentHash FROM Player p WHERE p.contentHash IS NOT NULL")
+    Set<String> findContentHashes();
 }
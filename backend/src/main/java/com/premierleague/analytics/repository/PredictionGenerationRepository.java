@@ -0,0 +1,13 @@
+package com.premierleague.analytics.repository;
+
+import com.premierleague.analytics.entity.PredictionGeneration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PredictionGenerationRepository extends JpaRepository<PredictionGeneration, Long> {
+
+    Optional<PredictionGeneration> findFirstByCurrentTrueOrderByIdDesc();
+}
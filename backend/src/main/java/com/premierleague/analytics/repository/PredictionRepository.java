@@ -1,21 +1,44 @@
 package com.premierleague.analytics.repository;
 
 import com.premierleague.analytics.entity.Prediction;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface PredictionRepository extends JpaRepository<Prediction, Long> {
-    Optional<Prediction> findByMatchId(Long matchId);
+    // Readers only see the current generation
+    String CURRENT = "p.generationId IN (SELECT g.id FROM PredictionGeneration g WHERE g.current = true)";
+
+    // Match and both clubs are lazy; the API serializes all three, so fetch them in one select
+    @Override
+    @EntityGraph(Prediction.WITH_MATCH_AND_CLUBS)
+    List<Prediction> findAll();
+
+    @EntityGraph(Prediction.WITH_MATCH_AND_CLUBS)
+    @Query("SELECT p FROM Prediction p WHERE " + CURRENT)
+    List<Prediction> findCurrent();
+
+    // Every stored version for a match, newest first; copies carried into later generations are listed once
+    @EntityGraph(Prediction.WITH_MATCH_AND_CLUBS)
+    @Query("SELECT p FROM Prediction p WHERE p.id IN " +
+           "(SELECT MIN(v.id) FROM Prediction v WHERE v.match.id = :matchId GROUP BY v.createdAt) " +
+           "ORDER BY p.createdAt DESC")
+    List<Prediction> findHistoryByMatchId(@Param("matchId") Long matchId);
     
-    @Query("SELECT p FROM Prediction p JOIN p.match m WHERE m.status = :status ORDER BY m.matchDate ASC")
+    @EntityGraph(Prediction.WITH_MATCH_AND_CLUBS)
+    @Query("SELECT p FROM Prediction p JOIN p.match m WHERE m.status = :status AND " + CURRENT + " ORDER BY m.matchDate ASC")
     List<Prediction> findByMatchStatus(@Param("status") com.premierleague.analytics.entity.Match.MatchStatus status);
     
-    @Query("SELECT p FROM Prediction p JOIN p.match m WHERE m.matchWeek = :matchWeek ORDER BY m.matchDate ASC")
+    @EntityGraph(Prediction.WITH_MATCH_AND_CLUBS)
+    @Query("SELECT p FROM Prediction p JOIN p.match m WHERE m.matchWeek = :matchWeek AND " + CURRENT + " ORDER BY m.matchDate ASC")
     List<Prediction> findByMatchWeek(@Param("matchWeek") Integer matchWeek);
+
+    @Query("SELECT p.match.id FROM Prediction p WHERE p.generationId = :generationId")
+    Set<Long> findPredictedMatchIds(@Param("generationId") Long generationId);
 }
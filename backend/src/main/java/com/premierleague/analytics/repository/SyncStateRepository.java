@@ -0,0 +1,9 @@
+package com.premierleague.analytics.repository;
+
+import com.premierleague.analytics.entity.SyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncStateRepository extends JpaRepository<SyncState, String> {
+}
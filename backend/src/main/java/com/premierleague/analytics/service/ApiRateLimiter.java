@@ -0,0 +1,79 @@
+package com.premierleague.analytics.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by every Football-Data.org request.
+ *
+ * Refills at the API tier's requests-per-minute and allows bursts up to the
+ * configured capacity. A 429 from the API pauses the whole bucket until the
+ * quota window resets, so concurrent callers back off together.
+ */
+@Component
+public class ApiRateLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+    private long blockedUntil;
+
+    public ApiRateLimiter(
+        @Value("${football.data.api.requests-per-minute:10}") int requestsPerMinute,
+        @Value("${football.data.api.burst:0}") int burst
+    ) {
+        this.capacity = burst > 0 ? burst : requestsPerMinute;
+        this.tokensPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+        this.blockedUntil = lastRefill;
+    }
+
+    /**
+     * Block until a request may be sent.
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (now - blockedUntil >= 0) {
+                    refill(now);
+                    if (tokens >= 1.0) {
+                        tokens -= 1.0;
+                        return;
+                    }
+                    waitNanos = (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+                } else {
+                    waitNanos = blockedUntil - now;
+                }
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    /**
+     * Drain the bucket and hold every caller for the given duration (e.g. after a 429).
+     */
+    public synchronized void pause(Duration duration) {
+        long now = System.nanoTime();
+        long until = now + duration.toNanos();
+        if (until - blockedUntil > 0) {
+            blockedUntil = until;
+        }
+        tokens = 0;
+        lastRefill = blockedUntil;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.premierleague.analytics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.premierleague.analytics.dto.BacktestResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Command-line backtest: with --backtest the application runs one backtest, prints
+ * the result as JSON and exits. Optional --model=NAME, --season=2023/24 (repeatable)
+ * and --parallelism=N. Pass --spring.main.web-application-type=none to skip the web server.
+ */
+@Component
+public class BacktestRunner implements ApplicationRunner {
+
+    @Autowired
+    private BacktestService backtestService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("backtest")) {
+            return;
+        }
+        String model = first(args, "model");
+        List<String> seasons = args.containsOption("season") ? args.getOptionValues("season") : List.of();
+        String parallelism = first(args, "parallelism");
+
+        int exitCode = 0;
+        try {
+            BacktestResult result = backtestService.run(model, seasons,
+                parallelism != null ? Integer.parseInt(parallelism) : 0);
+            System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Backtest failed: " + e.getMessage());
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private static String first(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+}
@@ -0,0 +1,388 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.BacktestResult;
+import com.premierleague.analytics.dto.Forecast;
+import com.premierleague.analytics.dto.HeadToHead;
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Replays finished seasons through a prediction model and scores the forecasts.
+ *
+ * Each season walks its matchdays in kickoff order. Every fixture of a matchday is
+ * forecast from what was known before that day started: form, head-to-head and the
+ * season's table are rebuilt from earlier results only, and Elo ratings and stateful
+ * models run on replicas fed the same earlier results. The day's results are recorded
+ * only after all its fixtures are forecast.
+ *
+ * Seasons are independent (each replays its own prior history), so they run in
+ * parallel; all rows are read up front and each worker computes on its own state,
+ * without touching the shared (locked) ratings.
+ */
+@Service
+public class BacktestService {
+    private static final Logger logger = LoggerFactory.getLogger(BacktestService.class);
+
+    private static final int CALIBRATION_BUCKETS = 10;
+    // Floor on the probability of the actual outcome, so a 0% forecast costs a finite log-loss
+    private static final double MIN_PROBABILITY = 1e-15;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PredictionModels predictionModels;
+
+    @Autowired
+    private EloRatings eloRatings;
+
+    @Autowired
+    private JobService jobService;
+
+    @Value("${prediction.form-window:5}")
+    private int formWindow;
+
+    @Value("${backtest.parallelism:0}")
+    private int defaultParallelism;
+
+    /**
+     * Queue a backtest on the job executor, or return the backtest already in flight; the job
+     * result is the {@link BacktestResult}. The model name is checked before anything is queued.
+     *
+     * @throws IllegalArgumentException if no model has that name
+     */
+    public JobService.Submission submit(String modelName, List<String> seasons, int parallelism, String trigger) {
+        String name = resolve(modelName);
+        return jobService.submit(Job.Type.BACKTEST, trigger, 1, progress -> {
+            progress.stage("replay");
+            return run(name, seasons, parallelism).toMap();
+        });
+    }
+
+    /**
+     * @param modelName model to replay, or null for the active one
+     * @param seasons seasons to replay (e.g. "2023/24"), or empty for every season with finished matches
+     * @throws IllegalArgumentException if no model has that name
+     */
+    public BacktestResult run(String modelName, List<String> seasons, int parallelism) {
+        String name = resolve(modelName);
+        PredictionModel model = predictionModels.find(name).orElseThrow();
+        List<String> selected = seasons != null && !seasons.isEmpty() ? seasons
+            : matchRepository.findSeasonsByStatus(Match.MatchStatus.FINISHED);
+
+        List<MatchResult> history = matchRepository.findResultsByStatus(Match.MatchStatus.FINISHED);
+        Map<String, List<MatchResult>> fixtures = new LinkedHashMap<>();
+        for (String season : selected) {
+            List<MatchResult> results = matchRepository.findResultsByStatusAndSeason(Match.MatchStatus.FINISHED, season);
+            if (!results.isEmpty()) {
+                fixtures.put(season, results);
+            }
+        }
+
+        int workers = parallelism > 0 ? parallelism
+            : defaultParallelism > 0 ? defaultParallelism
+            : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+
+        List<Tally> tallies;
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            List<CompletableFuture<Tally>> runs = fixtures.entrySet().stream()
+                .map(season -> CompletableFuture.supplyAsync(
+                    () -> replaySeason(model.replica(), season.getKey(), season.getValue(), history), pool))
+                .toList();
+            tallies = runs.stream().map(CompletableFuture::join).toList();
+        } finally {
+            pool.shutdown();
+        }
+
+        Tally total = new Tally(null);
+        tallies.forEach(total::merge);
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        double perSecond = durationMs > 0 ? total.fixtures * 1000.0 / durationMs : total.fixtures;
+        logger.info("Backtest of {} over {} seasons: {} fixtures in {} ms ({} fixtures/sec, parallelism {}), Brier {}",
+            name, tallies.size(), total.fixtures, durationMs, String.format("%.0f", perSecond), workers,
+            String.format("%.4f", total.toMetrics().brierScore()));
+
+        return new BacktestResult(name, total.fixtures, workers, durationMs, perSecond, total.toMetrics(),
+            tallies.stream().map(Tally::toMetrics).toList());
+    }
+
+    private String resolve(String modelName) {
+        String name = modelName != null && !modelName.isBlank() ? modelName : predictionModels.activeName();
+        if (predictionModels.find(name).isEmpty()) {
+            throw new IllegalArgumentException("Unknown prediction model: " + name);
+        }
+        return name;
+    }
+
+    private Tally replaySeason(PredictionModel model, String season, List<MatchResult> fixtures,
+                               List<MatchResult> history) {
+        LocalDate opening = fixtures.get(0).matchDate().toLocalDate();
+        Walk walk = new Walk(formWindow, fixtures);
+        EloRatings.Replica elo = eloRatings.replica();
+        int rated = 0; // History fed to elo so far
+        List<MatchResult> earlier = new ArrayList<>();
+        for (MatchResult result : history) {
+            if (!result.matchDate().toLocalDate().isBefore(opening)) {
+                break; // Ordered by kickoff
+            }
+            walk.record(result, false);
+            earlier.add(result);
+        }
+        model.resultsRecorded(earlier);
+
+        PredictionModel fallback = predictionModels.fallback();
+        Tally tally = new Tally(season);
+        int from = 0;
+        while (from < fixtures.size()) {
+            LocalDate day = fixtures.get(from).matchDate().toLocalDate();
+            int to = from;
+            while (to < fixtures.size() && fixtures.get(to).matchDate().toLocalDate().equals(day)) {
+                to++;
+            }
+            List<MatchResult> matchday = fixtures.subList(from, to);
+
+            // Every club as rated after the matches that kicked off before the day, in any season
+            LocalDateTime cutoff = day.atStartOfDay();
+            while (rated < history.size() && history.get(rated).matchDate().isBefore(cutoff)) {
+                elo.record(history.get(rated++));
+            }
+            Map<Long, Integer> positions = walk.positions();
+            for (MatchResult fixture : matchday) {
+                PredictionModel.Context context = walk.context(fixture, positions,
+                    elo.current(fixture.homeClubId()), elo.current(fixture.awayClubId()));
+                Forecast forecast = model.forecast(context)
+                    .or(() -> fallback.forecast(context))
+                    .orElseThrow();
+                tally.add(forecast, fixture, !forecast.model().equals(model.name()));
+            }
+
+            for (MatchResult result : matchday) {
+                walk.record(result, true);
+            }
+            model.resultsRecorded(matchday);
+            from = to;
+        }
+        return tally;
+    }
+
+    private static int outcome(int homeGoals, int awayGoals) {
+        return homeGoals > awayGoals ? 0 : homeGoals == awayGoals ? 1 : 2;
+    }
+
+    /**
+     * Form, head-to-head and the season table as of the current point of the replay.
+     */
+    private static final class Walk {
+        private final int formWindow;
+        private final Map<Long, Form> forms = new HashMap<>();
+        // Meetings from the lower club id's side: played, wins, draws, losses, goals for, goals against
+        private final Map<PairKey, int[]> meetings = new HashMap<>();
+        // Season table: points, goal difference, goals for
+        private final Map<Long, int[]> table = new HashMap<>();
+
+        Walk(int formWindow, List<MatchResult> fixtures) {
+            this.formWindow = formWindow;
+            for (MatchResult fixture : fixtures) {
+                table.computeIfAbsent(fixture.homeClubId(), id -> new int[3]);
+                table.computeIfAbsent(fixture.awayClubId(), id -> new int[3]);
+            }
+        }
+
+        void record(MatchResult result, boolean inSeason) {
+            int home = result.homeScore();
+            int away = result.awayScore();
+            int outcome = outcome(home, away);
+            int homePoints = outcome == 0 ? 3 : outcome == 1 ? 1 : 0;
+            int awayPoints = outcome == 2 ? 3 : outcome == 1 ? 1 : 0;
+
+            forms.computeIfAbsent(result.homeClubId(), id -> new Form(formWindow)).add(homePoints);
+            forms.computeIfAbsent(result.awayClubId(), id -> new Form(formWindow)).add(awayPoints);
+
+            boolean homeLow = result.homeClubId() < result.awayClubId();
+            int[] pair = meetings.computeIfAbsent(PairKey.of(result.homeClubId(), result.awayClubId()), k -> new int[6]);
+            int lowOutcome = homeLow ? outcome : 2 - outcome;
+            pair[0]++;
+            pair[1 + lowOutcome]++;
+            pair[4] += homeLow ? home : away;
+            pair[5] += homeLow ? away : home;
+
+            if (inSeason) {
+                int[] homeRow = table.get(result.homeClubId());
+                int[] awayRow = table.get(result.awayClubId());
+                homeRow[0] += homePoints;
+                homeRow[1] += home - away;
+                homeRow[2] += home;
+                awayRow[0] += awayPoints;
+                awayRow[1] += away - home;
+                awayRow[2] += away;
+            }
+        }
+
+        Map<Long, Integer> positions() {
+            List<Long> clubs = new ArrayList<>(table.keySet());
+            clubs.sort(Comparator.<Long>comparingInt(id -> -table.get(id)[0])
+                .thenComparingInt(id -> -table.get(id)[1])
+                .thenComparingInt(id -> -table.get(id)[2])
+                .thenComparing(Comparator.naturalOrder()));
+            Map<Long, Integer> positions = new HashMap<>();
+            for (int i = 0; i < clubs.size(); i++) {
+                positions.put(clubs.get(i), i + 1);
+            }
+            return positions;
+        }
+
+        PredictionModel.Context context(MatchResult fixture, Map<Long, Integer> positions,
+                                        double homeRating, double awayRating) {
+            Long homeId = fixture.homeClubId();
+            Long awayId = fixture.awayClubId();
+            Form homeForm = forms.get(homeId);
+            Form awayForm = forms.get(awayId);
+            return new PredictionModel.Context(homeId, awayId,
+                homeForm != null ? homeForm.sum : 0, awayForm != null ? awayForm.sum : 0,
+                positions.get(homeId), positions.get(awayId),
+                table.get(homeId)[0], table.get(awayId)[0],
+                homeRating, awayRating,
+                headToHead(homeId, awayId));
+        }
+
+        // Counts only; no model reads the recent meetings
+        private HeadToHead headToHead(Long homeId, Long awayId) {
+            int[] pair = meetings.get(PairKey.of(homeId, awayId));
+            if (pair == null) {
+                return HeadToHead.none(homeId, awayId);
+            }
+            boolean homeLow = homeId < awayId;
+            HeadToHead low = new HeadToHead(homeLow ? homeId : awayId, homeLow ? awayId : homeId,
+                pair[0], pair[1], pair[2], pair[3], pair[4], pair[5], List.of());
+            return homeLow ? low : low.reversed();
+        }
+    }
+
+    private record PairKey(long low, long high) {
+        static PairKey of(Long a, Long b) {
+            return a < b ? new PairKey(a, b) : new PairKey(b, a);
+        }
+    }
+
+    /**
+     * Points from a club's last N results, as a ring buffer with a running sum.
+     */
+    private static final class Form {
+        private final int[] points;
+        private int next;
+        private int count;
+        private int sum;
+
+        Form(int window) {
+            points = new int[Math.max(1, window)];
+        }
+
+        void add(int value) {
+            if (count == points.length) {
+                sum -= points[next];
+            } else {
+                count++;
+            }
+            points[next] = value;
+            sum += value;
+            next = (next + 1) % points.length;
+        }
+    }
+
+    private static final class Tally {
+        private final String season;
+        private int fixtures;
+        private double brier;
+        private double logLoss;
+        private int correct;
+        private int exact;
+        private int fallbacks;
+        private final int[] bucketForecasts = new int[CALIBRATION_BUCKETS];
+        private final double[] bucketPredicted = new double[CALIBRATION_BUCKETS];
+        private final int[] bucketObserved = new int[CALIBRATION_BUCKETS];
+
+        Tally(String season) {
+            this.season = season;
+        }
+
+        void add(Forecast forecast, MatchResult result, boolean fallback) {
+            double sum = forecast.homeWinProbability() + forecast.drawProbability() + forecast.awayWinProbability();
+            double[] p = {
+                forecast.homeWinProbability() / sum,
+                forecast.drawProbability() / sum,
+                forecast.awayWinProbability() / sum
+            };
+            int actual = outcome(result.homeScore(), result.awayScore());
+            int likeliest = 0;
+            for (int k = 0; k < 3; k++) {
+                int observed = k == actual ? 1 : 0;
+                brier += (p[k] - observed) * (p[k] - observed);
+                int bucket = Math.min(CALIBRATION_BUCKETS - 1, (int) (p[k] * CALIBRATION_BUCKETS));
+                bucketForecasts[bucket]++;
+                bucketPredicted[bucket] += p[k];
+                bucketObserved[bucket] += observed;
+                if (p[k] > p[likeliest]) {
+                    likeliest = k;
+                }
+            }
+            logLoss -= Math.log(Math.max(p[actual], MIN_PROBABILITY));
+            if (likeliest == actual) {
+                correct++;
+            }
+            if (forecast.homeScore() == result.homeScore() && forecast.awayScore() == result.awayScore()) {
+                exact++;
+            }
+            if (fallback) {
+                fallbacks++;
+            }
+            fixtures++;
+        }
+
+        void merge(Tally other) {
+            fixtures += other.fixtures;
+            brier += other.brier;
+            logLoss += other.logLoss;
+            correct += other.correct;
+            exact += other.exact;
+            fallbacks += other.fallbacks;
+            for (int b = 0; b < CALIBRATION_BUCKETS; b++) {
+                bucketForecasts[b] += other.bucketForecasts[b];
+                bucketPredicted[b] += other.bucketPredicted[b];
+                bucketObserved[b] += other.bucketObserved[b];
+            }
+        }
+
+        BacktestResult.Metrics toMetrics() {
+            double n = Math.max(1, fixtures);
+            List<BacktestResult.CalibrationBucket> calibration = new ArrayList<>(CALIBRATION_BUCKETS);
+            for (int b = 0; b < CALIBRATION_BUCKETS; b++) {
+                int forecasts = bucketForecasts[b];
+                calibration.add(new BacktestResult.CalibrationBucket(
+                    b / (double) CALIBRATION_BUCKETS, (b + 1) / (double) CALIBRATION_BUCKETS, forecasts,
+                    forecasts > 0 ? bucketPredicted[b] / forecasts : 0.0,
+                    forecasts > 0 ? bucketObserved[b] / (double) forecasts : 0.0));
+            }
+            return new BacktestResult.Metrics(season, fixtures, brier / n, logLoss / n, correct / n, exact / n,
+                fallbacks, calibration);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.BatchPredictionResult;
+import com.premierleague.analytics.dto.Fixture;
+import com.premierleague.analytics.dto.HeadToHead;
+import com.premierleague.analytics.entity.Club;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.entity.Prediction;
+import com.premierleague.analytics.repository.ClubRepository;
+import com.premierleague.analytics.repository.MatchRepository;
+import com.premierleague.analytics.repository.PredictionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Predicts every SCHEDULED fixture in one pass.
+ *
+ * Reads fixtures, the current generation's prediction ids and clubs once each, computes
+ * predictions in parallel against that snapshot, then writes a new generation: the
+ * current predictions carried forward plus the new ones in JDBC batch inserts, published
+ * like any other regeneration. Runs as a PREDICTIONS job, so it never overlaps another
+ * writer of generations.
+ */
+@Service
+public class BatchPredictionService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchPredictionService.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO predictions (match_id, predicted_home_score, predicted_away_score, predicted_outcome, " +
+        "home_win_probability, draw_probability, away_win_probability, confidence, reasoning, " +
+        "home_form_points, away_form_points, home_position, away_position, created_at, generation_id, model_version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private PredictionService predictionService;
+
+    @Autowired
+    private ClubFormIndex clubFormIndex;
+
+    @Autowired
+    private HeadToHeadIndex headToHeadIndex;
+
+    @Autowired
+    private EloRatings eloRatings;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PredictionVersions predictionVersions;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // 0 = one worker per available core
+    @Value("${prediction.batch.parallelism:0}")
+    private int parallelism;
+
+    @Value("${prediction.batch.insert-size:500}")
+    private int insertBatchSize;
+
+    /**
+     * Queue a batch prediction on the prediction single-flight, or return the prediction job already in flight.
+     */
+    public JobService.Submission submitBatch(String trigger) {
+        return jobService.submit(Job.Type.PREDICTIONS, trigger, 2, progress -> predictAllScheduled(progress).toMap());
+    }
+
+    /**
+     * Predict every scheduled fixture that does not have a prediction yet.
+     * Callers must hold the PREDICTIONS job slot; see {@link #submitBatch}.
+     */
+    BatchPredictionResult predictAllScheduled(JobProgress progress) {
+        long start = System.nanoTime();
+        progress.stage("predict");
+
+        // Snapshot: one read each for fixtures, existing predictions and clubs
+        List<Fixture> fixtures = matchRepository.findFixturesByStatus(Match.MatchStatus.SCHEDULED);
+        long current = predictionVersions.currentOrCreate("batch");
+        Set<Long> predicted = predictionRepository.findPredictedMatchIds(current);
+        Map<Long, Club> clubs = new HashMap<>();
+        Map<Long, Integer> formPoints = new HashMap<>();
+        Map<Long, Double> ratings = new HashMap<>();
+        for (Club club : clubRepository.findAll()) {
+            clubs.put(club.getId(), club);
+            formPoints.put(club.getId(), clubFormIndex.getFormPoints(club.getId()));
+            ratings.put(club.getId(), eloRatings.current(club.getId()));
+        }
+
+        List<Fixture> pending = fixtures.stream()
+            .filter(f -> !predicted.contains(f.matchId()))
+            .toList();
+
+        // Head-to-head records are in memory; resolve them here so workers only read the snapshot
+        Map<Long, HeadToHead> headToHeads = new HashMap<>();
+        for (Fixture fixture : pending) {
+            headToHeads.put(fixture.matchId(), headToHeadIndex.get(fixture.homeClubId(), fixture.awayClubId()));
+        }
+
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        List<PendingPrediction> computed = compute(pending, clubs, formPoints, ratings, headToHeads, workers);
+
+        progress.stage("publish");
+        if (!computed.isEmpty()) {
+            long generationId = predictionVersions.begin("batch");
+            transactionTemplate.executeWithoutResult(status -> {
+                predictionVersions.copyForward(current, generationId, List.of());
+                insert(computed, generationId);
+                predictionVersions.publish(generationId);
+            });
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        double perSecond = durationMs > 0 ? computed.size() * 1000.0 / durationMs : computed.size();
+        logger.info("Batch prediction: {} fixtures, {} already predicted, {} created in {} ms ({} predictions/sec, parallelism {})",
+            fixtures.size(), fixtures.size() - pending.size(), computed.size(), durationMs,
+            String.format("%.1f", perSecond), workers);
+
+        return new BatchPredictionResult(
+            fixtures.size(), fixtures.size() - pending.size(), computed.size(), workers, durationMs, perSecond
+        );
+    }
+
+    private List<PendingPrediction> compute(List<Fixture> pending, Map<Long, Club> clubs,
+                                            Map<Long, Integer> formPoints, Map<Long, Double> ratings,
+                                            Map<Long, HeadToHead> headToHeads, int workers) {
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            return pool.submit(() -> pending.parallelStream()
+                .filter(f -> clubs.containsKey(f.homeClubId()) && clubs.containsKey(f.awayClubId()))
+                .map(f -> new PendingPrediction(f.matchId(), predictionService.buildPrediction(
+                    clubs.get(f.homeClubId()), clubs.get(f.awayClubId()),
+                    formPoints.getOrDefault(f.homeClubId(), 0), formPoints.getOrDefault(f.awayClubId(), 0),
+                    ratings.get(f.homeClubId()), ratings.get(f.awayClubId()),
+                    headToHeads.get(f.matchId()))))
+                .toList()
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Batch prediction interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Batch prediction failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void insert(List<PendingPrediction> computed, long generationId) {
+        if (computed.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, computed, insertBatchSize, (ps, pending) -> {
+            Prediction p = pending.prediction();
+            ps.setLong(1, pending.matchId());
+            ps.setInt(2, p.getPredictedHomeScore());
+            ps.setInt(3, p.getPredictedAwayScore());
+            ps.setString(4, p.getPredictedOutcome());
+            ps.setDouble(5, p.getHomeWinProbability());
+            ps.setDouble(6, p.getDrawProbability());
+            ps.setDouble(7, p.getAwayWinProbability());
+            ps.setDouble(8, p.getConfidence());
+            ps.setString(9, p.getReasoning());
+            ps.setInt(10, p.getHomeFormPoints());
+            ps.setInt(11, p.getAwayFormPoints());
+            ps.setInt(12, p.getHomePosition());
+            ps.setInt(13, p.getAwayPosition());
+            ps.setTimestamp(14, now);
+            ps.setLong(15, generationId);
+            ps.setString(16, p.getModelVersion());
+        });
+    }
+
+    private record PendingPrediction(Long matchId, Prediction prediction) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.premierleague.analytics.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Buffers records and hands them to a sink in fixed-size batches, so a feed of
+ * any length is written with bounded memory. Close to flush the final partial batch.
+ */
+final class BatchWriter<T> implements AutoCloseable {
+
+    private final int batchSize;
+    private final Consumer<List<T>> sink;
+    private List<T> buffer;
+    private int written;
+
+    BatchWriter(int batchSize, Consumer<List<T>> sink) {
+        this.batchSize = Math.max(1, batchSize);
+        this.sink = sink;
+        this.buffer = new ArrayList<>(this.batchSize);
+    }
+
+    void add(T record) {
+        buffer.add(record);
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<T> batch = buffer;
+        buffer = new ArrayList<>(batchSize);
+        sink.accept(batch);
+        written += batch.size();
+    }
+
+    int written() {
+        return written;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
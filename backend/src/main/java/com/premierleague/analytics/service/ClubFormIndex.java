@@ -0,0 +1,328 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.entity.ClubForm;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.ClubFormRepository;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of each club's last N finished results.
+ *
+ * Loaded once from the club_form table (or rebuilt from the matches table in a
+ * single query if that is empty, or misses the latest finished match) and then
+ * maintained incrementally as matches finish, so form lookups never have to scan
+ * a club's match history.
+ */
+@Service
+public class ClubFormIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ClubFormIndex.class);
+
+    @Autowired
+    private ClubFormRepository clubFormRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${prediction.form-window:5}")
+    private int formWindow;
+
+    // Replaced whole by a load or rebuild, so readers never see a half-built index
+    private volatile Map<Long, RecentForm> forms = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    // Serializes loads, rebuilds and recorded results; a lock rather than synchronized, as all of them query or write
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Form points (W=3, D=1, L=0) over the club's last N finished matches.
+     */
+    public int getFormPoints(Long clubId) {
+        ensureLoaded();
+        RecentForm form = forms.get(clubId);
+        return form != null ? form.points() : 0;
+    }
+
+    /**
+     * Most recent first, e.g. "WWDLW".
+     */
+    public String getFormString(Long clubId) {
+        ensureLoaded();
+        RecentForm form = forms.get(clubId);
+        return form != null ? form.resultString() : "";
+    }
+
+    /**
+     * Apply a finished match to both clubs' buffers and persist the two rows.
+     * Re-recording the same match (e.g. a corrected score) replaces its entry; if
+     * that leaves a buffer unable to tell its last N results, the index is rebuilt.
+     */
+    public void recordResult(MatchResult result) {
+        if (result.homeScore() == null || result.awayScore() == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            ensureLoaded();
+
+            Long homeId = result.homeClubId();
+            Long awayId = result.awayClubId();
+            long kickoff = toEpochSecond(result.matchDate());
+            int home = result.homeScore();
+            int away = result.awayScore();
+
+            Map<Long, RecentForm> current = forms;
+            RecentForm homeForm = current.computeIfAbsent(homeId, id -> new RecentForm(formWindow));
+            RecentForm awayForm = current.computeIfAbsent(awayId, id -> new RecentForm(formWindow));
+            boolean homeChanged = homeForm.add(result.matchId(), kickoff, resultFor(home, away));
+            boolean awayChanged = awayForm.add(result.matchId(), kickoff, resultFor(away, home));
+            if (homeForm.isIncomplete() || awayForm.isIncomplete()) {
+                logger.info("Match {} moved out of a club's recent form, rebuilding", result.matchId());
+                rebuild();
+                return;
+            }
+
+            List<ClubForm> changed = new ArrayList<>(2);
+            if (homeChanged) changed.add(toEntity(homeId, homeForm));
+            if (awayChanged) changed.add(toEntity(awayId, awayForm));
+            if (!changed.isEmpty()) {
+                clubFormRepository.saveAll(changed);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Discard the persisted buffers and rebuild them from all finished matches.
+     * Readers keep the previous index until the new one is complete.
+     */
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            Map<Long, RecentForm> rebuilt = new ConcurrentHashMap<>();
+            List<MatchResult> results = matchRepository.findResultsByStatus(Match.MatchStatus.FINISHED);
+            for (MatchResult result : results) {
+                long kickoff = toEpochSecond(result.matchDate());
+                rebuilt.computeIfAbsent(result.homeClubId(), id -> new RecentForm(formWindow))
+                    .add(result.matchId(), kickoff, resultFor(result.homeScore(), result.awayScore()));
+                rebuilt.computeIfAbsent(result.awayClubId(), id -> new RecentForm(formWindow))
+                    .add(result.matchId(), kickoff, resultFor(result.awayScore(), result.homeScore()));
+            }
+
+            List<ClubForm> rows = new ArrayList<>(rebuilt.size());
+            rebuilt.forEach((clubId, form) -> rows.add(toEntity(clubId, form)));
+            // One transaction, so a failed save leaves the old rows rather than an empty table
+            transactionTemplate.executeWithoutResult(status -> {
+                clubFormRepository.deleteAllInBatch();
+                clubFormRepository.saveAll(rows);
+            });
+            forms = rebuilt;
+            loaded = true;
+            logger.info("Rebuilt form index for {} clubs from {} finished matches", rebuilt.size(), results.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            List<ClubForm> rows = clubFormRepository.findAll();
+            if (rows.isEmpty()) {
+                rebuild();
+                return;
+            }
+            Map<Long, RecentForm> restored = new ConcurrentHashMap<>();
+            for (ClubForm row : rows) {
+                restored.put(row.getClubId(), RecentForm.decode(row.getEntries(), formWindow));
+            }
+            // Results recorded while the buffers were not maintained (e.g. a restore, or a write that failed)
+            Optional<MatchResult> latest = matchRepository.findLatestResult(Match.MatchStatus.FINISHED);
+            if (latest.isPresent() && !reflects(restored, latest.get())) {
+                logger.info("Persisted form index predates match {}, rebuilding", latest.get().matchId());
+                rebuild();
+                return;
+            }
+            forms = restored;
+            loaded = true;
+            logger.info("Loaded form index for {} clubs", rows.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Both clubs' buffers hold the match with its current result
+    private boolean reflects(Map<Long, RecentForm> index, MatchResult result) {
+        long kickoff = toEpochSecond(result.matchDate());
+        RecentForm home = index.get(result.homeClubId());
+        RecentForm away = index.get(result.awayClubId());
+        return home != null && home.contains(result.matchId(), kickoff, resultFor(result.homeScore(), result.awayScore()))
+            && away != null && away.contains(result.matchId(), kickoff, resultFor(result.awayScore(), result.homeScore()));
+    }
+
+    private ClubForm toEntity(Long clubId, RecentForm form) {
+        ClubForm row = new ClubForm();
+        row.setClubId(clubId);
+        row.setEntries(form.encode());
+        return row;
+    }
+
+    private static char resultFor(int goalsFor, int goalsAgainst) {
+        if (goalsFor > goalsAgainst) return 'W';
+        if (goalsFor == goalsAgainst) return 'D';
+        return 'L';
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Fixed-capacity buffer of results kept newest first. Results normally
+     * arrive in kickoff order, so an insert is a shift of at most N slots.
+     */
+    static final class RecentForm {
+        private final long[] matchIds;
+        private final long[] kickoffs;
+        private final char[] results;
+        private int size;
+        // Set once the buffer may no longer hold the club's last N results; only a rebuild repairs it
+        private boolean incomplete;
+
+        RecentForm(int capacity) {
+            this.matchIds = new long[capacity];
+            this.kickoffs = new long[capacity];
+            this.results = new char[capacity];
+        }
+
+        /**
+         * @return whether the buffer changed
+         */
+        synchronized boolean add(long matchId, long kickoff, char result) {
+            boolean movedBack = false;
+            boolean replaced = false;
+            boolean wasFull = size == matchIds.length;
+            for (int i = 0; i < size; i++) {
+                if (matchIds[i] == matchId) {
+                    if (kickoffs[i] == kickoff && results[i] == result) {
+                        return false;
+                    }
+                    movedBack = kickoff < kickoffs[i];
+                    remove(i);
+                    replaced = true;
+                    break;
+                }
+            }
+
+            int capacity = matchIds.length;
+            int slot = 0;
+            while (slot < size && kickoffs[slot] > kickoff) {
+                slot++;
+            }
+            if (movedBack && wasFull && slot == size) {
+                // Moved back to the oldest slot of a full buffer: a result dropped earlier may be newer than it
+                incomplete = true;
+            }
+            if (slot >= capacity) {
+                return replaced; // Older than everything we keep
+            }
+
+            int last = Math.min(size, capacity - 1);
+            for (int i = last; i > slot; i--) {
+                matchIds[i] = matchIds[i - 1];
+                kickoffs[i] = kickoffs[i - 1];
+                results[i] = results[i - 1];
+            }
+            matchIds[slot] = matchId;
+            kickoffs[slot] = kickoff;
+            results[slot] = result;
+            size = Math.min(size + 1, capacity);
+            return true;
+        }
+
+        synchronized boolean isIncomplete() {
+            return incomplete;
+        }
+
+        synchronized boolean contains(long matchId, long kickoff, char result) {
+            for (int i = 0; i < size; i++) {
+                if (matchIds[i] == matchId) {
+                    return kickoffs[i] == kickoff && results[i] == result;
+                }
+            }
+            return false;
+        }
+
+        private void remove(int index) {
+            for (int i = index; i < size - 1; i++) {
+                matchIds[i] = matchIds[i + 1];
+                kickoffs[i] = kickoffs[i + 1];
+                results[i] = results[i + 1];
+            }
+            size--;
+        }
+
+        synchronized int points() {
+            int points = 0;
+            for (int i = 0; i < size; i++) {
+                if (results[i] == 'W') {
+                    points += 3;
+                } else if (results[i] == 'D') {
+                    points += 1;
+                }
+            }
+            return points;
+        }
+
+        synchronized String resultString() {
+            return new String(results, 0, size);
+        }
+
+        synchronized String encode() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(matchIds[i]).append(':').append(kickoffs[i]).append(':').append(results[i]);
+            }
+            return sb.toString();
+        }
+
+        static RecentForm decode(String entries, int capacity) {
+            RecentForm form = new RecentForm(capacity);
+            if (entries == null || entries.isEmpty()) {
+                return form;
+            }
+            for (String entry : entries.split(",")) {
+                String[] parts = entry.split(":");
+                if (parts.length == 3 && !parts[2].isEmpty()) {
+                    form.add(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2].charAt(0));
+                }
+            }
+            return form;
+        }
+    }
+}
@@ -33,13 +33,20 @@ public class DataInitializationService implements CommandLineRunner {
     @Autowired
     private FootballDataService footballDataService;
 
+    @Autowired
+    private PredictionVersions predictionVersions;
+
     @Override
     public void run(String... args) throws Exception {
         if (clubRepository.count() == 0) {
             // Try to fetch real data from Football-Data.org API first
             try {
                 System.out.println("Fetching real Premier League data from Football-Data.org API...");
-                footballDataService.refreshAllData();
+                // Through the job service, so the hourly cron cannot overlap the initial load
+                Job job = footballDataService.submitRefresh("startup").job().completion().join();
+                if (job.getStatus() == Job.Status.FAILED) {
+                    throw new IllegalStateException(job.getError());
+                }
                 System.out.println("Successfully loaded data from Football-Data.org API");
             } catch (Exception e) {
                 // If API fails, fall back to sample data
@@ -195,6 +202,8 @@ public class DataInitializationService implements CommandLineRunner {
     private void createAIPrediction(Match match) {
         Prediction prediction = new Prediction();
         prediction.setMatch(match);
+        prediction.setGenerationId(predictionVersions.currentOrCreate("sample-data"));
+        prediction.setModelVersion("sample");
         prediction.setPredictedHomeScore(random.nextInt(4));
         prediction.setPredictedAwayScore(random.nextInt(4));
         
@@ -0,0 +1,498 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.Forecast;
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dixon-Coles model: home goals ~ Poisson(exp(home + attack[h] + defence[a])),
+ * away goals ~ Poisson(exp(attack[a] + defence[h])), with the rho correction on
+ * the 0-0, 1-0, 0-1 and 1-1 scorelines and older matches down-weighted by
+ * exp(-decay * age in days).
+ *
+ * Attack, defence and home advantage are fitted by cyclic coordinate ascent:
+ * each block has a closed-form maximiser given the others, so an iteration is
+ * three passes over primitive arrays of the finished matches. Rho is then
+ * fitted by a one-dimensional golden-section search. After every fit the
+ * scoreline matrix of every ordered pair of clubs is reduced to outcome
+ * probabilities and a scoreline, so a forecast is an array lookup.
+ *
+ * New results are appended to the arrays and the fit is resumed from the
+ * previous parameters, which converges in a few iterations.
+ */
+@Component
+public class DixonColesModel implements PredictionModel {
+    private static final Logger logger = LoggerFactory.getLogger(DixonColesModel.class);
+
+    public static final String NAME = "dixon-coles";
+
+    private static final int MAX_ITERATIONS = 500;
+    private static final double TOLERANCE = 1e-7;
+    // Floor on weighted goals, so a club that has not scored (or conceded) yet keeps a finite rating
+    private static final double MIN_GOALS = 0.1;
+    private static final double RHO_BOUND = 0.3;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Value("${prediction.dixon-coles.decay-per-day:0.0019}")
+    private double decayPerDay;
+
+    @Value("${prediction.dixon-coles.max-goals:10}")
+    private int maxGoals;
+
+    // Below this many finished matches the model declines and the fallback is used
+    @Value("${prediction.dixon-coles.min-matches:50}")
+    private int minMatches;
+
+    // Training data, one slot per finished match; guarded by lock
+    private int size;
+    private int[] homeIndex = new int[0];
+    private int[] awayIndex = new int[0];
+    private int[] homeGoals = new int[0];
+    private int[] awayGoals = new int[0];
+    private long[] kickoffDay = new long[0];
+    private final Map<Long, Integer> rowByMatch = new HashMap<>();
+    private final Map<Long, Integer> clubIndex = new HashMap<>();
+
+    // Parameters, kept between fits as the warm start; guarded by lock
+    private double[] attack = new double[0];
+    private double[] defence = new double[0];
+    private double homeAdvantage = 0.0;
+    private double rho = 0.0;
+
+    // A lock rather than synchronized, as the first load queries the matches table under it
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean loaded = false;
+    private volatile Fit fit;
+    // Replicas refit once per backtested matchday, so they do not log each fit
+    private boolean replica = false;
+
+    /**
+     * Outcome probabilities and scorelines for every ordered pair of fitted clubs,
+     * indexed [home * clubs + away].
+     */
+    private record Fit(Map<Long, Integer> clubIndex, int clubs, double[] homeWin, double[] draw, double[] awayWin,
+                       int[] homeScore, int[] awayScore, Map<String, Object> status) {
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Optional<Forecast> forecast(Context context) {
+        ensureLoaded();
+        Fit current = fit;
+        if (current == null) {
+            return Optional.empty();
+        }
+        Integer home = current.clubIndex().get(context.homeClubId());
+        Integer away = current.clubIndex().get(context.awayClubId());
+        if (home == null || away == null || home.equals(away)) {
+            return Optional.empty();
+        }
+        int pair = home * current.clubs() + away;
+        return Optional.of(new Forecast(NAME,
+            current.homeWin()[pair], current.draw()[pair], current.awayWin()[pair],
+            current.homeScore()[pair], current.awayScore()[pair]));
+    }
+
+    @Override
+    public void resultsRecorded(List<MatchResult> results) {
+        if (!loaded || results.isEmpty()) {
+            return; // The first load reads every committed result
+        }
+        lock.lock();
+        try {
+            boolean changed = false;
+            for (MatchResult result : results) {
+                changed |= add(result);
+            }
+            if (changed) {
+                refit();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public PredictionModel replica() {
+        DixonColesModel replica = new DixonColesModel();
+        replica.decayPerDay = decayPerDay;
+        replica.maxGoals = maxGoals;
+        replica.minMatches = minMatches;
+        replica.replica = true;
+        replica.loaded = true; // Starts empty rather than reading the matches table
+        return replica;
+    }
+
+    @Override
+    public Map<String, Object> status() {
+        ensureLoaded();
+        Fit current = fit;
+        if (current == null) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("model", NAME);
+            status.put("fitted", false);
+            status.put("matches", size);
+            status.put("minMatches", minMatches);
+            return status;
+        }
+        return current.status();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            for (MatchResult result : matchRepository.findResultsByStatus(Match.MatchStatus.FINISHED)) {
+                add(result);
+            }
+            refit();
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return false if the match is already stored with this score
+     */
+    private boolean add(MatchResult result) {
+        if (result.homeScore() == null || result.awayScore() == null
+                || result.homeClubId().equals(result.awayClubId())) {
+            return false;
+        }
+        Integer row = rowByMatch.get(result.matchId());
+        if (row == null) {
+            row = size++;
+            if (row == homeIndex.length) {
+                int capacity = Math.max(256, row * 2);
+                homeIndex = Arrays.copyOf(homeIndex, capacity);
+                awayIndex = Arrays.copyOf(awayIndex, capacity);
+                homeGoals = Arrays.copyOf(homeGoals, capacity);
+                awayGoals = Arrays.copyOf(awayGoals, capacity);
+                kickoffDay = Arrays.copyOf(kickoffDay, capacity);
+            }
+            rowByMatch.put(result.matchId(), row);
+        } else if (homeGoals[row] == result.homeScore() && awayGoals[row] == result.awayScore()) {
+            return false;
+        }
+        homeIndex[row] = club(result.homeClubId());
+        awayIndex[row] = club(result.awayClubId());
+        homeGoals[row] = result.homeScore();
+        awayGoals[row] = result.awayScore();
+        kickoffDay[row] = result.matchDate().toLocalDate().toEpochDay();
+        return true;
+    }
+
+    private int club(Long clubId) {
+        Integer index = clubIndex.get(clubId);
+        if (index == null) {
+            index = clubIndex.size();
+            clubIndex.put(clubId, index);
+            // New clubs start at the league average
+            attack = Arrays.copyOf(attack, index + 1);
+            defence = Arrays.copyOf(defence, index + 1);
+        }
+        return index;
+    }
+
+    private void refit() {
+        if (size < minMatches) {
+            fit = null;
+            if (!replica) {
+                logger.info("Dixon-Coles: {} finished matches, need {} before fitting", size, minMatches);
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        double[] weights = weights();
+        int iterations = solveRatings(weights);
+        rho = solveRho(weights);
+        long fitNanos = System.nanoTime() - start;
+        fit = precompute(iterations, fitNanos);
+        if (replica) {
+            return;
+        }
+        logger.info("Dixon-Coles fitted {} clubs on {} matches in {} iterations, {} ms (home {}, rho {})",
+            clubIndex.size(), size, iterations, fitNanos / 1_000_000,
+            String.format("%.3f", homeAdvantage), String.format("%.3f", rho));
+    }
+
+    private double[] weights() {
+        long latest = Long.MIN_VALUE;
+        for (int m = 0; m < size; m++) {
+            latest = Math.max(latest, kickoffDay[m]);
+        }
+        double[] weights = new double[size];
+        for (int m = 0; m < size; m++) {
+            weights[m] = Math.exp(-decayPerDay * (latest - kickoffDay[m]));
+        }
+        return weights;
+    }
+
+    /**
+     * Cyclic coordinate ascent on the weighted Poisson likelihood, resumed from the current parameters.
+     *
+     * @return iterations run
+     */
+    private int solveRatings(double[] weights) {
+        int clubs = clubIndex.size();
+        double[] expAttack = new double[clubs];
+        double[] expDefence = new double[clubs];
+        double[] numerator = new double[clubs];
+        double[] denominator = new double[clubs];
+        double[] updatedAttack = new double[clubs];
+
+        int iteration = 0;
+        while (iteration < MAX_ITERATIONS) {
+            iteration++;
+            double maxChange = 0.0;
+            double expHome = Math.exp(homeAdvantage);
+
+            // Attack: goals scored over expected goals at rating 0
+            exp(defence, expDefence);
+            Arrays.fill(numerator, 0.0);
+            Arrays.fill(denominator, 0.0);
+            for (int m = 0; m < size; m++) {
+                int h = homeIndex[m];
+                int a = awayIndex[m];
+                double w = weights[m];
+                numerator[h] += w * homeGoals[m];
+                denominator[h] += w * expHome * expDefence[a];
+                numerator[a] += w * awayGoals[m];
+                denominator[a] += w * expDefence[h];
+            }
+            double mean = 0.0;
+            for (int c = 0; c < clubs; c++) {
+                updatedAttack[c] = Math.log(Math.max(numerator[c], MIN_GOALS) / denominator[c]);
+                mean += updatedAttack[c];
+            }
+            // Identifiability: attack ratings average zero; the shift moves into defence, leaving every rate unchanged
+            mean /= clubs;
+            for (int c = 0; c < clubs; c++) {
+                double updated = updatedAttack[c] - mean;
+                maxChange = Math.max(maxChange, Math.abs(updated - attack[c]));
+                attack[c] = updated;
+                defence[c] += mean;
+            }
+
+            // Defence: goals conceded over expected goals at rating 0
+            exp(attack, expAttack);
+            Arrays.fill(numerator, 0.0);
+            Arrays.fill(denominator, 0.0);
+            for (int m = 0; m < size; m++) {
+                int h = homeIndex[m];
+                int a = awayIndex[m];
+                double w = weights[m];
+                numerator[a] += w * homeGoals[m];
+                denominator[a] += w * expHome * expAttack[h];
+                numerator[h] += w * awayGoals[m];
+                denominator[h] += w * expAttack[a];
+            }
+            for (int c = 0; c < clubs; c++) {
+                double updated = Math.log(Math.max(numerator[c], MIN_GOALS) / denominator[c]);
+                maxChange = Math.max(maxChange, Math.abs(updated - defence[c]));
+                defence[c] = updated;
+            }
+
+            // Home advantage: home goals over expected home goals without it
+            exp(defence, expDefence);
+            double homeScored = 0.0;
+            double homeExpected = 0.0;
+            for (int m = 0; m < size; m++) {
+                homeScored += weights[m] * homeGoals[m];
+                homeExpected += weights[m] * expAttack[homeIndex[m]] * expDefence[awayIndex[m]];
+            }
+            double updated = Math.log(homeScored / homeExpected);
+            maxChange = Math.max(maxChange, Math.abs(updated - homeAdvantage));
+            homeAdvantage = updated;
+
+            if (maxChange < TOLERANCE) {
+                break;
+            }
+        }
+        return iteration;
+    }
+
+    private static void exp(double[] values, double[] out) {
+        for (int i = 0; i < values.length; i++) {
+            out[i] = Math.exp(values[i]);
+        }
+    }
+
+    /**
+     * Golden-section search for the rho maximising the weighted low-score correction term;
+     * the Poisson terms do not depend on rho, so only 0-0, 1-0, 0-1 and 1-1 results contribute.
+     */
+    private double solveRho(double[] weights) {
+        double expHome = Math.exp(homeAdvantage);
+        int low = 0;
+        double[] lambda = new double[size];
+        double[] mu = new double[size];
+        double[] w = new double[size];
+        int[] x = new int[size];
+        int[] y = new int[size];
+        for (int m = 0; m < size; m++) {
+            if (homeGoals[m] <= 1 && awayGoals[m] <= 1) {
+                lambda[low] = expHome * Math.exp(attack[homeIndex[m]] + defence[awayIndex[m]]);
+                mu[low] = Math.exp(attack[awayIndex[m]] + defence[homeIndex[m]]);
+                w[low] = weights[m];
+                x[low] = homeGoals[m];
+                y[low] = awayGoals[m];
+                low++;
+            }
+        }
+
+        double a = -RHO_BOUND;
+        double b = RHO_BOUND;
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double c = b - ratio * (b - a);
+        double d = a + ratio * (b - a);
+        double fc = rhoLikelihood(c, lambda, mu, w, x, y, low);
+        double fd = rhoLikelihood(d, lambda, mu, w, x, y, low);
+        while (b - a > 1e-6) {
+            if (fc > fd) {
+                b = d;
+                d = c;
+                fd = fc;
+                c = b - ratio * (b - a);
+                fc = rhoLikelihood(c, lambda, mu, w, x, y, low);
+            } else {
+                a = c;
+                c = d;
+                fc = fd;
+                d = a + ratio * (b - a);
+                fd = rhoLikelihood(d, lambda, mu, w, x, y, low);
+            }
+        }
+        return (a + b) / 2;
+    }
+
+    private static double rhoLikelihood(double rho, double[] lambda, double[] mu, double[] w,
+                                        int[] x, int[] y, int count) {
+        double sum = 0.0;
+        for (int m = 0; m < count; m++) {
+            double tau = tau(x[m], y[m], lambda[m], mu[m], rho);
+            if (tau <= 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            sum += w[m] * Math.log(tau);
+        }
+        return sum;
+    }
+
+    private static double tau(int x, int y, double lambda, double mu, double rho) {
+        if (x == 0 && y == 0) return 1 - lambda * mu * rho;
+        if (x == 0 && y == 1) return 1 + lambda * rho;
+        if (x == 1 && y == 0) return 1 + mu * rho;
+        if (x == 1 && y == 1) return 1 - rho;
+        return 1.0;
+    }
+
+    /**
+     * Reduce each pair's scoreline matrix to outcome probabilities (percent) and the
+     * most likely scoreline within the most likely outcome.
+     */
+    private Fit precompute(int iterations, long fitNanos) {
+        int clubs = clubIndex.size();
+        int goals = maxGoals + 1;
+        double expHome = Math.exp(homeAdvantage);
+        double[] homeWin = new double[clubs * clubs];
+        double[] draw = new double[clubs * clubs];
+        double[] awayWin = new double[clubs * clubs];
+        int[] homeScore = new int[clubs * clubs];
+        int[] awayScore = new int[clubs * clubs];
+        double[] homePmf = new double[goals];
+        double[] awayPmf = new double[goals];
+        double[] matrix = new double[goals * goals];
+
+        for (int h = 0; h < clubs; h++) {
+            for (int a = 0; a < clubs; a++) {
+                if (h == a) {
+                    continue;
+                }
+                double lambda = expHome * Math.exp(attack[h] + defence[a]);
+                double mu = Math.exp(attack[a] + defence[h]);
+                poisson(lambda, homePmf);
+                poisson(mu, awayPmf);
+
+                double total = 0.0;
+                double[] outcome = new double[3];
+                for (int x = 0; x < goals; x++) {
+                    for (int y = 0; y < goals; y++) {
+                        double p = Math.max(0.0, tau(x, y, lambda, mu, rho)) * homePmf[x] * awayPmf[y];
+                        matrix[x * goals + y] = p;
+                        total += p;
+                        outcome[x > y ? 0 : x == y ? 1 : 2] += p;
+                    }
+                }
+
+                int likely = outcome[0] >= outcome[1] && outcome[0] >= outcome[2] ? 0 : outcome[1] >= outcome[2] ? 1 : 2;
+                int bestX = 0;
+                int bestY = 0;
+                double best = -1.0;
+                for (int x = 0; x < goals; x++) {
+                    for (int y = 0; y < goals; y++) {
+                        int kind = x > y ? 0 : x == y ? 1 : 2;
+                        if (kind == likely && matrix[x * goals + y] > best) {
+                            best = matrix[x * goals + y];
+                            bestX = x;
+                            bestY = y;
+                        }
+                    }
+                }
+
+                int pair = h * clubs + a;
+                homeWin[pair] = outcome[0] / total * 100.0;
+                draw[pair] = outcome[1] / total * 100.0;
+                awayWin[pair] = outcome[2] / total * 100.0;
+                homeScore[pair] = bestX;
+                awayScore[pair] = bestY;
+            }
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("model", NAME);
+        status.put("fitted", true);
+        status.put("fittedAt", LocalDateTime.now());
+        status.put("matches", size);
+        status.put("clubs", clubs);
+        status.put("iterations", iterations);
+        status.put("fitMillis", fitNanos / 1_000_000.0);
+        status.put("homeAdvantage", homeAdvantage);
+        status.put("rho", rho);
+        return new Fit(Map.copyOf(clubIndex), clubs, homeWin, draw, awayWin, homeScore, awayScore, status);
+    }
+
+    private static void poisson(double rate, double[] pmf) {
+        pmf[0] = Math.exp(-rate);
+        for (int k = 1; k < pmf.length; k++) {
+            pmf[k] = pmf[k - 1] * rate / k;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Elo ratings for every club, carried across seasons.
+ *
+ * Built by replaying all finished matches in kickoff order, then updated in O(1)
+ * per result as matches finish. Each club keeps its rating after every match in
+ * two parallel primitive arrays (kickoff, rating), so a point-in-time lookup is a
+ * binary search. A result that arrives out of order, or a corrected score, triggers
+ * a full replay instead, which takes milliseconds.
+ *
+ * Update: R' = R + K * G * (S - E), with E = 1 / (1 + 10^((R_opp - R - H) / 400)),
+ * H the home advantage for the home side and G the goal-difference multiplier
+ * (1 for a one-goal margin or draw, 1.5 for two goals, (11 + diff) / 8 beyond).
+ */
+@Service
+public class EloRatings {
+    private static final Logger logger = LoggerFactory.getLogger(EloRatings.class);
+
+    private static final Comparator<MatchResult> KICKOFF_ORDER =
+        Comparator.comparing(MatchResult::matchDate).thenComparing(MatchResult::matchId);
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Value("${prediction.elo.initial-rating:1500}")
+    private double initialRating;
+
+    @Value("${prediction.elo.k-factor:20}")
+    private double kFactor;
+
+    @Value("${prediction.elo.home-advantage:60}")
+    private double homeAdvantage;
+
+    private final Map<Long, History> histories = new HashMap<>();
+    // Score of every applied match, packed as home * 1000 + away, to spot corrections
+    private final Map<Long, Integer> applied = new HashMap<>();
+    private long lastKickoff = Long.MIN_VALUE;
+    private long lastMatchId = Long.MIN_VALUE;
+    private boolean loaded = false;
+    // Guards the fields above; a lock rather than synchronized, as any read may first replay from the database
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Current rating; clubs without a rated match have the initial rating.
+     */
+    public double current(Long clubId) {
+        lock.lock();
+        try {
+            ensureLoaded();
+            History history = histories.get(clubId);
+            return history != null && history.size > 0 ? history.ratings[history.size - 1] : initialRating;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rating as it stood at the given time, i.e. after every match that kicked off before it.
+     */
+    public double at(Long clubId, LocalDateTime time) {
+        lock.lock();
+        try {
+            ensureLoaded();
+            History history = histories.get(clubId);
+            return history != null ? history.at(toEpochSecond(time), initialRating) : initialRating;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Every club's rating at the given time, highest first.
+     */
+    public List<Map<String, Object>> table(LocalDateTime time) {
+        lock.lock();
+        try {
+            ensureLoaded();
+            long t = toEpochSecond(time);
+            List<Map<String, Object>> table = new ArrayList<>(histories.size());
+            histories.forEach((clubId, history) -> {
+                int index = history.indexAt(t);
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("clubId", clubId);
+                row.put("rating", index >= 0 ? history.ratings[index] : initialRating);
+                row.put("matches", index + 1);
+                table.add(row);
+            });
+            table.sort(Comparator.comparingDouble((Map<String, Object> row) -> (double) row.get("rating")).reversed());
+            return table;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One club's rating after each of its matches, oldest first.
+     */
+    public List<Map<String, Object>> history(Long clubId) {
+        lock.lock();
+        try {
+            ensureLoaded();
+            History history = histories.get(clubId);
+            if (history == null) {
+                return List.of();
+            }
+            List<Map<String, Object>> points = new ArrayList<>(history.size);
+            for (int i = 0; i < history.size; i++) {
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("matchDate", LocalDateTime.ofEpochSecond(history.kickoffs[i], 0, ZoneOffset.UTC));
+                point.put("rating", history.ratings[i]);
+                points.add(point);
+            }
+            return points;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply newly finished (or corrected) results, which must already be committed.
+     */
+    public void recordResults(List<MatchResult> results) {
+        lock.lock();
+        try {
+            if (!loaded) {
+                return; // The first load replays every committed result
+            }
+            List<MatchResult> sorted = new ArrayList<>(results);
+            sorted.sort(KICKOFF_ORDER);
+            for (MatchResult result : sorted) {
+                if (result.homeScore() == null || result.awayScore() == null) {
+                    continue;
+                }
+                Integer score = applied.get(result.matchId());
+                if (score != null && score == pack(result)) {
+                    continue;
+                }
+                long kickoff = toEpochSecond(result.matchDate());
+                boolean inOrder = kickoff > lastKickoff || (kickoff == lastKickoff && result.matchId() > lastMatchId);
+                if (score != null || !inOrder) {
+                    logger.info("Elo: result for match {} is a correction or out of order, replaying", result.matchId());
+                    replay();
+                    return;
+                }
+                apply(result);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discard all ratings and replay every finished match in kickoff order.
+     */
+    public void replay() {
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+            histories.clear();
+            applied.clear();
+            lastKickoff = Long.MIN_VALUE;
+            lastMatchId = Long.MIN_VALUE;
+            // Already ordered by kickoff, then id
+            List<MatchResult> results = matchRepository.findResultsByStatus(Match.MatchStatus.FINISHED);
+            for (MatchResult result : results) {
+                apply(result);
+            }
+            loaded = true;
+            logger.info("Elo: replayed {} matches for {} clubs in {} ms",
+                results.size(), histories.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * An unlocked copy of the rating rules with no results, for one backtest worker:
+     * fed finished matches in kickoff order, it rates every club as of the last one fed.
+     */
+    public Replica replica() {
+        return new Replica();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            replay();
+        }
+    }
+
+    private void apply(MatchResult result) {
+        long kickoff = toEpochSecond(result.matchDate());
+        History home = histories.computeIfAbsent(result.homeClubId(), id -> new History());
+        History away = histories.computeIfAbsent(result.awayClubId(), id -> new History());
+        double homeRating = home.size > 0 ? home.ratings[home.size - 1] : initialRating;
+        double awayRating = away.size > 0 ? away.ratings[away.size - 1] : initialRating;
+        double change = change(homeRating, awayRating, result);
+
+        home.append(kickoff, homeRating + change);
+        away.append(kickoff, awayRating - change);
+        applied.put(result.matchId(), pack(result));
+        lastKickoff = kickoff;
+        lastMatchId = result.matchId();
+    }
+
+    // Points the home side gains (or loses, if negative) from the result
+    private double change(double homeRating, double awayRating, MatchResult result) {
+        double expected = expectedScore(homeRating + homeAdvantage, awayRating);
+        int diff = result.homeScore() - result.awayScore();
+        double actual = diff > 0 ? 1.0 : diff == 0 ? 0.5 : 0.0;
+        return kFactor * marginMultiplier(Math.abs(diff)) * (actual - expected);
+    }
+
+    // Expected score (win = 1, draw = 0.5) of a side rated rating against opponent
+    private static double expectedScore(double rating, double opponent) {
+        return 1.0 / (1.0 + Math.pow(10.0, (opponent - rating) / 400.0));
+    }
+
+    private static double marginMultiplier(int margin) {
+        if (margin <= 1) return 1.0;
+        if (margin == 2) return 1.5;
+        return (11.0 + margin) / 8.0;
+    }
+
+    private static int pack(MatchResult result) {
+        return result.homeScore() * 1000 + result.awayScore();
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Latest rating per club, without history; confined to one thread.
+     */
+    public final class Replica {
+        private final Map<Long, Double> ratings = new HashMap<>();
+
+        private Replica() {
+        }
+
+        /**
+         * Apply a result; results must arrive in kickoff order.
+         */
+        public void record(MatchResult result) {
+            double homeRating = current(result.homeClubId());
+            double awayRating = current(result.awayClubId());
+            double change = change(homeRating, awayRating, result);
+            ratings.put(result.homeClubId(), homeRating + change);
+            ratings.put(result.awayClubId(), awayRating - change);
+        }
+
+        public double current(Long clubId) {
+            return ratings.getOrDefault(clubId, initialRating);
+        }
+    }
+
+    /**
+     * One club's rating after each of its matches, in kickoff order.
+     */
+    private static final class History {
+        private long[] kickoffs = new long[64];
+        private double[] ratings = new double[64];
+        private int size;
+
+        void append(long kickoff, double rating) {
+            if (size == kickoffs.length) {
+                kickoffs = Arrays.copyOf(kickoffs, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+            }
+            kickoffs[size] = kickoff;
+            ratings[size] = rating;
+            size++;
+        }
+
+        /** Index of the last match that kicked off before {@code time}, or -1. */
+        int indexAt(long time) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (kickoffs[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        double at(long time, double initial) {
+            int index = indexAt(time);
+            return index >= 0 ? ratings[index] : initial;
+        }
+    }
+}
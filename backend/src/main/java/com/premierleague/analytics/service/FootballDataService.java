@@ -2,35 +2,71 @@ package com.premierleague.analytics.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.premierleague.analytics.dto.ClubRef;
+import com.premierleague.analytics.dto.MatchRecord;
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.dto.ScorerRecord;
+import com.premierleague.analytics.dto.SquadPlayerRecord;
 import com.premierleague.analytics.entity.*;
 import com.premierleague.analytics.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Service
 public class FootballDataService {
 
     private static final Logger logger = LoggerFactory.getLogger(FootballDataService.class);
-    private static final String API_BASE_URL = "https://api.football-data.org/v4";
     private static final String PREMIER_LEAGUE_CODE = "PL";
 
     @Value("${football.data.api.key:}")
     private String apiKey;
 
+    // Overridable so the sync can be pointed at a local stub server
+    @Value("${football.data.api.base-url:https://api.football-data.org/v4}")
+    private String apiBaseUrl;
+
+    @Value("${football.data.api.max-retries:3}")
+    private int maxRetries;
+
+    // Records buffered per write when streaming a feed
+    @Value("${football.data.sync.batch-size:100}")
+    private int syncBatchSize;
+
+    // When false, the table is maintained locally by StandingsEngine and /standings is only fetched to bootstrap clubs
+    @Value("${football.data.standings.reconcile:true}")
+    private boolean reconcileStandings;
+
     @Autowired
     private ClubRepository clubRepository;
 
@@ -43,32 +79,105 @@ public class FootballDataService {
     @Autowired
     private PredictionRepository predictionRepository;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private ClubFormIndex clubFormIndex;
+
+    @Autowired
+    private StandingsEngine standingsEngine;
+
+    @Autowired
+    private SyncStateRepository syncStateRepository;
+
+    @Autowired
+    private SyncStatistics syncStatistics;
+
+    @Autowired
+    private ApiRateLimiter rateLimiter;
+
+    @Autowired
+    private PlayerUpsertService playerUpsertService;
+
+    @Autowired
+    private MatchUpsertService matchUpsertService;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private Leaderboards leaderboards;
+
+    @Autowired
+    private SyncUnitOfWork syncUnitOfWork;
+
+    @Autowired
+    private HeadToHeadIndex headToHeadIndex;
+
+    @Autowired
+    private EloRatings eloRatings;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PredictionModels predictionModels;
+
+    // Pooled JDK client with timeouts, see HttpClientConfig
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private JobService jobService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    public static final String REFRESH_CRON = "0 0 * * * ?";
+
+    // bootstrap, matches, standings, scorers
+    private static final int REFRESH_STAGES = 4;
+
     // Run every hour
-    @Scheduled(cron = "0 0 * * * ?")
+    @Scheduled(cron = REFRESH_CRON)
     public void scheduledDataRefresh() {
         logger.info("Starting scheduled data refresh from Football-Data.org API");
-        try {
-            refreshAllData();
-            logger.info("Scheduled data refresh completed successfully");
-        } catch (Exception e) {
-            logger.error("Error during scheduled data refresh", e);
-        }
+        submitRefresh("scheduled");
     }
 
-    public void refreshAllData() {
+    /**
+     * Queue a full refresh on the job executor, or return the one already in flight.
+     */
+    public JobService.Submission submitRefresh(String trigger) {
+        return jobService.submit(Job.Type.DATA_REFRESH, trigger, REFRESH_STAGES, progress -> {
+            refreshAllData(progress);
+            return syncStatistics.lastRun();
+        });
+    }
+
+    public void refreshAllData(JobProgress progress) {
         try {
             logger.info("Fetching Premier League data from Football-Data.org API");
+            syncStatistics.startRun();
             
-            // Fetch and update standings - contains all team data we need
-            fetchAndUpdateStandings();
+            // Clubs are created from the standings payload, so fetch it first on an empty database
+            progress.stage("bootstrap");
+            boolean bootstrap = clubRepository.count() == 0;
+            if (bootstrap) {
+                fetchAndUpdateStandings(false);
+            }
             
-            // Fetch and update matches
+            // Fetch and update matches - clubs the table lacks (promoted sides) are created first,
+            // then newly finished results are applied to the local table
+            progress.stage("matches");
             fetchAndUpdateMatches();
             
+            // Optionally reconcile the local table against the remote standings
+            // On bootstrap the freshly inserted results were applied on top of the remote table, so always re-apply it
+            progress.stage("standings");
+            if (bootstrap || reconcileStandings) {
+                fetchAndUpdateStandings(bootstrap);
+            }
+            
             // Fetch and update scorers (players) - updates stats for top scorers
+            progress.stage("scorers");
             fetchAndUpdateScorers();
             
             logger.info("Data refresh completed successfully");
@@ -86,101 +195,346 @@ public class FootballDataService {
         return headers;
     }
 
-    private void fetchAndUpdateStandings() {
+    /**
+     * GET through the shared rate limiter. A 429 pauses the limiter until the
+     * quota resets (X-RequestCounter-Reset / Retry-After, else exponential backoff)
+     * and retries up to max-retries times.
+     */
+    private ResponseEntity<String> exchange(String url, HttpHeaders headers) throws Exception {
+        return withRateLimit(url, () -> restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class));
+    }
+
+    private <T> T withRateLimit(String url, Callable<T> request) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            rateLimiter.acquire();
+            try {
+                return request.call();
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                Duration backoff = retryDelay(e.getResponseHeaders(), attempt);
+                logger.warn("Rate limited by Football-Data.org on {}, backing off {} ms", url, backoff.toMillis());
+                rateLimiter.pause(backoff);
+            }
+        }
+    }
+
+    private Duration retryDelay(HttpHeaders headers, int attempt) {
+        if (headers != null) {
+            for (String name : new String[]{"X-RequestCounter-Reset", HttpHeaders.RETRY_AFTER}) {
+                String value = headers.getFirst(name);
+                if (value != null) {
+                    try {
+                        return Duration.ofSeconds(Math.max(1, Long.parseLong(value.trim())));
+                    } catch (NumberFormatException ignored) {
+                        // Fall through to exponential backoff
+                    }
+                }
+            }
+        }
+        return Duration.ofSeconds(1L << Math.min(attempt + 1, 6));
+    }
+
+    /**
+     * Conditional GET for a sync resource. Sends the stored ETag / Last-Modified
+     * validators and also compares a hash of the body, so a payload that is
+     * unchanged (304 or identical content) is reported as empty.
+     * Call {@link #markProcessed} once the payload has been applied.
+     * With force set the request is unconditional.
+     */
+    private Optional<Payload> fetchIfChanged(String resource, String url, boolean force) throws Exception {
+        Optional<SyncState> state = force ? Optional.empty() : syncStateRepository.findById(resource);
+        HttpHeaders headers = createHeaders();
+        state.ifPresent(s -> {
+            if (s.getEtag() != null) headers.setIfNoneMatch(s.getEtag());
+            if (s.getLastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, s.getLastModified());
+        });
+
+        ResponseEntity<String> response = exchange(url, headers);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED || response.getBody() == null) {
+            logger.info("{} not modified, skipping", resource);
+            syncStatistics.payloadUnchanged(resource);
+            return Optional.empty();
+        }
+
+        String hash = sha256(response.getBody());
+        if (state.isPresent() && hash.equals(state.get().getContentHash())) {
+            logger.info("{} content unchanged, skipping", resource);
+            syncStatistics.payloadUnchanged(resource);
+            return Optional.empty();
+        }
+
+        syncStatistics.payloadChanged(resource);
+        HttpHeaders responseHeaders = response.getHeaders();
+        return Optional.of(new Payload(resource, response.getBody(), responseHeaders.getETag(),
+            responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED), hash));
+    }
+
+    /**
+     * Store the payload's validators only if every row in it was applied. Otherwise the
+     * stored state still describes an older payload, so the next sync downloads this one
+     * again and retries the rows that could not be parsed or resolved (e.g. a club the
+     * standings have not created yet); the applied rows are skipped by their hashes.
+     */
+    private void markProcessedIfComplete(Payload payload, int dropped) {
+        if (dropped > 0) {
+            logger.warn("{} rows of {} were not applied, not recording it as synced", dropped, payload.resource());
+            return;
+        }
+        markProcessed(payload);
+    }
+
+    private void markProcessed(Payload payload) {
+        SyncState state = new SyncState();
+        state.setResource(payload.resource());
+        state.setEtag(payload.etag());
+        state.setLastModified(payload.lastModified());
+        state.setContentHash(payload.hash());
+        syncStateRepository.save(state);
+    }
+
+    /**
+     * Streaming counterpart of {@link #fetchIfChanged} for large feeds. The body is
+     * copied to a temporary file as it arrives and never held in memory; the caller
+     * reads it back element by element inside its stage, so neither the rate limiter
+     * nor the download holds a connection. A 304 skips the feed. An identical body is
+     * still returned, but its rows are skipped by their own hashes. Call
+     * {@link #markProcessed} once every handled row has been written.
+     *
+     * @return the spooled feed (close it to delete the file), or empty if not modified
+     */
+    private Optional<Feed> spoolIfChanged(String resource, String url) throws Exception {
+        Optional<SyncState> state = syncStateRepository.findById(resource);
+        HttpHeaders headers = createHeaders();
+        state.ifPresent(s -> {
+            if (s.getEtag() != null) headers.setIfNoneMatch(s.getEtag());
+            if (s.getLastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, s.getLastModified());
+        });
+
+        Feed feed = spool(resource, url, headers);
+        if (feed == null) {
+            logger.info("{} not modified, skipping", resource);
+            syncStatistics.payloadUnchanged(resource);
+            return Optional.empty();
+        }
+        if (state.isPresent() && feed.payload().hash().equals(state.get().getContentHash())) {
+            syncStatistics.payloadUnchanged(resource);
+        } else {
+            syncStatistics.payloadChanged(resource);
+        }
+        return Optional.of(feed);
+    }
+
+    // GET through the rate limiter into a temporary file, hashing the body on the way; null on a 304
+    private Feed spool(String resource, String url, HttpHeaders headers) throws Exception {
+        return withRateLimit(url, () -> restTemplate.execute(url, HttpMethod.GET,
+            request -> request.getHeaders().addAll(headers),
+            response -> {
+                if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                    return null;
+                }
+                MessageDigest digest = newSha256();
+                Path file = Files.createTempFile("football-data-" + resource + "-", ".json");
+                try (InputStream body = new DigestInputStream(response.getBody(), digest)) {
+                    Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(file);
+                    throw e;
+                }
+                return new Feed(new Payload(resource, null, response.getHeaders().getETag(),
+                    response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED), HexFormat.of().formatHex(digest.digest())),
+                    file);
+            }));
+    }
+
+    /**
+     * A downloaded body on disk. Each pass parses one element at a time, so memory use
+     * depends on the largest element and the caller's batch size, not the feed.
+     */
+    private final class Feed implements AutoCloseable {
+        private final Payload payload;
+        private final Path file;
+
+        Feed(Payload payload, Path file) {
+            this.payload = payload;
+            this.file = file;
+        }
+
+        Payload payload() {
+            return payload;
+        }
+
+        void forEach(String arrayField, Consumer<JsonNode> handler) {
+            try (InputStream body = Files.newInputStream(file)) {
+                JsonFeedReader.forEachElement(objectMapper, body, arrayField, handler);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the " + payload.resource() + " feed", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete {}", file, e);
+            }
+        }
+    }
+
+    private static MessageDigest newSha256() {
         try {
-            String url = API_BASE_URL + "/competitions/" + PREMIER_LEAGUE_CODE + "/standings";
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class
-            );
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String sha256(String content) {
+        return HexFormat.of().formatHex(newSha256().digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record Payload(String resource, String body, String etag, String lastModified, String hash) {
+    }
 
-            JsonNode root = objectMapper.readTree(response.getBody());
+    private void fetchAndUpdateStandings(boolean force) {
+        try {
+            String url = apiBaseUrl + "/competitions/" + PREMIER_LEAGUE_CODE + "/standings";
+            Optional<Payload> payload = fetchIfChanged("standings", url, force);
+            if (payload.isEmpty()) {
+                return;
+            }
+
+            JsonNode root = objectMapper.readTree(payload.get().body());
             JsonNode standings = root.get("standings");
 
-            if (standings != null && standings.isArray()) {
-                for (JsonNode standingNode : standings) {
-                    String type = standingNode.get("type").asText();
-                    if ("TOTAL".equals(type)) {
-                        JsonNode table = standingNode.get("table");
-                        if (table != null && table.isArray()) {
-                            for (JsonNode teamStanding : table) {
-                                updateClubStanding(teamStanding);
+            // The whole table is applied in one transaction, so readers never see half-updated standings
+            Set<Long> changed = new HashSet<>();
+            AtomicInteger teams = new AtomicInteger();
+            syncUnitOfWork.stage("standings", status -> {
+                try (BatchWriter<JsonNode> writer = new BatchWriter<>(syncBatchSize,
+                        syncUnitOfWork.chunked("clubs", batch -> batch.forEach(teamStanding -> {
+                            Long clubId = updateClubStanding(teamStanding);
+                            if (clubId != null) {
+                                changed.add(clubId);
+                                syncStatistics.rowWritten("clubs");
+                            } else {
+                                syncStatistics.rowSkipped("clubs");
+                            }
+                        })))) {
+                    if (standings != null && standings.isArray()) {
+                        for (JsonNode standingNode : standings) {
+                            JsonNode table = standingNode.get("table");
+                            if ("TOTAL".equals(standingNode.get("type").asText()) && table != null && table.isArray()) {
+                                table.forEach(writer::add);
+                                teams.addAndGet(table.size());
                             }
-                            logger.info("Updated standings for {} teams", table.size());
                         }
                     }
                 }
+                markProcessed(payload.get());
+                return null;
+            });
+
+            logger.info("Reconciled standings for {} teams, {} differed from the local table", teams.get(), changed.size());
+            if (!changed.isEmpty()) {
+                standingsEngine.reloadFromStandings();
+                readCache.standingsChanged();
+                eventPublisher.publishEvent(new SyncEvents.StandingsChanged(changed));
             }
         } catch (Exception e) {
             logger.error("Error fetching standings", e);
         }
     }
 
-    private void updateClubStanding(JsonNode teamStanding) {
-        try {
-            // Extract position
-            Integer position = teamStanding.get("position").asInt();
-            
-            // Extract team info
-            JsonNode teamNode = teamStanding.get("team");
-            Long externalId = teamNode.get("id").asLong();
-            String teamName = teamNode.get("name").asText();
-            String shortName = teamNode.get("shortName").asText();
-            String tla = teamNode.has("tla") ? teamNode.get("tla").asText() : "";
-            String crestUrl = teamNode.has("crest") ? teamNode.get("crest").asText() : "";
-            
-            // Extract all standings statistics
-            Integer playedGames = teamStanding.get("playedGames").asInt();
-            Integer won = teamStanding.get("won").asInt();
-            Integer draw = teamStanding.get("draw").asInt();
-            Integer lost = teamStanding.get("lost").asInt();
-            Integer points = teamStanding.get("points").asInt();
-            Integer goalsFor = teamStanding.get("goalsFor").asInt();
-            Integer goalsAgainst = teamStanding.get("goalsAgainst").asInt();
-            Integer goalDifference = teamStanding.get("goalDifference").asInt();
-
-            // Find or create club
-            Optional<Club> existingClub = clubRepository.findByName(teamName);
-            Club club;
-            
-            if (existingClub.isPresent()) {
-                club = existingClub.get();
-                logger.debug("Updating existing club: {}", teamName);
-            } else {
-                club = new Club();
-                club.setName(teamName);
-                logger.info("Creating new club from standings: {}", teamName);
-            }
-            
-            // Update basic team info from API
-            club.setExternalId(externalId);
-            club.setShortName(shortName);
-            club.setTla(tla);
-            club.setCrestUrl(crestUrl);
-            club.setLogoUrl(crestUrl); // Use crest as logo URL
-            
-            // Update ALL standings data
-            club.setPosition(position);
-            club.setPlayedGames(playedGames);
-            club.setWon(won);
-            club.setDraw(draw);
-            club.setLost(lost);
-            club.setPoints(points);
-            club.setGoalsFor(goalsFor);
-            club.setGoalsAgainst(goalsAgainst);
-            club.setGoalDifference(goalDifference);
-            
-            // Save to database
-            Club savedClub = clubRepository.save(club);
-            
-            logger.info("✓ Saved {} - Pos: {}, Pts: {}, W: {}, D: {}, L: {}, GF: {}, GA: {}, GD: {}", 
-                teamName, position, points, won, draw, lost, goalsFor, goalsAgainst, goalDifference);
-            
-        } catch (Exception e) {
-            logger.error("Error updating club standing from API", e);
-            e.printStackTrace();
+    /**
+     * Failures propagate, so a bad row rolls back the whole standings stage.
+     *
+     * @return id of the club row if it was created or differed from the remote standing, otherwise null
+     */
+    private Long updateClubStanding(JsonNode teamStanding) {
+        // Extract position
+        Integer position = teamStanding.get("position").asInt();
+        
+        // Extract team info
+        JsonNode teamNode = teamStanding.get("team");
+        Long externalId = teamNode.get("id").asLong();
+        String teamName = teamNode.get("name").asText();
+        String shortName = teamNode.get("shortName").asText();
+        String tla = teamNode.has("tla") ? teamNode.get("tla").asText() : "";
+        String crestUrl = teamNode.has("crest") ? teamNode.get("crest").asText() : "";
+        
+        // Extract all standings statistics
+        Integer playedGames = teamStanding.get("playedGames").asInt();
+        Integer won = teamStanding.get("won").asInt();
+        Integer draw = teamStanding.get("draw").asInt();
+        Integer lost = teamStanding.get("lost").asInt();
+        Integer points = teamStanding.get("points").asInt();
+        Integer goalsFor = teamStanding.get("goalsFor").asInt();
+        Integer goalsAgainst = teamStanding.get("goalsAgainst").asInt();
+        Integer goalDifference = teamStanding.get("goalDifference").asInt();
+
+        // Find or create club
+        Optional<Club> existingClub = clubRepository.findByName(teamName);
+        Club club;
+        
+        if (existingClub.isPresent()) {
+            club = existingClub.get();
+            logger.debug("Updating existing club: {}", teamName);
+        } else {
+            club = new Club();
+            club.setName(teamName);
+            logger.info("Creating new club from standings: {}", teamName);
+        }
+        
+        boolean changed = club.getId() == null
+            || !Objects.equals(club.getExternalId(), externalId)
+            || !Objects.equals(club.getShortName(), shortName)
+            || !Objects.equals(club.getTla(), tla)
+            || !Objects.equals(club.getCrestUrl(), crestUrl)
+            || !Objects.equals(club.getPosition(), position)
+            || !Objects.equals(club.getPlayedGames(), playedGames)
+            || !Objects.equals(club.getWon(), won)
+            || !Objects.equals(club.getDraw(), draw)
+            || !Objects.equals(club.getLost(), lost)
+            || !Objects.equals(club.getPoints(), points)
+            || !Objects.equals(club.getGoalsFor(), goalsFor)
+            || !Objects.equals(club.getGoalsAgainst(), goalsAgainst)
+            || !Objects.equals(club.getGoalDifference(), goalDifference);
+        if (!changed) {
+            return null;
         }
+        if (club.getId() != null) {
+            logger.warn("Standings drift for {}: local Pos {} Pts {} GD {}, remote Pos {} Pts {} GD {}",
+                teamName, club.getPosition(), club.getPoints(), club.getGoalDifference(),
+                position, points, goalDifference);
+        }
+        
+        // Update basic team info from API
+        club.setExternalId(externalId);
+        club.setShortName(shortName);
+        club.setTla(tla);
+        club.setCrestUrl(crestUrl);
+        club.setLogoUrl(crestUrl); // Use crest as logo URL
+        
+        // Update ALL standings data
+        club.setPosition(position);
+        club.setPlayedGames(playedGames);
+        club.setWon(won);
+        club.setDraw(draw);
+        club.setLost(lost);
+        club.setPoints(points);
+        club.setGoalsFor(goalsFor);
+        club.setGoalsAgainst(goalsAgainst);
+        club.setGoalDifference(goalDifference);
+        
+        // Save to database
+        Club saved = clubRepository.save(club);
+        
+        logger.info("✓ Saved {} - Pos: {}, Pts: {}, W: {}, D: {}, L: {}, GF: {}, GA: {}, GD: {}", 
+            teamName, position, points, won, draw, lost, goalsFor, goalsAgainst, goalDifference);
+        return saved.getId();
     }
 
 
@@ -296,30 +650,197 @@ public class FootballDataService {
             // Get current season
             String currentSeason = String.valueOf(LocalDate.now().getYear());
             
-            String url = API_BASE_URL + "/competitions/" + PREMIER_LEAGUE_CODE + "/matches?season=" + currentSeason;
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class
-            );
-
-            JsonNode root = objectMapper.readTree(response.getBody());
-            JsonNode matches = root.get("matches");
-
-            if (matches != null && matches.isArray()) {
-                int count = 0;
-                for (JsonNode matchNode : matches) {
-                    updateMatchFromApi(matchNode);
-                    count++;
-                }
-                logger.info("Updated {} matches", count);
+            String url = apiBaseUrl + "/competitions/" + PREMIER_LEAGUE_CODE + "/matches?season=" + currentSeason;
+
+            // Rows whose payload hash is already stored are skipped without touching the database
+            Set<String> knownHashes = matchRepository.findContentHashes();
+            Map<String, Long> clubIds = loadClubIds();
+            String season = getCurrentSeason();
+
+            AtomicInteger skipped = new AtomicInteger();
+            AtomicInteger written = new AtomicInteger();
+            AtomicInteger dropped = new AtomicInteger();
+            List<Long> resultsChanged = new ArrayList<>();
+
+            // Spooled to disk before the transaction, so rate-limit waits and the transfer hold no connection
+            Optional<Feed> download = spoolIfChanged("matches", url);
+            if (download.isEmpty()) {
+                return;
             }
+            // The table must know the scores it counts before they can change underneath it
+            standingsEngine.ensureLoaded();
+            try (Feed feed = download.get()) {
+                // A first pass finds the clubs to create; their ids must exist before the fixtures are written
+                Map<String, Long> teams = new LinkedHashMap<>();
+                feed.forEach("matches", matchNode -> collectTeams(matchNode, teams));
+                createMissingClubs(teams, clubIds);
+
+                // The whole feed is written in one transaction, so a failed sync leaves no half-applied matchday
+                syncUnitOfWork.stage("matches", status -> {
+                    try (BatchWriter<MatchRecord> writer = new BatchWriter<>(syncBatchSize, syncUnitOfWork.chunked("matches", batch -> {
+                        MatchUpsertService.UpsertResult result = matchUpsertService.upsertMatches(batch, clubIds, season);
+                        written.addAndGet(result.written());
+                        dropped.addAndGet(batch.size() - result.written());
+                        syncStatistics.rowsWritten("matches", result.written());
+                        resultsChanged.addAll(result.resultsChanged());
+                    }))) {
+                        feed.forEach("matches", matchNode -> {
+                            String hash = sha256(matchNode.toString());
+                            if (knownHashes.contains(hash)) {
+                                skipped.incrementAndGet();
+                                syncStatistics.rowSkipped("matches");
+                                return;
+                            }
+                            MatchRecord record = parseMatch(matchNode, hash);
+                            if (record != null) {
+                                writer.add(record);
+                            } else {
+                                dropped.incrementAndGet();
+                            }
+                        });
+                    }
+                    // Only once the writer has flushed its last batch, and only if no row was dropped
+                    markProcessedIfComplete(feed.payload(), dropped.get());
+                    return null;
+                });
+            }
+
+            afterMatchesCommitted(written.get(), resultsChanged);
+            logger.info("Updated {} matches ({} new results), {} unchanged",
+                written.get(), resultsChanged.size(), skipped.get());
         } catch (Exception e) {
             logger.error("Error fetching matches", e);
         }
     }
 
-    private void updateMatchFromApi(JsonNode matchNode) {
+    /**
+     * Fetch the Premier League matches kicking off between two dates (inclusive).
+     * Unconditional and uncached - meant for the live poller, which only asks for a day or two.
+     */
+    public List<MatchRecord> fetchMatchesBetween(LocalDate from, LocalDate to) throws Exception {
+        String url = apiBaseUrl + "/competitions/" + PREMIER_LEAGUE_CODE + "/matches?dateFrom=" + from + "&dateTo=" + to;
+        ResponseEntity<String> response = exchange(url, createHeaders());
+        JsonNode matches = objectMapper.readTree(response.getBody()).get("matches");
+
+        List<MatchRecord> records = new ArrayList<>();
+        if (matches != null && matches.isArray()) {
+            for (JsonNode matchNode : matches) {
+                MatchRecord record = parseMatch(matchNode, sha256(matchNode.toString()));
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Upsert a small set of match records in one transaction and apply any new results.
+     *
+     * @return number of rows written
+     */
+    public int saveMatches(List<MatchRecord> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        Map<String, Long> clubIds = loadClubIds();
+        String season = getCurrentSeason();
+        standingsEngine.ensureLoaded();
+        MatchUpsertService.UpsertResult result = syncUnitOfWork.stage("live-matches",
+            status -> matchUpsertService.upsertMatches(records, clubIds, season));
+        syncStatistics.rowsWritten("matches", result.written());
+        afterMatchesCommitted(result.written(), result.resultsChanged());
+        return result.written();
+    }
+
+    private void afterMatchesCommitted(int written, List<Long> resultsChanged) {
+        if (written > 0) {
+            readCache.fixturesChanged();
+            eventPublisher.publishEvent(new SyncEvents.FixturesChanged(written));
+        }
+
+        // Keep the form index and local table current once the new results are committed
+        List<MatchResult> results = resultsChanged.isEmpty() ? List.of()
+            : matchRepository.findResultsByExternalIds(resultsChanged);
+        if (!results.isEmpty()) {
+            predictionModels.resultsRecorded(results);
+            eloRatings.recordResults(results);
+            for (MatchResult result : results) {
+                clubFormIndex.recordResult(result);
+                headToHeadIndex.recordResult(result);
+            }
+        }
+        // Also retries results whose table write failed on an earlier call
+        standingsEngine.applyResults(results);
+        if (!results.isEmpty()) {
+            eventPublisher.publishEvent(new SyncEvents.MatchesFinished(results));
+        }
+    }
+
+    /**
+     * Create the clubs the feed names that are not stored yet, e.g. promoted sides before the
+     * standings have been fetched, so their fixtures are not dropped. A club already stored
+     * under another name is matched by its external id. New clubs start on an empty table row
+     * and the standings engine is re-seeded before any result is applied to them.
+     */
+    private void createMissingClubs(Map<String, Long> teams, Map<String, Long> clubIds) {
+        Map<String, Long> missing = new LinkedHashMap<>(teams);
+        missing.keySet().removeAll(clubIds.keySet());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        int created = syncUnitOfWork.stage("clubs", status -> {
+            int count = 0;
+            for (Map.Entry<String, Long> team : missing.entrySet()) {
+                Optional<Club> existing = clubRepository.findByExternalId(team.getValue());
+                if (existing.isPresent()) {
+                    clubIds.put(team.getKey(), existing.get().getId());
+                    continue;
+                }
+                Club club = new Club();
+                club.setName(team.getKey());
+                club.setExternalId(team.getValue());
+                club.setPlayedGames(0);
+                club.setWon(0);
+                club.setDraw(0);
+                club.setLost(0);
+                club.setPoints(0);
+                club.setGoalsFor(0);
+                club.setGoalsAgainst(0);
+                club.setGoalDifference(0);
+                clubIds.put(team.getKey(), clubRepository.save(club).getId());
+                syncStatistics.rowWritten("clubs");
+                count++;
+            }
+            return count;
+        });
+        if (created > 0) {
+            logger.info("Created {} clubs first seen in the matches feed", created);
+            standingsEngine.reload();
+            readCache.standingsChanged();
+        }
+    }
+
+    // Name and external id of both teams of a feed match; teams without an id are left to the name lookup
+    private static void collectTeams(JsonNode matchNode, Map<String, Long> teams) {
+        for (String side : new String[]{"homeTeam", "awayTeam"}) {
+            JsonNode team = matchNode.get(side);
+            if (team != null && team.hasNonNull("id") && team.hasNonNull("name")) {
+                teams.putIfAbsent(team.get("name").asText(), team.get("id").asLong());
+            }
+        }
+    }
+
+    private Map<String, Long> loadClubIds() {
+        Map<String, Long> clubIds = new HashMap<>();
+        for (ClubRef club : clubRepository.findClubRefs()) {
+            clubIds.put(club.name(), club.id());
+        }
+        return clubIds;
+    }
+
+    private MatchRecord parseMatch(JsonNode matchNode, String contentHash) {
         try {
             Long externalId = matchNode.get("id").asLong();
             String utcDate = matchNode.get("utcDate").asText();
@@ -335,58 +856,25 @@ public class FootballDataService {
             // Get teams
             JsonNode homeTeamNode = matchNode.get("homeTeam");
             JsonNode awayTeamNode = matchNode.get("awayTeam");
-            
-            String homeTeamName = homeTeamNode.get("name").asText();
-            String awayTeamName = awayTeamNode.get("name").asText();
-
-            Optional<Club> homeClub = clubRepository.findByName(homeTeamName);
-            Optional<Club> awayClub = clubRepository.findByName(awayTeamName);
-
-            if (homeClub.isEmpty() || awayClub.isEmpty()) {
-                logger.debug("Clubs not found for match: {} vs {}", homeTeamName, awayTeamName);
-                return;
-            }
+            Long homeTeamId = homeTeamNode.has("id") && !homeTeamNode.get("id").isNull()
+                ? homeTeamNode.get("id").asLong() : null;
+            Long awayTeamId = awayTeamNode.has("id") && !awayTeamNode.get("id").isNull()
+                ? awayTeamNode.get("id").asLong() : null;
 
             // Get scores
-            JsonNode scoreNode = matchNode.get("score");
-            JsonNode fullTimeNode = scoreNode.get("fullTime");
+            JsonNode fullTimeNode = matchNode.get("score").get("fullTime");
             Integer homeScore = fullTimeNode.has("home") && !fullTimeNode.get("home").isNull() 
                 ? fullTimeNode.get("home").asInt() : null;
             Integer awayScore = fullTimeNode.has("away") && !fullTimeNode.get("away").isNull() 
                 ? fullTimeNode.get("away").asInt() : null;
 
-            // Find or create match
-            List<Match> existingMatches = matchRepository.findByHomeClubIdOrAwayClubId(
-                homeClub.get().getId(), homeClub.get().getId()
-            );
-            
-            Optional<Match> existingMatch = existingMatches.stream()
-                .filter(m -> m.getHomeClub().getId().equals(homeClub.get().getId()) &&
-                            m.getAwayClub().getId().equals(awayClub.get().getId()) &&
-                            m.getMatchDate().toLocalDate().equals(matchDate.toLocalDate()))
-                .findFirst();
-
-            Match match;
-            if (existingMatch.isPresent()) {
-                match = existingMatch.get();
-            } else {
-                match = new Match();
-                match.setHomeClub(homeClub.get());
-                match.setAwayClub(awayClub.get());
-                match.setMatchDate(matchDate);
-            }
-
-            match.setHomeScore(homeScore);
-            match.setAwayScore(awayScore);
-            match.setMatchWeek(matchday);
-            match.setVenue(venue != null ? venue : homeClub.get().getStadium());
-            match.setStatus(mapMatchStatus(status));
-            match.setSeason(getCurrentSeason());
-
-            matchRepository.save(match);
-            
+            return new MatchRecord(externalId, matchDate, mapMatchStatus(status), matchday, venue,
+                homeTeamId, homeTeamNode.get("name").asText(),
+                awayTeamId, awayTeamNode.get("name").asText(),
+                homeScore, awayScore, contentHash);
         } catch (Exception e) {
-            logger.error("Error updating match", e);
+            logger.error("Error parsing match entry", e);
+            return null;
         }
     }
 
@@ -414,37 +902,62 @@ public class FootballDataService {
 
     private void fetchAndUpdateScorers() {
         try {
-            String url = API_BASE_URL + "/competitions/" + PREMIER_LEAGUE_CODE + "/scorers";
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class
-            );
+            String url = apiBaseUrl + "/competitions/" + PREMIER_LEAGUE_CODE + "/scorers";
 
-            JsonNode root = objectMapper.readTree(response.getBody());
-            JsonNode scorers = root.get("scorers");
+            Set<String> knownHashes = playerRepository.findContentHashes();
+            AtomicInteger written = new AtomicInteger();
+            AtomicInteger dropped = new AtomicInteger();
+            List<Long> writtenIds = new ArrayList<>();
 
-            if (scorers != null && scorers.isArray()) {
-                for (JsonNode scorerNode : scorers) {
-                    updatePlayerStatsFromScorer(scorerNode);
-                }
-                logger.info("Updated top scorers statistics");
+            // Spooled outside the transaction, as for matches
+            Optional<Feed> download = spoolIfChanged("scorers", url);
+            if (download.isEmpty()) {
+                return;
+            }
+            try (Feed feed = download.get()) {
+                // One transaction for the feed, so the scorer tables switch over at once
+                syncUnitOfWork.stage("scorers", status -> {
+                    try (BatchWriter<ScorerRecord> writer = new BatchWriter<>(syncBatchSize, syncUnitOfWork.chunked("players", batch -> {
+                        // One batched upsert per chunk, keyed by the external player id
+                        int count = playerUpsertService.upsertScorers(batch);
+                        written.addAndGet(count);
+                        dropped.addAndGet(batch.size() - count);
+                        syncStatistics.rowsWritten("players", count);
+                        batch.forEach(scorer -> writtenIds.add(scorer.externalId()));
+                    }))) {
+                        feed.forEach("scorers", scorerNode -> {
+                            String hash = sha256(scorerNode.toString());
+                            if (knownHashes.contains(hash)) {
+                                syncStatistics.rowSkipped("players");
+                                return;
+                            }
+                            ScorerRecord scorer = parseScorer(scorerNode, hash);
+                            if (scorer != null) {
+                                writer.add(scorer);
+                            } else {
+                                dropped.incrementAndGet();
+                            }
+                        });
+                    }
+                    markProcessedIfComplete(feed.payload(), dropped.get());
+                    return null;
+                });
             }
+            if (!writtenIds.isEmpty()) {
+                leaderboards.update(playerRepository.findSummariesByExternalIds(writtenIds));
+            }
+            logger.info("Updated top scorers statistics: {} players written", written.get());
         } catch (Exception e) {
             logger.error("Error fetching scorers", e);
         }
     }
 
-    private void updatePlayerStatsFromScorer(JsonNode scorerNode) {
+    private ScorerRecord parseScorer(JsonNode scorerNode, String contentHash) {
         try {
             // Extract player info
             JsonNode playerNode = scorerNode.get("player");
             Long playerId = playerNode.get("id").asLong();
             String playerName = playerNode.get("name").asText();
-            String firstName = playerNode.has("firstName") && !playerNode.get("firstName").isNull() 
-                ? playerNode.get("firstName").asText() : "";
-            String lastName = playerNode.has("lastName") && !playerNode.get("lastName").isNull() 
-                ? playerNode.get("lastName").asText() : "";
             String dateOfBirth = playerNode.has("dateOfBirth") && !playerNode.get("dateOfBirth").isNull() 
                 ? playerNode.get("dateOfBirth").asText() : null;
             String nationality = playerNode.has("nationality") && !playerNode.get("nationality").isNull() 
@@ -459,70 +972,28 @@ public class FootballDataService {
             Long teamExternalId = teamNode.get("id").asLong();
             
             // Extract stats
-            Integer goals = scorerNode.has("goals") ? scorerNode.get("goals").asInt() : 0;
-            Integer assists = scorerNode.has("assists") && !scorerNode.get("assists").isNull() 
+            int goals = scorerNode.has("goals") ? scorerNode.get("goals").asInt() : 0;
+            int assists = scorerNode.has("assists") && !scorerNode.get("assists").isNull() 
                 ? scorerNode.get("assists").asInt() : 0;
-            Integer matches = scorerNode.has("playedMatches") ? scorerNode.get("playedMatches").asInt() : 0;
-
-            // Find club by external ID
-            Optional<Club> clubOpt = clubRepository.findByExternalId(teamExternalId);
-            if (!clubOpt.isPresent()) {
-                logger.warn("Club with external ID {} not found for player {}", teamExternalId, playerName);
-                return;
-            }
-            
-            Club club = clubOpt.get();
-
-            // Find or create player
-            List<Player> allPlayers = playerRepository.findAll();
-            Optional<Player> playerOpt = allPlayers.stream()
-                .filter(p -> p.getName().equals(playerName) || 
-                            (p.getClub() != null && p.getClub().getId().equals(club.getId()) && 
-                             p.getName().equalsIgnoreCase(playerName)))
-                .findFirst();
-
-            Player player;
-            if (playerOpt.isPresent()) {
-                player = playerOpt.get();
-                logger.debug("Updating existing player: {}", playerName);
-            } else {
-                player = new Player();
-                player.setName(playerName);
-                player.setClub(club);
-                logger.info("Creating new player from scorers: {}", playerName);
-            }
+            int matches = scorerNode.has("playedMatches") ? scorerNode.get("playedMatches").asInt() : 0;
 
-            // Update player details
-            player.setNationality(nationality);
-            player.setJerseyNumber(shirtNumber);
-            
-            // Map position from section
-            if (section != null) {
-                player.setPosition(mapPositionFromSection(section));
-            }
-            
             // Parse date of birth
+            LocalDate dob = null;
             if (dateOfBirth != null) {
                 try {
-                    LocalDate dob = LocalDate.parse(dateOfBirth);
-                    player.setDateOfBirth(dob);
+                    dob = LocalDate.parse(dateOfBirth);
                 } catch (Exception e) {
                     logger.debug("Could not parse date of birth for player: {}", playerName);
                 }
             }
 
-            // Update stats
-            player.setGoals(goals);
-            player.setAssists(assists);
-            player.setMatchesPlayed(matches);
-
-            playerRepository.save(player);
-            logger.debug("✓ Updated stats for player: {} - Goals: {}, Assists: {}, Matches: {}", 
-                playerName, goals, assists, matches);
+            return new ScorerRecord(playerId, playerName, teamExternalId, nationality, shirtNumber,
+                section != null ? mapPositionFromSection(section) : null, dob,
+                goals, assists, matches, contentHash);
 
         } catch (Exception e) {
-            logger.error("Error updating player stats from scorer", e);
-            e.printStackTrace();
+            logger.error("Error parsing scorer entry", e);
+            return null;
         }
     }
 
@@ -539,118 +1010,120 @@ public class FootballDataService {
         return section; // Return original if no match
     }
 
-    private void fetchAndUpdateAllTeamSquads() {
+    /**
+     * @return true if the squad was fetched and applied
+     */
+    public boolean fetchAndUpdateTeamSquad(Long teamExternalId, Club club) {
         try {
-            logger.info("Fetching squad data for all Premier League teams...");
-            
-            // Get all clubs from database
-            List<Club> clubs = clubRepository.findAll();
-            
-            int teamsProcessed = 0;
-            for (Club club : clubs) {
-                if (club.getExternalId() != null) {
-                    try {
-                        fetchAndUpdateTeamSquad(club.getExternalId(), club);
-                        teamsProcessed++;
-                        
-                        // Add a small delay to avoid rate limiting
-                        Thread.sleep(200);
-                    } catch (Exception e) {
-                        logger.error("Error fetching squad for team {}: {}", club.getName(), e.getMessage());
+            String url = apiBaseUrl + "/teams/" + teamExternalId;
+            HttpHeaders headers = createHeaders();
+
+            // Spooled before the transaction, so the rate limiter and the download hold no connection
+            int playersProcessed;
+            List<Long> savedIds = new ArrayList<>();
+            try (Feed feed = spool("squad", url, headers)) {
+                // One transaction per squad, written in flushed and cleared chunks
+                playersProcessed = syncUnitOfWork.stage("squad", status -> {
+                    try (BatchWriter<SquadPlayerRecord> writer = new BatchWriter<>(syncBatchSize,
+                            syncUnitOfWork.chunked("squad-players", batch -> batch.forEach(player ->
+                                savedIds.add(updatePlayerFromSquad(player, club)))))) {
+                        feed.forEach("squad", playerNode -> {
+                            SquadPlayerRecord player = parseSquadPlayer(playerNode);
+                            if (player != null) {
+                                writer.add(player);
+                            }
+                        });
+                        writer.flush();
+                        return writer.written();
                     }
-                }
+                });
             }
-            
-            logger.info("Successfully fetched squad data for {} teams", teamsProcessed);
-        } catch (Exception e) {
-            logger.error("Error fetching all team squads", e);
-        }
-    }
-
-    public void fetchAndUpdateTeamSquad(Long teamExternalId, Club club) {
-        try {
-            String url = API_BASE_URL + "/teams/" + teamExternalId;
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class
-            );
-
-            JsonNode root = objectMapper.readTree(response.getBody());
-            JsonNode squad = root.get("squad");
-
-            if (squad != null && squad.isArray()) {
-                int playersProcessed = 0;
-                for (JsonNode playerNode : squad) {
-                    updatePlayerFromSquad(playerNode, club);
-                    playersProcessed++;
-                }
-                logger.info("Updated {} players for {}", playersProcessed, club.getName());
+            // New players, and transfers and positions of listed ones, once committed
+            if (!savedIds.isEmpty()) {
+                leaderboards.update(playerRepository.findSummariesByIds(savedIds));
             }
+            logger.info("Updated {} players for {}", playersProcessed, club.getName());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while fetching squad for team {}", teamExternalId);
+            return false;
         } catch (Exception e) {
             logger.error("Error fetching squad for team {}", teamExternalId, e);
+            return false;
         }
     }
 
-    private void updatePlayerFromSquad(JsonNode playerNode, Club club) {
-        try {
-            // Extract player info
-            Long playerId = playerNode.has("id") && !playerNode.get("id").isNull() 
-                ? playerNode.get("id").asLong() : null;
-            String playerName = playerNode.has("name") && !playerNode.get("name").isNull() 
-                ? playerNode.get("name").asText() : null;
-            
-            if (playerName == null || playerName.isEmpty()) {
-                return; // Skip if no name
+    private SquadPlayerRecord parseSquadPlayer(JsonNode playerNode) {
+        // Extract player info
+        Long playerId = playerNode.has("id") && !playerNode.get("id").isNull() 
+            ? playerNode.get("id").asLong() : null;
+        String playerName = playerNode.has("name") && !playerNode.get("name").isNull() 
+            ? playerNode.get("name").asText() : null;
+        
+        if (playerName == null || playerName.isEmpty()) {
+            return null; // Skip if no name
+        }
+
+        String position = playerNode.has("position") && !playerNode.get("position").isNull() 
+            ? playerNode.get("position").asText() : "Unknown";
+        String dateOfBirth = playerNode.has("dateOfBirth") && !playerNode.get("dateOfBirth").isNull() 
+            ? playerNode.get("dateOfBirth").asText() : null;
+        String nationality = playerNode.has("nationality") && !playerNode.get("nationality").isNull() 
+            ? playerNode.get("nationality").asText() : null;
+        Integer shirtNumber = playerNode.has("shirtNumber") && !playerNode.get("shirtNumber").isNull() 
+            ? playerNode.get("shirtNumber").asInt() : null;
+
+        // Parse date of birth
+        LocalDate dob = null;
+        if (dateOfBirth != null) {
+            try {
+                dob = LocalDate.parse(dateOfBirth);
+            } catch (Exception e) {
+                logger.debug("Could not parse date of birth for player: {}", playerName);
             }
+        }
 
-            String position = playerNode.has("position") && !playerNode.get("position").isNull() 
-                ? playerNode.get("position").asText() : "Unknown";
-            String dateOfBirth = playerNode.has("dateOfBirth") && !playerNode.get("dateOfBirth").isNull() 
-                ? playerNode.get("dateOfBirth").asText() : null;
-            String nationality = playerNode.has("nationality") && !playerNode.get("nationality").isNull() 
-                ? playerNode.get("nationality").asText() : null;
-            Integer shirtNumber = playerNode.has("shirtNumber") && !playerNode.get("shirtNumber").isNull() 
-                ? playerNode.get("shirtNumber").asInt() : null;
+        return new SquadPlayerRecord(playerId, playerName, position, dob, nationality, shirtNumber);
+    }
 
-            // Find or create player by name and club
-            List<Player> existingPlayers = playerRepository.findByClubId(club.getId());
-            Optional<Player> playerOpt = existingPlayers.stream()
-                .filter(p -> p.getName().equalsIgnoreCase(playerName))
+    // Failures propagate and roll back the squad's transaction; returns the player's id
+    private Long updatePlayerFromSquad(SquadPlayerRecord record, Club club) {
+        // Find by external id, adopting a legacy row by the scorer feed's rule first; without an id,
+        // fall back to name within the club
+        Optional<Player> playerOpt;
+        if (record.externalId() != null) {
+            playerUpsertService.claim(record.externalId(), club.getId(), record.name(), record.dateOfBirth());
+            playerOpt = playerRepository.findByExternalId(record.externalId());
+        } else {
+            playerOpt = playerRepository.findByClubId(club.getId()).stream()
+                .filter(p -> p.getExternalId() == null && p.getName().equalsIgnoreCase(record.name()))
                 .findFirst();
+        }
 
-            Player player;
-            if (playerOpt.isPresent()) {
-                player = playerOpt.get();
-            } else {
-                player = new Player();
-                player.setName(playerName);
-                player.setClub(club);
-                player.setGoals(0);
-                player.setAssists(0);
-                player.setMatchesPlayed(0);
-            }
-
-            // Update player details
-            player.setPosition(position);
-            player.setNationality(nationality);
-            player.setJerseyNumber(shirtNumber);
-            
-            // Parse date of birth
-            if (dateOfBirth != null) {
-                try {
-                    LocalDate dob = LocalDate.parse(dateOfBirth);
-                    player.setDateOfBirth(dob);
-                } catch (Exception e) {
-                    logger.debug("Could not parse date of birth for player: {}", playerName);
-                }
-            }
-
-            playerRepository.save(player);
+        Player player;
+        if (playerOpt.isPresent()) {
+            player = playerOpt.get();
+        } else {
+            player = new Player();
+            player.setName(record.name());
+            player.setClub(club);
+            player.setGoals(0);
+            player.setAssists(0);
+            player.setMatchesPlayed(0);
+        }
 
-        } catch (Exception e) {
-            logger.error("Error updating player from squad data", e);
+        // Update player details
+        player.setExternalId(record.externalId());
+        player.setClub(club);
+        player.setPosition(record.position());
+        player.setNationality(record.nationality());
+        player.setJerseyNumber(record.shirtNumber());
+        if (record.dateOfBirth() != null) {
+            player.setDateOfBirth(record.dateOfBirth());
         }
+
+        return playerRepository.save(player).getId();
     }
 
     private String getCurrentSeason() {
@@ -0,0 +1,168 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.HeadToHead;
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory head-to-head aggregates for every pair of clubs that has met.
+ *
+ * Built in one pass over the finished matches across all stored seasons and then
+ * maintained incrementally as matches finish. Each pair keeps a precomputed
+ * {@link HeadToHead}, so a lookup is a map read and at most a flip of perspective.
+ */
+@Service
+public class HeadToHeadIndex {
+    private static final Logger logger = LoggerFactory.getLogger(HeadToHeadIndex.class);
+
+    private static final Comparator<MatchResult> MOST_RECENT_FIRST =
+        Comparator.comparing(MatchResult::matchDate).thenComparing(MatchResult::matchId).reversed();
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Value("${prediction.head-to-head-window:5}")
+    private int recentWindow;
+
+    private final Map<PairKey, Pair> pairs = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    // Serializes loads and rebuilds; a lock rather than synchronized, as both query the matches table
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * Meetings between two clubs from the first club's point of view; empty if they have not met.
+     */
+    public HeadToHead get(Long clubId, Long opponentId) {
+        ensureLoaded();
+        PairKey key = PairKey.of(clubId, opponentId);
+        Pair pair = pairs.get(key);
+        if (pair == null) {
+            return HeadToHead.none(clubId, opponentId);
+        }
+        HeadToHead summary = pair.summary;
+        return summary.clubId().equals(clubId) ? summary : summary.reversed();
+    }
+
+    /**
+     * Apply a finished match. Re-recording the same match (e.g. a corrected score) replaces it.
+     */
+    public void recordResult(MatchResult result) {
+        if (result.homeScore() == null || result.awayScore() == null
+                || Objects.equals(result.homeClubId(), result.awayClubId())) {
+            return;
+        }
+        ensureLoaded();
+        pairs.computeIfAbsent(PairKey.of(result.homeClubId(), result.awayClubId()), Pair::new).add(result);
+    }
+
+    /**
+     * Discard the aggregates and rebuild them from all finished matches.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            Map<PairKey, Pair> rebuilt = new HashMap<>();
+            List<MatchResult> results = matchRepository.findResultsByStatus(Match.MatchStatus.FINISHED);
+            for (MatchResult result : results) {
+                if (!Objects.equals(result.homeClubId(), result.awayClubId())) {
+                    rebuilt.computeIfAbsent(PairKey.of(result.homeClubId(), result.awayClubId()), Pair::new)
+                        .addWithoutSummary(result);
+                }
+            }
+            rebuilt.values().forEach(Pair::summarize);
+            pairs.clear();
+            pairs.putAll(rebuilt);
+            loaded = true;
+            logger.info("Built head-to-head index for {} pairs from {} finished matches", rebuilt.size(), results.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            if (!loaded) {
+                rebuild();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Unordered pair of club ids, lower id first.
+     */
+    private record PairKey(long low, long high) {
+        static PairKey of(long a, long b) {
+            return a < b ? new PairKey(a, b) : new PairKey(b, a);
+        }
+    }
+
+    /**
+     * Every meeting of one pair plus its summary, recomputed on each change.
+     * A pair meets a couple of times a season, so a recompute is a handful of rows.
+     */
+    private final class Pair {
+        private final long low;
+        private final Map<Long, MatchResult> meetings = new HashMap<>();
+        private volatile HeadToHead summary;
+
+        Pair(PairKey key) {
+            this.low = key.low();
+        }
+
+        synchronized void add(MatchResult result) {
+            if (result.equals(meetings.put(result.matchId(), result))) {
+                return;
+            }
+            summarize();
+        }
+
+        void addWithoutSummary(MatchResult result) {
+            meetings.put(result.matchId(), result);
+        }
+
+        synchronized void summarize() {
+            int wins = 0, draws = 0, losses = 0, goalsFor = 0, goalsAgainst = 0;
+            for (MatchResult meeting : meetings.values()) {
+                boolean lowAtHome = meeting.homeClubId() == low;
+                int scored = lowAtHome ? meeting.homeScore() : meeting.awayScore();
+                int conceded = lowAtHome ? meeting.awayScore() : meeting.homeScore();
+                goalsFor += scored;
+                goalsAgainst += conceded;
+                if (scored > conceded) {
+                    wins++;
+                } else if (scored == conceded) {
+                    draws++;
+                } else {
+                    losses++;
+                }
+            }
+            MatchResult any = meetings.values().iterator().next();
+            long high = any.homeClubId() == low ? any.awayClubId() : any.homeClubId();
+            List<MatchResult> recent = meetings.values().stream()
+                .sorted(MOST_RECENT_FIRST)
+                .limit(recentWindow)
+                .toList();
+            summary = new HeadToHead(low, high, meetings.size(), wins, draws, losses, goalsFor, goalsAgainst, recent);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.Forecast;
+import com.premierleague.analytics.dto.HeadToHead;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * The original rule-based model: linear adjustments for form, table position,
+ * points, Elo rating and head-to-head on top of a home-advantage baseline, with scorelines
+ * picked from probability thresholds. Rates any fixture, so it is also the
+ * fallback when another model cannot.
+ */
+@Component
+public class HeuristicPredictionModel implements PredictionModel {
+
+    public static final String NAME = "heuristic";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Optional<Forecast> forecast(Context context) {
+        double[] probabilities = calculateWinProbabilities(
+            context.homeFormPoints(), context.awayFormPoints(),
+            context.homePosition(), context.awayPosition(),
+            context.homeTablePoints(), context.awayTablePoints(),
+            context.homeRating(), context.awayRating(),
+            context.headToHead()
+        );
+        int[] scores = predictScores(probabilities, context.homeFormPoints(), context.awayFormPoints());
+        return Optional.of(new Forecast(NAME, probabilities[0], probabilities[1], probabilities[2], scores[0], scores[1]));
+    }
+
+    /**
+     * @param headToHead meetings from the home club's point of view
+     */
+    private double[] calculateWinProbabilities(
+        int homeFormPoints, int awayFormPoints,
+        int homePosition, int awayPosition,
+        int homeTablePoints, int awayTablePoints,
+        double homeRating, double awayRating,
+        HeadToHead headToHead
+    ) {
+        // Base probabilities with home advantage
+        double homeWinProb = 40.0; // Home advantage starts at 40%
+        double drawProb = 30.0;
+        double awayWinProb = 30.0;
+
+        // Form influence (max 20% swing) - Reduced from 30%
+        int formDiff = homeFormPoints - awayFormPoints;
+        double formInfluence = (formDiff / 15.0) * 10.0; // Max form diff is 15 (5*3 - 0)
+        homeWinProb += formInfluence;
+        awayWinProb -= formInfluence;
+
+        // Position influence (max 30% swing) - INCREASED from 20% for more weight
+        int positionDiff = awayPosition - homePosition; // Better position = lower number
+        double positionInfluence = (positionDiff / 20.0) * 15.0; // Increased multiplier
+        homeWinProb += positionInfluence;
+        awayWinProb -= positionInfluence;
+
+        // Points influence (max 20% swing) - INCREASED from 15%
+        int pointsDiff = homeTablePoints - awayTablePoints;
+        double pointsInfluence = (pointsDiff / 40.0) * 10.0; // Increased multiplier
+        homeWinProb += pointsInfluence;
+        awayWinProb -= pointsInfluence;
+
+        // Rating influence (max 15% swing): carries across seasons, unlike position and points
+        double ratingDiff = Math.max(-200.0, Math.min(200.0, homeRating - awayRating));
+        double ratingInfluence = (ratingDiff / 200.0) * 7.5;
+        homeWinProb += ratingInfluence;
+        awayWinProb -= ratingInfluence;
+
+        // Head-to-head influence (max 10% swing), trusted fully from 6 meetings
+        if (headToHead.played() > 0) {
+            double h2hBalance = (headToHead.wins() - headToHead.losses()) / (double) headToHead.played();
+            double h2hInfluence = h2hBalance * Math.min(headToHead.played(), 6) / 6.0 * 5.0;
+            homeWinProb += h2hInfluence;
+            awayWinProb -= h2hInfluence;
+        }
+
+        // Extra boost for teams in top 4 vs teams in bottom 4
+        if (homePosition <= 4 && awayPosition >= 17) {
+            homeWinProb += 10.0; // Top team vs relegation candidate
+            awayWinProb -= 5.0;
+        } else if (awayPosition <= 4 && homePosition >= 17) {
+            awayWinProb += 10.0;
+            homeWinProb -= 5.0;
+        }
+
+        // Normalize to ensure they sum to 100%
+        double total = homeWinProb + drawProb + awayWinProb;
+        homeWinProb = (homeWinProb / total) * 100.0;
+        drawProb = (drawProb / total) * 100.0;
+        awayWinProb = (awayWinProb / total) * 100.0;
+
+        // Ensure no extreme probabilities
+        homeWinProb = Math.max(5.0, Math.min(85.0, homeWinProb));
+        awayWinProb = Math.max(5.0, Math.min(85.0, awayWinProb));
+        drawProb = Math.max(5.0, 100.0 - homeWinProb - awayWinProb);
+
+        return new double[]{homeWinProb, drawProb, awayWinProb};
+    }
+
+    private int[] predictScores(double[] probabilities, int homeFormPoints, int awayFormPoints) {
+        int homeScore, awayScore;
+
+        // Determine outcome based on probabilities
+        if (probabilities[0] > probabilities[2]) {
+            // Home win predicted
+            if (probabilities[0] > 60) {
+                homeScore = 2 + (homeFormPoints > 10 ? 1 : 0);
+                awayScore = homeFormPoints > 12 ? 0 : 1;
+            } else {
+                homeScore = 2;
+                awayScore = 1;
+            }
+        } else if (probabilities[2] > probabilities[0]) {
+            // Away win predicted
+            if (probabilities[2] > 60) {
+                awayScore = 2 + (awayFormPoints > 10 ? 1 : 0);
+                homeScore = awayFormPoints > 12 ? 0 : 1;
+            } else {
+                awayScore = 2;
+                homeScore = 1;
+            }
+        } else {
+            // Draw predicted
+            if (homeFormPoints < 5 && awayFormPoints < 5) {
+                homeScore = awayScore = 0; // Low-scoring draw
+            } else {
+                homeScore = awayScore = 1; // Standard draw
+            }
+        }
+
+        return new int[]{homeScore, awayScore};
+    }
+}
@@ -0,0 +1,159 @@
+package com.premierleague.analytics.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One run of a background job: status, timings per stage and the result or error.
+ */
+public class Job implements JobProgress {
+
+    public enum Type {
+        DATA_REFRESH,
+        // Every writer of prediction generations: regeneration, batch prediction and event-driven refresh
+        PREDICTIONS,
+        // Read-only replays, kept off the PREDICTIONS slot
+        BACKTEST
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Type type;
+    private final String trigger;
+    private final int expectedStages;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final CompletableFuture<Job> completion = new CompletableFuture<>();
+
+    private Status status = Status.QUEUED;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long startedNanos;
+    private String currentStage;
+    private long stageStartedNanos;
+    private final Map<String, Long> stageMillis = new LinkedHashMap<>();
+    private Map<String, Object> result;
+    private String error;
+
+    Job(Type type, String trigger, int expectedStages) {
+        this.type = type;
+        this.trigger = trigger;
+        this.expectedStages = expectedStages;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTrigger() {
+        return trigger;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+
+    public synchronized boolean isDone() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    /**
+     * Completes with this job once it has finished, successfully or not.
+     */
+    public CompletableFuture<Job> completion() {
+        return completion;
+    }
+
+    @Override
+    public synchronized void stage(String name) {
+        long now = System.nanoTime();
+        endStage(now);
+        currentStage = name;
+        stageStartedNanos = now;
+    }
+
+    synchronized void started() {
+        status = Status.RUNNING;
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+    }
+
+    synchronized void succeeded(Map<String, Object> result) {
+        this.result = result;
+        finish(Status.SUCCEEDED);
+    }
+
+    synchronized void failed(Throwable e) {
+        error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        finish(Status.FAILED);
+    }
+
+    synchronized Long durationMillis() {
+        if (startedAt == null) {
+            return null;
+        }
+        if (finishedAt != null) {
+            return Duration.between(startedAt, finishedAt).toMillis();
+        }
+        return Duration.ofNanos(System.nanoTime() - startedNanos).toMillis();
+    }
+
+    private void finish(Status outcome) {
+        endStage(System.nanoTime());
+        currentStage = null;
+        status = outcome;
+        finishedAt = LocalDateTime.now();
+    }
+
+    private void endStage(long now) {
+        if (currentStage != null) {
+            stageMillis.merge(currentStage, Duration.ofNanos(now - stageStartedNanos).toMillis(), Long::sum);
+        }
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", id);
+        data.put("type", type);
+        data.put("trigger", trigger);
+        data.put("status", status);
+        data.put("submittedAt", submittedAt);
+        data.put("startedAt", startedAt);
+        data.put("finishedAt", finishedAt);
+        data.put("durationMs", durationMillis());
+        data.put("currentStage", currentStage);
+        data.put("progress", progress());
+        data.put("stages", new LinkedHashMap<>(stageMillis));
+        data.put("result", result);
+        data.put("error", error);
+        return data;
+    }
+
+    // Fraction of expected stages completed; null when the job does not report stages
+    private Double progress() {
+        if (status == Status.SUCCEEDED) {
+            return 1.0;
+        }
+        if (expectedStages <= 0) {
+            return null;
+        }
+        return Math.min(1.0, stageMillis.size() / (double) expectedStages);
+    }
+}
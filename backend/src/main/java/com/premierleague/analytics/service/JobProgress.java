@@ -0,0 +1,15 @@
+package com.premierleague.analytics.service;
+
+/**
+ * Receives stage boundaries from long-running work so a {@link Job} can time each stage.
+ */
+@FunctionalInterface
+public interface JobProgress {
+
+    JobProgress NONE = stage -> { };
+
+    /**
+     * Ends the current stage, if any, and starts the named one.
+     */
+    void stage(String name);
+}
@@ -0,0 +1,131 @@
+package com.premierleague.analytics.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs data refreshes and prediction regeneration off the request thread.
+ *
+ * Jobs are single-flight per type: submitting a type that is already queued or
+ * running returns the existing job instead of starting another, so manual
+ * triggers and the scheduled crons never overlap. Finished jobs are kept in a
+ * short history for the status endpoints.
+ */
+@Service
+public class JobService {
+    private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * @return summary of the run, stored on the job; may be null
+         */
+        Map<String, Object> run(JobProgress progress) throws Exception;
+    }
+
+    /**
+     * A submitted job and whether it was already in flight.
+     */
+    public record Submission(Job job, boolean deduplicated) {
+    }
+
+    @Value("${jobs.history-size:50}")
+    private int historySize;
+
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("job-", 1).factory());
+
+    private final Map<Job.Type, Job> active = new ConcurrentHashMap<>();
+    private final Map<String, Job> byId = new ConcurrentHashMap<>();
+    private final Deque<Job> history = new ArrayDeque<>();
+    private final Map<Job.Type, Job> lastFinished = new EnumMap<>(Job.Type.class);
+
+    public Submission submit(Job.Type type, String trigger, Task task) {
+        return submit(type, trigger, 0, task);
+    }
+
+    /**
+     * Queue a job unless one of the same type is already queued or running.
+     *
+     * @param expectedStages number of {@link JobProgress#stage} calls the task makes, for progress; 0 if unknown
+     */
+    public Submission submit(Job.Type type, String trigger, int expectedStages, Task task) {
+        Job fresh = new Job(type, trigger, expectedStages);
+        Job job = active.computeIfAbsent(type, t -> fresh);
+        if (job != fresh) {
+            logger.info("{} job {} already in flight, not starting another ({})", type, job.getId(), trigger);
+            return new Submission(job, true);
+        }
+        remember(job);
+        executor.execute(() -> run(job, task));
+        return new Submission(job, false);
+    }
+
+    public Optional<Job> find(String id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * Jobs in the history, newest first.
+     */
+    public synchronized List<Job> recent() {
+        List<Job> jobs = new ArrayList<>();
+        history.descendingIterator().forEachRemaining(jobs::add);
+        return jobs;
+    }
+
+    public Optional<Job> running(Job.Type type) {
+        return Optional.ofNullable(active.get(type));
+    }
+
+    public synchronized Optional<Job> lastFinished(Job.Type type) {
+        return Optional.ofNullable(lastFinished.get(type));
+    }
+
+    private void run(Job job, Task task) {
+        job.started();
+        logger.info("{} job {} started ({})", job.getType(), job.getId(), job.getTrigger());
+        try {
+            job.succeeded(task.run(job));
+            logger.info("{} job {} finished in {} ms", job.getType(), job.getId(), job.durationMillis());
+        } catch (Exception e) {
+            logger.error("{} job {} failed", job.getType(), job.getId(), e);
+            job.failed(e);
+        } finally {
+            synchronized (this) {
+                lastFinished.put(job.getType(), job);
+            }
+            active.remove(job.getType(), job);
+            // Complete last, so a waiter sees the job as finished everywhere
+            job.completion().complete(job);
+        }
+    }
+
+    private synchronized void remember(Job job) {
+        history.addLast(job);
+        byId.put(job.getId(), job);
+        // Drop the oldest finished jobs beyond the history size; in-flight jobs always stay
+        while (history.size() > historySize && history.peekFirst().isDone()) {
+            byId.remove(history.removeFirst().getId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
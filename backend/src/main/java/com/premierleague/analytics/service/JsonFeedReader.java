@@ -0,0 +1,52 @@
+package com.premierleague.analytics.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streams the elements of one top-level array in a JSON document.
+ *
+ * Only the element currently being handled is materialised as a tree, so memory
+ * use depends on the size of a single element rather than the whole payload.
+ */
+final class JsonFeedReader {
+
+    private JsonFeedReader() {
+    }
+
+    /**
+     * Leaves the body open, so the caller can drain the rest of it (e.g. to finish a digest).
+     *
+     * @return number of elements handed to the consumer
+     */
+    static int forEachElement(ObjectMapper objectMapper, InputStream body, String arrayField,
+                              Consumer<JsonNode> consumer) throws IOException {
+        int count = 0;
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object at the root of the feed");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (arrayField.equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        JsonNode element = parser.readValueAsTree();
+                        consumer.accept(element);
+                        count++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,47 @@
+package com.premierleague.analytics.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once: the JSON bytes, a gzipped copy and a strong ETag
+ * derived from the content, so identical data always yields the same tag.
+ */
+public record JsonSnapshot(byte[] json, byte[] gzip, String etag) {
+
+    public static JsonSnapshot of(ObjectMapper objectMapper, Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new JsonSnapshot(json, gzip(json), etag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.PlayerSummary;
+import com.premierleague.analytics.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Top-N player leaderboards (goals, assists) held in memory.
+ *
+ * Each metric keeps a bounded min-heap of its best N players, seeded with one
+ * LIMIT query and then fed the players written by the scorer and squad syncs. Unfiltered
+ * reads of up to N rows never touch the database; filtered reads and larger
+ * limits go to the indexed top-N queries instead.
+ */
+@Service
+public class Leaderboards {
+    private static final Logger logger = LoggerFactory.getLogger(Leaderboards.class);
+
+    public enum Metric {
+        GOALS(p -> p.goals() != null ? p.goals() : 0),
+        ASSISTS(p -> p.assists() != null ? p.assists() : 0);
+
+        private final ToIntFunction<PlayerSummary> value;
+
+        Metric(ToIntFunction<PlayerSummary> value) {
+            this.value = value;
+        }
+
+        int valueOf(PlayerSummary player) {
+            return value.applyAsInt(player);
+        }
+    }
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Value("${leaderboard.size:50}")
+    private int size;
+
+    private final Map<Metric, Board> boards = new HashMap<>();
+
+    public Leaderboards() {
+        for (Metric metric : Metric.values()) {
+            boards.put(metric, new Board(metric));
+        }
+    }
+
+    /**
+     * Best players for a metric, highest first. Position and club filters are optional.
+     */
+    public List<PlayerSummary> top(Metric metric, int limit, String position, Long clubId) {
+        if (position == null && clubId == null && limit <= size) {
+            List<PlayerSummary> ranked = boards.get(metric).ranked(() -> query(metric, size, null, null));
+            return ranked.subList(0, Math.min(limit, ranked.size()));
+        }
+        return query(metric, limit, position, clubId);
+    }
+
+    /**
+     * Apply freshly written player rows to every board.
+     */
+    public void update(Collection<PlayerSummary> players) {
+        for (Board board : boards.values()) {
+            board.offerAll(players);
+        }
+    }
+
+    /**
+     * Drop all boards; they are reloaded from the database on next read.
+     */
+    public void invalidate() {
+        boards.values().forEach(Board::invalidate);
+    }
+
+    private List<PlayerSummary> query(Metric metric, int limit, String position, Long clubId) {
+        PageRequest page = PageRequest.of(0, limit);
+        return switch (metric) {
+            case GOALS -> playerRepository.findTopScorerSummaries(position, clubId, page);
+            case ASSISTS -> playerRepository.findTopAssistSummaries(position, clubId, page);
+        };
+    }
+
+    private final class Board {
+        private final Metric metric;
+        private final Comparator<PlayerSummary> bestFirst;
+        // Worst entry at the head so it can be evicted in O(log n)
+        private final PriorityQueue<PlayerSummary> heap;
+        private final Map<Long, PlayerSummary> members = new HashMap<>();
+        // Held across the seeding query, so an update arriving meanwhile waits and is applied on top of the
+        // seed instead of being dropped; a lock rather than synchronized, as a query may block under it
+        private final ReentrantLock lock = new ReentrantLock();
+        // Null until seeded; read without the lock
+        private volatile List<PlayerSummary> ranked;
+
+        Board(Metric metric) {
+            this.metric = metric;
+            this.bestFirst = Comparator.<PlayerSummary>comparingInt(metric::valueOf).reversed()
+                .thenComparing(PlayerSummary::id);
+            this.heap = new PriorityQueue<>(bestFirst.reversed());
+        }
+
+        List<PlayerSummary> ranked(Supplier<List<PlayerSummary>> seed) {
+            List<PlayerSummary> current = ranked;
+            if (current != null) {
+                return current;
+            }
+            lock.lock();
+            try {
+                if (ranked == null) {
+                    load(seed.get());
+                }
+                return ranked;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void load(List<PlayerSummary> top) {
+            heap.clear();
+            members.clear();
+            for (PlayerSummary player : top) {
+                heap.add(player);
+                members.put(player.id(), player);
+            }
+            publish();
+            logger.debug("Loaded {} leaderboard with {} players", metric, top.size());
+        }
+
+        void offerAll(Collection<PlayerSummary> players) {
+            lock.lock();
+            try {
+                if (ranked == null) {
+                    return; // Not seeded, and no seed in progress: the next one reads these committed rows
+                }
+                boolean changed = false;
+                for (PlayerSummary player : players) {
+                    PlayerSummary current = members.get(player.id());
+                    if (current != null) {
+                        heap.remove(current);
+                        members.remove(player.id());
+                        if (metric.valueOf(player) < metric.valueOf(current) && members.size() + 1 >= size) {
+                            // A full board cannot know who replaces a member that dropped, so reload it
+                            invalidate();
+                            return;
+                        }
+                    }
+                    if (heap.size() < size) {
+                        heap.add(player);
+                        members.put(player.id(), player);
+                        changed = true;
+                    } else if (bestFirst.compare(player, heap.peek()) < 0) {
+                        members.remove(heap.poll().id());
+                        heap.add(player);
+                        members.put(player.id(), player);
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    publish();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void invalidate() {
+            lock.lock();
+            try {
+                ranked = null;
+                heap.clear();
+                members.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void publish() {
+            List<PlayerSummary> sorted = new ArrayList<>(heap);
+            sorted.sort(bestFirst);
+            ranked = List.copyOf(sorted);
+        }
+    }
+}
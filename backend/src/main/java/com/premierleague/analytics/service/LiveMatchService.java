@@ -0,0 +1,229 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.Fixture;
+import com.premierleague.analytics.dto.LiveScore;
+import com.premierleague.analytics.dto.MatchRecord;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live mode: polls the matches in their kickoff window at a short, adaptive
+ * interval and pushes score changes to {@link LiveScoreBroadcaster}.
+ *
+ * Outside a kickoff window a tick is a comparison against the in-memory list
+ * of kickoff times, which is reloaded from the database at most once per
+ * schedule-refresh period. Inside a window the interval starts at
+ * min-interval and doubles up to max-interval while nothing changes.
+ */
+@Service
+public class LiveMatchService {
+    private static final Logger logger = LoggerFactory.getLogger(LiveMatchService.class);
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private FootballDataService footballDataService;
+
+    @Autowired
+    private LiveScoreBroadcaster broadcaster;
+
+    @Value("${live.enabled:true}")
+    private boolean enabled;
+
+    // Window opens this long before kickoff...
+    @Value("${live.pre-kickoff-minutes:5}")
+    private long preKickoffMinutes;
+
+    // ...and closes this long after (90 minutes, half-time, stoppage and a margin)
+    @Value("${live.window-minutes:150}")
+    private long windowMinutes;
+
+    @Value("${live.min-interval-seconds:15}")
+    private long minIntervalSeconds;
+
+    @Value("${live.max-interval-seconds:120}")
+    private long maxIntervalSeconds;
+
+    @Value("${live.schedule-refresh-minutes:60}")
+    private long scheduleRefreshMinutes;
+
+    // Kickoffs of scheduled and live matches, UTC, ascending
+    private List<LocalDateTime> kickoffs = List.of();
+    private LocalDateTime kickoffsLoadedAt;
+
+    private final Map<Long, LiveScore> lastScores = new HashMap<>();
+    private boolean active = false;
+    private Duration interval;
+    private LocalDateTime nextPollAt = LocalDateTime.MIN;
+    // Set once every match in the current window has finished, so the rest of the window is skipped
+    private LocalDateTime quietUntil = LocalDateTime.MIN;
+
+    // A lock rather than synchronized: a tick blocks on HTTP and JDBC, which would pin a virtual thread
+    private final ReentrantLock tickLock = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${live.tick-millis:5000}")
+    public void tick() {
+        if (!enabled || !tickLock.tryLock()) {
+            return;
+        }
+        try {
+            runTick();
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    private void runTick() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        if (kickoffsLoadedAt == null || now.isAfter(kickoffsLoadedAt.plusMinutes(scheduleRefreshMinutes))) {
+            reloadKickoffs(now);
+        }
+
+        List<LocalDateTime> window = inWindow(now);
+        if (window.isEmpty() || now.isBefore(quietUntil)) {
+            if (active) {
+                deactivate();
+            }
+            return;
+        }
+        if (!active) {
+            activate(window.size());
+        }
+        if (now.isBefore(nextPollAt)) {
+            return;
+        }
+        poll(now, window);
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("active", active);
+        result.put("intervalSeconds", active ? interval.toSeconds() : null);
+        result.put("subscribers", broadcaster.subscriberCount());
+        return result;
+    }
+
+    private void poll(LocalDateTime now, List<LocalDateTime> window) {
+        LocalDate from = window.get(0).toLocalDate();
+        LocalDate to = window.get(window.size() - 1).toLocalDate();
+        try {
+            List<MatchRecord> records = footballDataService.fetchMatchesBetween(from, to);
+
+            List<MatchRecord> changed = new ArrayList<>();
+            List<LiveScore> scores = new ArrayList<>();
+            boolean anyOpen = false;
+            for (MatchRecord record : records) {
+                if (!inWindow(now, record.matchDate())) {
+                    continue;
+                }
+                if (record.status() == Match.MatchStatus.LIVE || record.status() == Match.MatchStatus.SCHEDULED) {
+                    anyOpen = true;
+                }
+                LiveScore score = LiveScore.of(record);
+                if (!score.sameScore(lastScores.get(record.externalId()))) {
+                    changed.add(record);
+                    scores.add(score);
+                    lastScores.put(record.externalId(), score);
+                }
+            }
+
+            if (!changed.isEmpty()) {
+                footballDataService.saveMatches(changed);
+                broadcaster.publish(scores);
+                interval = Duration.ofSeconds(minIntervalSeconds);
+                logger.info("Live: {} match(es) changed", changed.size());
+            } else {
+                interval = backoff(interval);
+            }
+            if (!anyOpen) {
+                // Everything in this window is over; stay idle until it closes or the next one opens
+                quietUntil = quietUntil(window.get(window.size() - 1));
+                logger.info("Live: all matches in the window finished, idle until {}", quietUntil);
+            }
+        } catch (Exception e) {
+            logger.error("Live poll failed", e);
+            interval = Duration.ofSeconds(maxIntervalSeconds);
+        }
+        nextPollAt = now.plus(interval);
+    }
+
+    private LocalDateTime quietUntil(LocalDateTime lastKickoff) {
+        LocalDateTime until = lastKickoff.plusMinutes(windowMinutes);
+        for (LocalDateTime kickoff : kickoffs) {
+            if (kickoff.isAfter(lastKickoff)) {
+                LocalDateTime opens = kickoff.minusMinutes(preKickoffMinutes);
+                return opens.isBefore(until) ? opens : until;
+            }
+        }
+        return until;
+    }
+
+    private void reloadKickoffs(LocalDateTime now) {
+        List<LocalDateTime> loaded = new ArrayList<>();
+        for (Match.MatchStatus status : new Match.MatchStatus[]{Match.MatchStatus.SCHEDULED, Match.MatchStatus.LIVE}) {
+            for (Fixture fixture : matchRepository.findFixturesByStatus(status)) {
+                loaded.add(fixture.matchDate());
+            }
+        }
+        loaded.sort(null);
+        kickoffs = loaded;
+        kickoffsLoadedAt = now;
+    }
+
+    private List<LocalDateTime> inWindow(LocalDateTime now) {
+        List<LocalDateTime> window = new ArrayList<>();
+        for (LocalDateTime kickoff : kickoffs) {
+            if (kickoff.isAfter(now.plusMinutes(preKickoffMinutes))) {
+                break; // Sorted, so nothing later can be in the window
+            }
+            if (inWindow(now, kickoff)) {
+                window.add(kickoff);
+            }
+        }
+        return window;
+    }
+
+    private boolean inWindow(LocalDateTime now, LocalDateTime kickoff) {
+        return !now.isBefore(kickoff.minusMinutes(preKickoffMinutes))
+            && now.isBefore(kickoff.plusMinutes(windowMinutes));
+    }
+
+    private Duration backoff(Duration current) {
+        Duration doubled = current.multipliedBy(2);
+        Duration max = Duration.ofSeconds(maxIntervalSeconds);
+        return doubled.compareTo(max) > 0 ? max : doubled;
+    }
+
+    private void activate(int fixtures) {
+        active = true;
+        interval = Duration.ofSeconds(minIntervalSeconds);
+        nextPollAt = LocalDateTime.MIN;
+        logger.info("Live mode on: {} fixture(s) in the kickoff window", fixtures);
+    }
+
+    private void deactivate() {
+        active = false;
+        lastScores.clear();
+        broadcaster.clear();
+        logger.info("Live mode off");
+    }
+}
@@ -0,0 +1,189 @@
+package com.premierleague.analytics.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.premierleague.analytics.dto.LiveScore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans live score changes out to SSE subscribers.
+ *
+ * Holds the latest score per match in memory, so a new subscriber gets the
+ * current state without a query, and each change is serialized once no matter
+ * how many clients are connected. Every subscriber has its own sender thread and
+ * bounded queue: the poller only enqueues, and a slow client backs up its own
+ * queue until it is dropped. Idle streams get a heartbeat comment so proxies
+ * keep them open and dead clients are noticed.
+ */
+@Component
+public class LiveScoreBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(LiveScoreBroadcaster.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Events queued for one subscriber before it is treated as stalled and dropped
+    @Value("${live.subscriber-backlog:64}")
+    private int backlog = 64;
+
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final Map<Long, LiveScore> latest = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> drop(subscriber));
+        emitter.onTimeout(() -> drop(subscriber));
+        emitter.onError(e -> drop(subscriber));
+        subscribers.add(subscriber);
+        subscriber.enqueue(event("snapshot", serialize(List.copyOf(latest.values()))));
+        return emitter;
+    }
+
+    /**
+     * Record and push changed scores. Returns once the event is queued for every subscriber.
+     */
+    public void publish(Collection<LiveScore> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (LiveScore score : changes) {
+            latest.put(score.externalId(), score);
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> event = event("score", serialize(changes));
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(event);
+        }
+        logger.debug("Queued {} score changes for {} subscribers", changes.size(), subscribers.size());
+    }
+
+    @Scheduled(fixedDelayString = "${live.heartbeat-millis:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("heartbeat").build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(ping);
+        }
+    }
+
+    /**
+     * Forget scores once their matches are over and the live window has closed.
+     */
+    public void clear() {
+        latest.clear();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            drop(subscriber);
+        }
+    }
+
+    // Package-private so tests can substitute an emitter
+    SseEmitter newEmitter() {
+        return new SseEmitter(0L);
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String name, String json) {
+        return SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON).build();
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize live scores", e);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.close();
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // One sender at a time, in order; idle senders exit and are restarted by the next event
+        private final ThreadPoolExecutor sender;
+        // A lock rather than synchronized: a send blocks on the client socket, which would pin a virtual thread
+        private final ReentrantLock sendLock = new ReentrantLock();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.sender = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, backlog)), Thread.ofVirtual().name("sse-sender").factory());
+            this.sender.allowCoreThreadTimeOut(true);
+        }
+
+        void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            try {
+                sender.execute(() -> send(event));
+            } catch (RejectedExecutionException e) {
+                if (!sender.isShutdown()) {
+                    logger.info("Dropping a live score subscriber with {} events queued", backlog);
+                }
+                drop(this);
+            }
+        }
+
+        private void send(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            sendLock.lock();
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                drop(this);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        void close() {
+            sender.shutdownNow();
+            // Off the caller's thread: completing waits for a send that may be stuck on the socket
+            Thread.ofVirtual().name("sse-complete").start(() -> {
+                sendLock.lock();
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    // Already completed
+                } finally {
+                    sendLock.unlock();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.MatchRecord;
+import com.premierleague.analytics.entity.Match;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Set-based match writes keyed by the Football-Data.org match id.
+ *
+ * Relies on the unique index on matches.external_id, so each batch of the feed is
+ * one state lookup plus batched INSERT ... ON CONFLICT statements. Callers own the
+ * transaction so a whole feed can be written atomically.
+ */
+@Service
+public class MatchUpsertService {
+    private static final Logger logger = LoggerFactory.getLogger(MatchUpsertService.class);
+
+    // Adopt rows created before external ids were stored, so the upsert updates them instead of duplicating
+    private static final String CLAIM_SQL =
+        "UPDATE matches SET external_id = ? WHERE id = (SELECT MIN(id) FROM matches " +
+        "WHERE external_id IS NULL AND home_club_id = ? AND away_club_id = ? AND CAST(match_date AS DATE) = ?) " +
+        "AND NOT EXISTS (SELECT 1 FROM matches m WHERE m.external_id = ?)";
+
+    private static final String STATE_SQL =
+        "SELECT external_id, status, home_score, away_score FROM matches WHERE external_id IN (:externalIds)";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO matches (external_id, home_club_id, away_club_id, match_date, home_score, away_score, " +
+        "match_week, venue, season, status, content_hash, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, COALESCE(?, (SELECT c.stadium FROM clubs c WHERE c.id = ?)), ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (external_id) DO UPDATE SET " +
+        "home_club_id = EXCLUDED.home_club_id, away_club_id = EXCLUDED.away_club_id, " +
+        "match_date = EXCLUDED.match_date, home_score = EXCLUDED.home_score, away_score = EXCLUDED.away_score, " +
+        "match_week = EXCLUDED.match_week, venue = EXCLUDED.venue, season = EXCLUDED.season, " +
+        "status = EXCLUDED.status, content_hash = EXCLUDED.content_hash, updated_at = EXCLUDED.updated_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Upsert one batch of the matches feed.
+     *
+     * @param clubIds club name -> local id, preloaded once per sync
+     * @return external ids of matches that became FINISHED or had their final score changed
+     */
+    public UpsertResult upsertMatches(List<MatchRecord> records, Map<String, Long> clubIds, String season) {
+        List<MatchRecord> resolvable = new ArrayList<>(records.size());
+        for (MatchRecord record : records) {
+            if (record.externalId() != null
+                    && clubIds.containsKey(record.homeTeamName()) && clubIds.containsKey(record.awayTeamName())) {
+                resolvable.add(record);
+            } else {
+                logger.debug("Clubs not found for match: {} vs {}", record.homeTeamName(), record.awayTeamName());
+            }
+        }
+        if (resolvable.isEmpty()) {
+            return new UpsertResult(0, List.of());
+        }
+
+        jdbcTemplate.batchUpdate(CLAIM_SQL, resolvable, resolvable.size(), (ps, r) -> {
+            ps.setLong(1, r.externalId());
+            ps.setLong(2, clubIds.get(r.homeTeamName()));
+            ps.setLong(3, clubIds.get(r.awayTeamName()));
+            ps.setDate(4, Date.valueOf(r.matchDate().toLocalDate()));
+            ps.setLong(5, r.externalId());
+        });
+
+        // Previous status and score, to report which results changed
+        Map<Long, Object[]> previous = new HashMap<>();
+        namedParameterJdbcTemplate.query(STATE_SQL,
+            new MapSqlParameterSource("externalIds", resolvable.stream().map(MatchRecord::externalId).toList()),
+            rs -> {
+                previous.put(rs.getLong("external_id"), new Object[]{
+                    rs.getString("status"), rs.getObject("home_score"), rs.getObject("away_score")});
+            });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, resolvable, resolvable.size(), (ps, r) -> {
+            Long homeClubId = clubIds.get(r.homeTeamName());
+            ps.setLong(1, r.externalId());
+            ps.setLong(2, homeClubId);
+            ps.setLong(3, clubIds.get(r.awayTeamName()));
+            ps.setTimestamp(4, Timestamp.valueOf(r.matchDate()));
+            setInteger(ps, 5, r.homeScore());
+            setInteger(ps, 6, r.awayScore());
+            setInteger(ps, 7, r.matchday());
+            ps.setString(8, r.venue());
+            ps.setLong(9, homeClubId);
+            ps.setString(10, season);
+            ps.setString(11, r.status().name());
+            ps.setString(12, r.contentHash());
+            ps.setTimestamp(13, now);
+            ps.setTimestamp(14, now);
+        });
+
+        List<Long> resultsChanged = new ArrayList<>();
+        for (MatchRecord r : resolvable) {
+            if (r.status() != Match.MatchStatus.FINISHED || r.homeScore() == null || r.awayScore() == null) {
+                continue;
+            }
+            Object[] before = previous.get(r.externalId());
+            boolean changed = before == null
+                || !Match.MatchStatus.FINISHED.name().equals(before[0])
+                || !Objects.equals(toInteger(before[1]), r.homeScore())
+                || !Objects.equals(toInteger(before[2]), r.awayScore());
+            if (changed) {
+                resultsChanged.add(r.externalId());
+            }
+        }
+        return new UpsertResult(resolvable.size(), resultsChanged);
+    }
+
+    private static void setInteger(java.sql.PreparedStatement ps, int index, Integer value) throws java.sql.SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static Integer toInteger(Object value) {
+        return value instanceof Number number ? number.intValue() : null;
+    }
+
+    public record UpsertResult(int written, List<Long> resultsChanged) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.ClubRef;
+import com.premierleague.analytics.dto.ScorerRecord;
+import com.premierleague.analytics.repository.ClubRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based player writes keyed by the Football-Data.org person id.
+ *
+ * Relies on the unique index on players.external_id, so a whole feed is written
+ * with batched INSERT ... ON CONFLICT statements and no per-row lookups.
+ */
+@Service
+public class PlayerUpsertService {
+    private static final Logger logger = LoggerFactory.getLogger(PlayerUpsertService.class);
+
+    // Adopt a row created before external ids were stored, so the upsert updates it instead of duplicating.
+    // Candidates share the name and have no conflicting date of birth; one is taken if its date of birth
+    // matches or it is at the same club, or if no other unclaimed row has that name (a transfer since).
+    private static final String CLAIM_SQL =
+        "WITH s (external_id, club_id, name, dob) AS " +
+        "(VALUES (CAST(? AS bigint), CAST(? AS bigint), CAST(? AS varchar), CAST(? AS date))) " +
+        "UPDATE players SET external_id = s.external_id FROM s WHERE players.id = (" +
+        "SELECT p.id FROM players p WHERE p.external_id IS NULL AND LOWER(p.name) = LOWER(s.name) " +
+        "AND (p.date_of_birth IS NULL OR s.dob IS NULL OR p.date_of_birth = s.dob) " +
+        "AND (p.date_of_birth = s.dob OR p.club_id = s.club_id OR NOT EXISTS (SELECT 1 FROM players o " +
+        "WHERE o.external_id IS NULL AND LOWER(o.name) = LOWER(p.name) AND o.id <> p.id)) " +
+        "ORDER BY COALESCE(p.date_of_birth = s.dob, FALSE) DESC, COALESCE(p.club_id = s.club_id, FALSE) DESC, p.id " +
+        "LIMIT 1) " +
+        "AND NOT EXISTS (SELECT 1 FROM players e WHERE e.external_id = s.external_id)";
+
+    private static final String UPSERT_SCORER_SQL =
+        "INSERT INTO players (external_id, name, club_id, nationality, jersey_number, position, date_of_birth, " +
+        "goals, assists, matches_played, content_hash, yellow_cards, red_cards, minutes_played, clean_sheets, saves, " +
+        "created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0, 0, 0, ?, ?) " +
+        "ON CONFLICT (external_id) DO UPDATE SET " +
+        "name = EXCLUDED.name, club_id = EXCLUDED.club_id, nationality = EXCLUDED.nationality, " +
+        "jersey_number = EXCLUDED.jersey_number, " +
+        "position = COALESCE(EXCLUDED.position, players.position), " +
+        "date_of_birth = COALESCE(EXCLUDED.date_of_birth, players.date_of_birth), " +
+        "goals = EXCLUDED.goals, assists = EXCLUDED.assists, matches_played = EXCLUDED.matches_played, " +
+        "content_hash = EXCLUDED.content_hash, updated_at = EXCLUDED.updated_at";
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Upsert a batch of scorers in one transaction.
+     *
+     * @return number of rows written (scorers whose team is unknown are skipped)
+     */
+    @Transactional
+    public int upsertScorers(List<ScorerRecord> scorers) {
+        if (scorers.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> clubIds = new HashMap<>();
+        for (ClubRef club : clubRepository.findClubRefs()) {
+            if (club.externalId() != null) {
+                clubIds.put(club.externalId(), club.id());
+            }
+        }
+
+        List<ScorerRecord> resolvable = scorers.stream()
+            .filter(s -> s.externalId() != null && clubIds.containsKey(s.teamExternalId()))
+            .toList();
+        if (resolvable.size() < scorers.size()) {
+            logger.warn("Skipping {} scorers with unknown teams", scorers.size() - resolvable.size());
+        }
+        if (resolvable.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(CLAIM_SQL, resolvable, resolvable.size(), (ps, s) ->
+            bindClaim(ps, s.externalId(), clubIds.get(s.teamExternalId()), s.name(), s.dateOfBirth()));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SCORER_SQL, resolvable, resolvable.size(), (ps, s) -> {
+            ps.setLong(1, s.externalId());
+            ps.setString(2, s.name());
+            ps.setLong(3, clubIds.get(s.teamExternalId()));
+            ps.setString(4, s.nationality());
+            if (s.shirtNumber() != null) ps.setInt(5, s.shirtNumber()); else ps.setNull(5, Types.INTEGER);
+            ps.setString(6, s.position());
+            if (s.dateOfBirth() != null) ps.setDate(7, Date.valueOf(s.dateOfBirth())); else ps.setNull(7, Types.DATE);
+            ps.setInt(8, s.goals());
+            ps.setInt(9, s.assists());
+            ps.setInt(10, s.playedMatches());
+            ps.setString(11, s.contentHash());
+            ps.setTimestamp(12, now);
+            ps.setTimestamp(13, now);
+        });
+        return resolvable.size();
+    }
+
+    /**
+     * Give a legacy row without an external id to this player, if one matches.
+     * Joins the caller's transaction, so a following lookup by external id finds it.
+     *
+     * @return whether a row was claimed
+     */
+    public boolean claim(long externalId, Long clubId, String name, LocalDate dateOfBirth) {
+        return jdbcTemplate.update(CLAIM_SQL, ps -> bindClaim(ps, externalId, clubId, name, dateOfBirth)) > 0;
+    }
+
+    private static void bindClaim(PreparedStatement ps, long externalId, Long clubId, String name,
+                                  LocalDate dateOfBirth) throws SQLException {
+        ps.setLong(1, externalId);
+        if (clubId != null) ps.setLong(2, clubId); else ps.setNull(2, Types.BIGINT);
+        ps.setString(3, name);
+        if (dateOfBirth != null) ps.setDate(4, Date.valueOf(dateOfBirth)); else ps.setNull(4, Types.DATE);
+    }
+}
@@ -0,0 +1,62 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.Forecast;
+import com.premierleague.analytics.dto.HeadToHead;
+import com.premierleague.analytics.dto.MatchResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A match outcome model. Implementations are Spring beans, selected by name
+ * through {@link PredictionModels}.
+ */
+public interface PredictionModel {
+
+    /**
+     * Everything a model may use about a fixture, resolved by the caller.
+     * Ratings are current Elo ratings; the head-to-head record is from the home club's point of view.
+     */
+    record Context(
+        Long homeClubId,
+        Long awayClubId,
+        int homeFormPoints,
+        int awayFormPoints,
+        int homePosition,
+        int awayPosition,
+        int homeTablePoints,
+        int awayTablePoints,
+        double homeRating,
+        double awayRating,
+        HeadToHead headToHead
+    ) {
+    }
+
+    /** Name used in configuration (prediction.model). */
+    String name();
+
+    /**
+     * Forecast a fixture, or empty if the model cannot rate one of the clubs.
+     * Must be safe to call concurrently and must not touch repositories once the model is loaded.
+     */
+    Optional<Forecast> forecast(Context context);
+
+    /** Matches finished or had their score corrected; the results are committed. */
+    default void resultsRecorded(List<MatchResult> results) {
+    }
+
+    /**
+     * An independent instance with the same configuration and no results, for backtesting:
+     * fed results in kickoff order through {@link #resultsRecorded}, it only knows what
+     * came before each fixture. Models without state return themselves.
+     */
+    default PredictionModel replica() {
+        return this;
+    }
+
+    /** Fit parameters and timings for the status endpoint. */
+    default Map<String, Object> status() {
+        return Map.of("model", name());
+    }
+}
@@ -0,0 +1,86 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.Forecast;
+import com.premierleague.analytics.dto.MatchResult;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Picks the prediction model named by prediction.model and falls back to the
+ * heuristic model for fixtures the active model cannot rate (e.g. too little
+ * history, or a newly promoted club).
+ */
+@Service
+public class PredictionModels {
+    private static final Logger logger = LoggerFactory.getLogger(PredictionModels.class);
+
+    @Autowired
+    private List<PredictionModel> models;
+
+    @Autowired
+    private HeuristicPredictionModel fallback;
+
+    @Value("${prediction.model:" + DixonColesModel.NAME + "}")
+    private String configured;
+
+    private PredictionModel active;
+
+    @PostConstruct
+    void selectModel() {
+        active = models.stream()
+            .filter(model -> model.name().equals(configured))
+            .findFirst()
+            .orElseGet(() -> {
+                logger.warn("Unknown prediction model '{}', using {}", configured, fallback.name());
+                return fallback;
+            });
+        logger.info("Prediction model: {}", active.name());
+    }
+
+    public String activeName() {
+        return active.name();
+    }
+
+    /**
+     * A model by its configured name, e.g. to backtest a model other than the active one.
+     */
+    public Optional<PredictionModel> find(String name) {
+        return models.stream().filter(model -> model.name().equals(name)).findFirst();
+    }
+
+    public HeuristicPredictionModel fallback() {
+        return fallback;
+    }
+
+    public Forecast forecast(PredictionModel.Context context) {
+        return active.forecast(context)
+            .or(() -> fallback.forecast(context))
+            .orElseThrow();
+    }
+
+    /**
+     * Pass committed results to every model so they can refit.
+     */
+    public void resultsRecorded(List<MatchResult> results) {
+        for (PredictionModel model : models) {
+            model.resultsRecorded(results);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("active", active.name());
+        result.put("fallback", fallback.name());
+        result.put("details", active.status());
+        return result;
+    }
+}
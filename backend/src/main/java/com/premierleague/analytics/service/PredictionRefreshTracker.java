@@ -0,0 +1,164 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.MatchResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks which predictions are stale and refreshes only those.
+ *
+ * A finished match or a standings change marks the clubs involved; their upcoming
+ * fixtures are the predictions whose inputs (form, position, points, ratings,
+ * head-to-head) moved. Finished matches and fixture changes also ask for the next
+ * fixtures still lacking a prediction. Events are coalesced: a refresh runs once
+ * no event has arrived for the debounce window, or max-delay after the first one,
+ * so a matchday of results costs one refresh rather than one per result. A failed
+ * refresh puts its clubs back and is retried after max-delay.
+ */
+@Service
+public class PredictionRefreshTracker {
+    private static final Logger logger = LoggerFactory.getLogger(PredictionRefreshTracker.class);
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private PredictionService predictionService;
+
+    @Value("${prediction.refresh.debounce-ms:5000}")
+    private long debounceMillis;
+
+    @Value("${prediction.refresh.max-delay-ms:60000}")
+    private long maxDelayMillis;
+
+    private final ScheduledExecutorService timer =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("prediction-refresh").factory());
+
+    // Guarded by this
+    private final Set<Long> staleClubs = new HashSet<>();
+    private boolean fillMissing = false;
+    private int coalescedEvents = 0;
+    private long firstEventAt;
+    private ScheduledFuture<?> pending;
+
+    @EventListener
+    public void onMatchesFinished(SyncEvents.MatchesFinished event) {
+        Set<Long> clubs = new HashSet<>();
+        for (MatchResult result : event.results()) {
+            clubs.add(result.homeClubId());
+            clubs.add(result.awayClubId());
+        }
+        mark(clubs, true);
+    }
+
+    @EventListener
+    public void onStandingsChanged(SyncEvents.StandingsChanged event) {
+        mark(event.clubIds(), false);
+    }
+
+    @EventListener
+    public void onFixturesChanged(SyncEvents.FixturesChanged event) {
+        mark(Set.of(), true);
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pending", pending != null);
+        result.put("staleClubs", staleClubs.size());
+        result.put("fillMissing", fillMissing);
+        result.put("coalescedEvents", coalescedEvents);
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private synchronized void mark(Collection<Long> clubs, boolean fill) {
+        staleClubs.addAll(clubs);
+        fillMissing |= fill;
+        coalescedEvents++;
+
+        long now = System.currentTimeMillis();
+        if (pending == null) {
+            firstEventAt = now;
+        } else {
+            pending.cancel(false);
+        }
+        // Trailing debounce, capped so a steady stream of events cannot postpone the refresh forever
+        long delay = Math.min(debounceMillis, Math.max(0, firstEventAt + maxDelayMillis - now));
+        pending = timer.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        synchronized (this) {
+            pending = null;
+            if (staleClubs.isEmpty() && !fillMissing) {
+                return;
+            }
+        }
+        // Regeneration and batch prediction are PREDICTIONS jobs too, so at most one of them
+        // copies or switches generations at a time
+        AtomicReference<Drained> taken = new AtomicReference<>();
+        JobService.Submission submission = jobService.submit(Job.Type.PREDICTIONS, "events", progress -> {
+            Drained drained = drain();
+            taken.set(drained);
+            logger.info("Refreshing predictions for {} club(s) after {} event(s)", drained.clubs().size(), drained.events());
+            return predictionService.refreshPredictions(drained.clubs(), drained.fillMissing());
+        });
+        if (submission.deduplicated()) {
+            // Another prediction job holds the slot and will not pick these changes up; retry after it
+            submission.job().completion().whenComplete((job, error) -> retry(debounceMillis));
+        } else {
+            submission.job().completion().whenComplete((job, error) -> {
+                Drained drained = taken.get();
+                if ((error != null || job.getStatus() == Job.Status.FAILED) && drained != null) {
+                    // Nothing was refreshed; keep the marks and try again later rather than drop them
+                    restore(drained);
+                    retry(maxDelayMillis);
+                }
+            });
+        }
+    }
+
+    private record Drained(Set<Long> clubs, boolean fillMissing, int events) {
+    }
+
+    private synchronized Drained drain() {
+        Drained drained = new Drained(Set.copyOf(staleClubs), fillMissing, coalescedEvents);
+        staleClubs.clear();
+        fillMissing = false;
+        coalescedEvents = 0;
+        return drained;
+    }
+
+    private synchronized void restore(Drained drained) {
+        staleClubs.addAll(drained.clubs());
+        fillMissing |= drained.fillMissing();
+        coalescedEvents += drained.events();
+    }
+
+    private synchronized void retry(long delayMillis) {
+        if (pending == null && (!staleClubs.isEmpty() || fillMissing)) {
+            firstEventAt = System.currentTimeMillis();
+            pending = timer.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
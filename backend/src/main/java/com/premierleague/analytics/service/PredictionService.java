@@ -1,5 +1,7 @@
 package com.premierleague.analytics.service;
 
+import com.premierleague.analytics.dto.Forecast;
+import com.premierleague.analytics.dto.HeadToHead;
 import com.premierleague.analytics.entity.Club;
 import com.premierleague.analytics.entity.Match;
 import com.premierleague.analytics.entity.Prediction;
@@ -8,10 +10,13 @@ import com.premierleague.analytics.repository.PredictionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,73 +29,180 @@ public class PredictionService {
     @Autowired
     private PredictionRepository predictionRepository;
 
+    @Autowired
+    private ClubFormIndex clubFormIndex;
+
+    @Autowired
+    private HeadToHeadIndex headToHeadIndex;
+
+    @Autowired
+    private EloRatings eloRatings;
+
+    @Autowired
+    private PredictionModels predictionModels;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private PredictionVersions predictionVersions;
+
     /**
-     * Generate predictions for next 10 upcoming matches every hour
+     * Queue a regeneration on the job executor, or return the prediction job already in flight.
+     * The new generation is written in full before readers are switched to it.
      */
-    @Scheduled(cron = "0 30 * * * ?") // Run at 30 minutes past every hour
-    public void generatePredictionsForUpcomingMatches() {
-        logger.info("Generating predictions for next 10 upcoming matches");
-        
+    public JobService.Submission submitRegeneration(String trigger) {
+        return jobService.submit(Job.Type.PREDICTIONS, trigger, 2, progress -> {
+            progress.stage("generate");
+            long generationId = predictionVersions.begin(trigger);
+            int created = generatePredictions(generationId);
+            progress.stage("publish");
+            predictionVersions.publish(generationId);
+            return Map.of("created", created, "generation", generationId);
+        });
+    }
+
+    /**
+     * Re-predict the upcoming fixtures of the given clubs and, if asked, the next 10
+     * fixtures still lacking a prediction. The result is a new generation that carries
+     * every other current prediction forward unchanged, so the work scales with the
+     * number of affected fixtures. Called by {@link PredictionRefreshTracker}.
+     */
+    public Map<String, Object> refreshPredictions(Set<Long> clubIds, boolean fillMissing) {
+        long current = predictionVersions.currentOrCreate("events");
+
+        Map<Long, Match> toPredict = new LinkedHashMap<>();
+        for (Prediction prediction : predictionRepository.findByMatchStatus(Match.MatchStatus.SCHEDULED)) {
+            Match match = prediction.getMatch();
+            if (clubIds.contains(match.getHomeClub().getId()) || clubIds.contains(match.getAwayClub().getId())) {
+                toPredict.put(match.getId(), match);
+            }
+        }
+        int stale = toPredict.size();
+        if (fillMissing) {
+            Set<Long> predicted = predictionRepository.findPredictedMatchIds(current);
+            for (Match match : nextUpcomingMatches()) {
+                if (!predicted.contains(match.getId())) {
+                    toPredict.putIfAbsent(match.getId(), match);
+                }
+            }
+        }
+        if (toPredict.isEmpty()) {
+            return Map.of("refreshed", 0, "created", 0);
+        }
+
+        long generationId = predictionVersions.begin("events");
+        int carried = predictionVersions.copyForward(current, generationId, toPredict.keySet());
+        int written = predict(toPredict.values(), generationId);
+        predictionVersions.publish(generationId);
+        logger.info("Prediction refresh: {} stale, {} new, {} carried forward into generation {}",
+            stale, toPredict.size() - stale, carried, generationId);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("refreshed", stale);
+        result.put("created", toPredict.size() - stale);
+        result.put("written", written);
+        result.put("carriedForward", carried);
+        result.put("generation", generationId);
+        return result;
+    }
+
+    private int generatePredictions(long generationId) {
+        logger.info("Generating predictions for next 10 upcoming matches (generation {})", generationId);
+        List<Match> upcomingMatches = nextUpcomingMatches();
+        logger.info("Found {} upcoming matches to predict", upcomingMatches.size());
+
+        // Skip matches the generation already covers
+        Set<Long> predicted = predictionRepository.findPredictedMatchIds(generationId);
+        int predictionsCreated = predict(upcomingMatches.stream()
+            .filter(match -> !predicted.contains(match.getId()))
+            .toList(), generationId);
+        logger.info("Prediction generation completed: {} new predictions created", predictionsCreated);
+        return predictionsCreated;
+    }
+
+    private List<Match> nextUpcomingMatches() {
         // Get all scheduled matches and sort by date
-        List<Match> upcomingMatches = matchRepository.findByStatus(Match.MatchStatus.SCHEDULED)
+        return matchRepository.findByStatus(Match.MatchStatus.SCHEDULED)
             .stream()
             .sorted((m1, m2) -> m1.getMatchDate().compareTo(m2.getMatchDate()))
             .limit(10) // Only take first 10 matches
             .collect(java.util.stream.Collectors.toList());
-        
-        logger.info("Found {} upcoming matches to predict", upcomingMatches.size());
-        
+    }
+
+    /**
+     * @return number of predictions written
+     */
+    private int predict(Collection<Match> matches, long generationId) {
         int predictionsCreated = 0;
-        for (Match match : upcomingMatches) {
+        for (Match match : matches) {
             try {
-                // Check if prediction already exists
-                if (predictionRepository.findByMatchId(match.getId()).isEmpty()) {
-                    Prediction prediction = generatePrediction(match);
-                    predictionRepository.save(prediction);
-                    predictionsCreated++;
-                    logger.info("Generated prediction for match: {} vs {}", 
-                        match.getHomeClub().getName(), match.getAwayClub().getName());
-                }
+                Prediction prediction = generatePrediction(match);
+                prediction.setGenerationId(generationId);
+                predictionRepository.save(prediction);
+                predictionsCreated++;
+                logger.info("Generated prediction for match: {} vs {}",
+                    match.getHomeClub().getName(), match.getAwayClub().getName());
             } catch (Exception e) {
                 logger.error("Error generating prediction for match {}: {}", match.getId(), e.getMessage());
             }
         }
-        
-        logger.info("Prediction generation completed: {} new predictions created", predictionsCreated);
+        if (predictionsCreated > 0) {
+            readCache.predictionsChanged();
+        }
+        return predictionsCreated;
     }
 
     /**
      * Generate a prediction for a specific match based on:
      * 1. Last 5 results for both teams
      * 2. Current standings
-     * 3. Home advantage
+     * 3. Head-to-head record
+     * 4. Home advantage
      */
     public Prediction generatePrediction(Match match) {
         Club homeClub = match.getHomeClub();
         Club awayClub = match.getAwayClub();
 
-        // Get last 5 matches for each team
-        List<Match> homeClubMatches = getLastNMatches(homeClub.getId(), 5);
-        List<Match> awayClubMatches = getLastNMatches(awayClub.getId(), 5);
+        // Form points over the last 5 matches (Win=3, Draw=1, Loss=0) from the form index
+        int homeFormPoints = clubFormIndex.getFormPoints(homeClub.getId());
+        int awayFormPoints = clubFormIndex.getFormPoints(awayClub.getId());
+
+        HeadToHead headToHead = headToHeadIndex.get(homeClub.getId(), awayClub.getId());
 
-        // Calculate form points (last 5 matches: Win=3, Draw=1, Loss=0)
-        int homeFormPoints = calculateFormPoints(homeClubMatches, homeClub.getId());
-        int awayFormPoints = calculateFormPoints(awayClubMatches, awayClub.getId());
+        Prediction prediction = buildPrediction(homeClub, awayClub, homeFormPoints, awayFormPoints,
+            eloRatings.current(homeClub.getId()), eloRatings.current(awayClub.getId()), headToHead);
+        prediction.setMatch(match);
+        return prediction;
+    }
 
+    /**
+     * Compute a prediction from already-resolved inputs. Touches no repositories,
+     * so it is safe to call concurrently against a shared snapshot of clubs, form and ratings.
+     * The head-to-head record is from the home club's point of view.
+     * The returned prediction has no match set.
+     */
+    Prediction buildPrediction(Club homeClub, Club awayClub, int homeFormPoints, int awayFormPoints,
+                               double homeRating, double awayRating, HeadToHead headToHead) {
         // Get current positions
         int homePosition = homeClub.getPosition() != null ? homeClub.getPosition() : 20;
         int awayPosition = awayClub.getPosition() != null ? awayClub.getPosition() : 20;
 
-        // Calculate probabilities
-        double[] probabilities = calculateWinProbabilities(
+        // Probabilities and scoreline from the configured model
+        Forecast forecast = predictionModels.forecast(new PredictionModel.Context(
+            homeClub.getId(), awayClub.getId(),
             homeFormPoints, awayFormPoints,
             homePosition, awayPosition,
             homeClub.getPoints() != null ? homeClub.getPoints() : 0,
-            awayClub.getPoints() != null ? awayClub.getPoints() : 0
-        );
-
-        // Predict scores
-        int[] predictedScores = predictScores(probabilities, homeFormPoints, awayFormPoints);
+            awayClub.getPoints() != null ? awayClub.getPoints() : 0,
+            homeRating, awayRating,
+            headToHead
+        ));
+        double[] probabilities = {forecast.homeWinProbability(), forecast.drawProbability(), forecast.awayWinProbability()};
+        int[] predictedScores = {forecast.homeScore(), forecast.awayScore()};
 
         // Determine outcome
         String outcome;
@@ -107,6 +219,9 @@ public class PredictionService {
             homeClub, awayClub,
             homeFormPoints, awayFormPoints,
             homePosition, awayPosition,
+            homeRating, awayRating,
+            headToHead,
+            forecast.model(),
             probabilities
         );
 
@@ -115,7 +230,6 @@ public class PredictionService {
 
         // Create prediction
         Prediction prediction = new Prediction();
-        prediction.setMatch(match);
         prediction.setPredictedHomeScore(predictedScores[0]);
         prediction.setPredictedAwayScore(predictedScores[1]);
         prediction.setPredictedOutcome(outcome);
@@ -124,6 +238,7 @@ public class PredictionService {
         prediction.setAwayWinProbability(probabilities[2]);
         prediction.setConfidence(confidence);
         prediction.setReasoning(reasoning);
+        prediction.setModelVersion(forecast.model());
         prediction.setHomeFormPoints(homeFormPoints);
         prediction.setAwayFormPoints(awayFormPoints);
         prediction.setHomePosition(homePosition);
@@ -132,128 +247,13 @@ public class PredictionService {
         return prediction;
     }
 
-    private List<Match> getLastNMatches(Long clubId, int n) {
-        List<Match> allMatches = matchRepository.findByHomeClubIdOrAwayClubId(clubId, clubId);
-        
-        return allMatches.stream()
-            .filter(m -> m.getStatus() == Match.MatchStatus.FINISHED)
-            .sorted((m1, m2) -> m2.getMatchDate().compareTo(m1.getMatchDate()))
-            .limit(n)
-            .collect(Collectors.toList());
-    }
-
-    private int calculateFormPoints(List<Match> matches, Long clubId) {
-        int points = 0;
-        
-        for (Match match : matches) {
-            if (match.getHomeScore() == null || match.getAwayScore() == null) {
-                continue;
-            }
-
-            boolean isHome = match.getHomeClub().getId().equals(clubId);
-            int clubScore = isHome ? match.getHomeScore() : match.getAwayScore();
-            int opponentScore = isHome ? match.getAwayScore() : match.getHomeScore();
-
-            if (clubScore > opponentScore) {
-                points += 3; // Win
-            } else if (clubScore == opponentScore) {
-                points += 1; // Draw
-            }
-            // Loss = 0 points
-        }
-        
-        return points;
-    }
-
-    private double[] calculateWinProbabilities(
-        int homeFormPoints, int awayFormPoints,
-        int homePosition, int awayPosition,
-        int homeTablePoints, int awayTablePoints
-    ) {
-        // Base probabilities with home advantage
-        double homeWinProb = 40.0; // Home advantage starts at 40%
-        double drawProb = 30.0;
-        double awayWinProb = 30.0;
-
-        // Form influence (max 20% swing) - Reduced from 30%
-        int formDiff = homeFormPoints - awayFormPoints;
-        double formInfluence = (formDiff / 15.0) * 10.0; // Max form diff is 15 (5*3 - 0)
-        homeWinProb += formInfluence;
-        awayWinProb -= formInfluence;
-
-        // Position influence (max 30% swing) - INCREASED from 20% for more weight
-        int positionDiff = awayPosition - homePosition; // Better position = lower number
-        double positionInfluence = (positionDiff / 20.0) * 15.0; // Increased multiplier
-        homeWinProb += positionInfluence;
-        awayWinProb -= positionInfluence;
-
-        // Points influence (max 20% swing) - INCREASED from 15%
-        int pointsDiff = homeTablePoints - awayTablePoints;
-        double pointsInfluence = (pointsDiff / 40.0) * 10.0; // Increased multiplier
-        homeWinProb += pointsInfluence;
-        awayWinProb -= pointsInfluence;
-
-        // Extra boost for teams in top 4 vs teams in bottom 4
-        if (homePosition <= 4 && awayPosition >= 17) {
-            homeWinProb += 10.0; // Top team vs relegation candidate
-            awayWinProb -= 5.0;
-        } else if (awayPosition <= 4 && homePosition >= 17) {
-            awayWinProb += 10.0;
-            homeWinProb -= 5.0;
-        }
-
-        // Normalize to ensure they sum to 100%
-        double total = homeWinProb + drawProb + awayWinProb;
-        homeWinProb = (homeWinProb / total) * 100.0;
-        drawProb = (drawProb / total) * 100.0;
-        awayWinProb = (awayWinProb / total) * 100.0;
-
-        // Ensure no extreme probabilities
-        homeWinProb = Math.max(5.0, Math.min(85.0, homeWinProb));
-        awayWinProb = Math.max(5.0, Math.min(85.0, awayWinProb));
-        drawProb = Math.max(5.0, 100.0 - homeWinProb - awayWinProb);
-
-        return new double[]{homeWinProb, drawProb, awayWinProb};
-    }
-
-    private int[] predictScores(double[] probabilities, int homeFormPoints, int awayFormPoints) {
-        int homeScore, awayScore;
-
-        // Determine outcome based on probabilities
-        if (probabilities[0] > probabilities[2]) {
-            // Home win predicted
-            if (probabilities[0] > 60) {
-                homeScore = 2 + (homeFormPoints > 10 ? 1 : 0);
-                awayScore = homeFormPoints > 12 ? 0 : 1;
-            } else {
-                homeScore = 2;
-                awayScore = 1;
-            }
-        } else if (probabilities[2] > probabilities[0]) {
-            // Away win predicted
-            if (probabilities[2] > 60) {
-                awayScore = 2 + (awayFormPoints > 10 ? 1 : 0);
-                homeScore = awayFormPoints > 12 ? 0 : 1;
-            } else {
-                awayScore = 2;
-                homeScore = 1;
-            }
-        } else {
-            // Draw predicted
-            if (homeFormPoints < 5 && awayFormPoints < 5) {
-                homeScore = awayScore = 0; // Low-scoring draw
-            } else {
-                homeScore = awayScore = 1; // Standard draw
-            }
-        }
-
-        return new int[]{homeScore, awayScore};
-    }
-
     private String generateReasoning(
         Club homeClub, Club awayClub,
         int homeFormPoints, int awayFormPoints,
         int homePosition, int awayPosition,
+        double homeRating, double awayRating,
+        HeadToHead headToHead,
+        String model,
         double[] probabilities
     ) {
         StringBuilder reasoning = new StringBuilder();
@@ -288,14 +288,36 @@ public class PredictionService {
             }
         }
 
+        // Rating
+        reasoning.append("Elo rating: ").append(Math.round(homeRating))
+                 .append(" vs ").append(Math.round(awayRating)).append(". ");
+
+        // Head-to-head
+        if (headToHead.played() > 0) {
+            reasoning.append("Head-to-head: ")
+                     .append(headToHead.wins()).append("W ")
+                     .append(headToHead.draws()).append("D ")
+                     .append(headToHead.losses()).append("L for the home side in ")
+                     .append(headToHead.played()).append(" meetings. ");
+        }
+
         // Home advantage
-        reasoning.append("Home advantage provides approximately 10-15% boost to win probability.");
+        reasoning.append("Home advantage provides approximately 10-15% boost to win probability. ");
+
+        reasoning.append("Model: ").append(model).append(".");
 
         return reasoning.toString();
     }
 
     public List<Prediction> getAllPredictions() {
-        return predictionRepository.findAll();
+        return predictionRepository.findCurrent();
+    }
+
+    /**
+     * Every stored version of a match's prediction, newest generation first.
+     */
+    public List<Prediction> getPredictionHistory(Long matchId) {
+        return predictionRepository.findHistoryByMatchId(matchId);
     }
 
     public List<Prediction> getPredictionsForCurrentWeek(Integer matchWeek) {
@@ -313,16 +335,17 @@ public class PredictionService {
             .collect(Collectors.toList());
     }
     
-    public void clearAllPredictions() {
-        logger.info("Clearing all predictions");
-        predictionRepository.deleteAll();
-        logger.info("All predictions cleared");
-    }
-    
-    public void regeneratePredictions() {
-        logger.info("Regenerating predictions - clearing old ones first");
-        clearAllPredictions();
-        generatePredictionsForUpcomingMatches();
+    /**
+     * Queue deleting every prediction and generation, or return the prediction job already in flight.
+     * A PREDICTIONS job like regeneration, so it cannot interleave with a generation being written.
+     */
+    public JobService.Submission submitClear(String trigger) {
+        return jobService.submit(Job.Type.PREDICTIONS, trigger, progress -> {
+            logger.info("Clearing all predictions");
+            predictionVersions.clear();
+            logger.info("All predictions cleared");
+            return null;
+        });
     }
 }
 
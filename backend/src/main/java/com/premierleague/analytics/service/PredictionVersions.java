@@ -0,0 +1,193 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.entity.PredictionGeneration;
+import com.premierleague.analytics.repository.PredictionGenerationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Prediction generations and the "current" pointer readers follow.
+ *
+ * A regeneration writes its rows under a new generation, then {@link #publish}
+ * switches the pointer with a single UPDATE, so readers see either the old set
+ * or the new one and never an empty table. An event-driven refresh does the same,
+ * carrying unchanged rows forward with one INSERT ... SELECT, and so does batch
+ * prediction. Every writer runs as a PREDICTIONS job, so the copy a writer starts
+ * from cannot be replaced underneath it. Generations beyond the
+ * newest keep-generations are pruned with two bulk DELETEs.
+ */
+@Service
+public class PredictionVersions {
+    private static final Logger logger = LoggerFactory.getLogger(PredictionVersions.class);
+
+    // One statement: the new generation becomes current and every other one stops being current
+    private static final String SWITCH_SQL =
+        "UPDATE prediction_generations SET is_current = (id = ?) WHERE is_current OR id = ?";
+
+    // Copies keep their created_at and model, so a carried-forward row is still the same version
+    private static final String COPY_SQL =
+        "INSERT INTO predictions (match_id, predicted_home_score, predicted_away_score, predicted_outcome, " +
+        "home_win_probability, draw_probability, away_win_probability, confidence, reasoning, " +
+        "home_form_points, away_form_points, home_position, away_position, created_at, generation_id, model_version) " +
+        "SELECT match_id, predicted_home_score, predicted_away_score, predicted_outcome, " +
+        "home_win_probability, draw_probability, away_win_probability, confidence, reasoning, " +
+        "home_form_points, away_form_points, home_position, away_position, created_at, ?, model_version " +
+        "FROM predictions WHERE generation_id = ?";
+
+    // Id of the newest generation outside the retention window
+    private static final String PRUNE_CUTOFF_SQL =
+        "SELECT id FROM prediction_generations ORDER BY id DESC OFFSET ? LIMIT 1";
+
+    private static final String PRUNE_PREDICTIONS_SQL =
+        "DELETE FROM predictions WHERE generation_id IN " +
+        "(SELECT id FROM prediction_generations WHERE id <= ? AND NOT is_current)";
+
+    private static final String PRUNE_GENERATIONS_SQL =
+        "DELETE FROM prediction_generations WHERE id <= ? AND NOT is_current";
+
+    private static final String LIST_SQL =
+        "SELECT g.id, g.model, g.source, g.generated_at, g.is_current, COUNT(p.id) AS predictions " +
+        "FROM prediction_generations g LEFT JOIN predictions p ON p.generation_id = g.id " +
+        "GROUP BY g.id ORDER BY g.id DESC";
+
+    @Autowired
+    private PredictionGenerationRepository generationRepository;
+
+    @Autowired
+    private PredictionModels predictionModels;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Value("${prediction.history.keep-generations:10}")
+    private int keepGenerations;
+
+    // A lock rather than synchronized: the critical section runs JDBC, which would pin a virtual thread
+    private final ReentrantLock createLock = new ReentrantLock();
+
+    /**
+     * Generation readers currently see, creating an empty current one if there is none yet.
+     */
+    public long currentOrCreate(String source) {
+        createLock.lock();
+        try {
+            return generationRepository.findFirstByCurrentTrueOrderByIdDesc()
+                .map(PredictionGeneration::getId)
+                .orElseGet(() -> create(source, true));
+        } finally {
+            createLock.unlock();
+        }
+    }
+
+    /**
+     * Start a generation that readers do not see until it is published.
+     */
+    public long begin(String source) {
+        return create(source, false);
+    }
+
+    /**
+     * Copy one generation's predictions into another, except those for the given matches.
+     *
+     * @return rows copied
+     */
+    public int copyForward(long fromGenerationId, long toGenerationId, Collection<Long> exceptMatchIds) {
+        List<Object> args = new ArrayList<>();
+        args.add(toGenerationId);
+        args.add(fromGenerationId);
+        String sql = COPY_SQL;
+        if (!exceptMatchIds.isEmpty()) {
+            sql += " AND match_id NOT IN (" + String.join(", ", Collections.nCopies(exceptMatchIds.size(), "?")) + ")";
+            args.addAll(exceptMatchIds);
+        }
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    /**
+     * Switch readers to the generation in one statement, then prune old generations.
+     */
+    public void publish(long generationId) {
+        jdbcTemplate.update(SWITCH_SQL, generationId, generationId);
+        readCache.predictionsChanged();
+        logger.info("Prediction generation {} is now current", generationId);
+        prune();
+    }
+
+    /**
+     * Delete every generation outside the newest keep-generations, except the current one.
+     *
+     * @return predictions deleted
+     */
+    public int prune() {
+        List<Long> cutoff = jdbcTemplate.queryForList(PRUNE_CUTOFF_SQL, Long.class, keepGenerations);
+        if (cutoff.isEmpty()) {
+            return 0;
+        }
+        long upTo = cutoff.get(0);
+        int[] deleted = transactionTemplate.execute(status -> new int[]{
+            jdbcTemplate.update(PRUNE_PREDICTIONS_SQL, upTo),
+            jdbcTemplate.update(PRUNE_GENERATIONS_SQL, upTo)
+        });
+        if (deleted[1] > 0) {
+            logger.info("Pruned {} prediction generations ({} predictions)", deleted[1], deleted[0]);
+        }
+        return deleted[0];
+    }
+
+    /**
+     * Delete every prediction and generation in two statements.
+     */
+    public void clear() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM predictions");
+            jdbcTemplate.update("DELETE FROM prediction_generations");
+        });
+        readCache.predictionsChanged();
+    }
+
+    /**
+     * Every stored generation, newest first, with its prediction count.
+     */
+    public List<Map<String, Object>> list() {
+        return jdbcTemplate.query(LIST_SQL, (rs, row) -> {
+            Map<String, Object> generation = new LinkedHashMap<>();
+            generation.put("id", rs.getLong("id"));
+            generation.put("model", rs.getString("model"));
+            generation.put("source", rs.getString("source"));
+            generation.put("generatedAt", rs.getTimestamp("generated_at") != null
+                ? rs.getTimestamp("generated_at").toLocalDateTime() : null);
+            generation.put("current", rs.getBoolean("is_current"));
+            generation.put("predictions", rs.getLong("predictions"));
+            return generation;
+        });
+    }
+
+    private long create(String source, boolean current) {
+        PredictionGeneration generation = new PredictionGeneration();
+        generation.setModel(predictionModels.activeName());
+        generation.setSource(source);
+        generation.setGeneratedAt(LocalDateTime.now());
+        generation.setCurrent(current);
+        return generationRepository.save(generation).getId();
+    }
+}
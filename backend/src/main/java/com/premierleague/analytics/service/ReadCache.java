@@ -0,0 +1,164 @@
+package com.premierleague.analytics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.premierleague.analytics.config.CacheConfig;
+import com.premierleague.analytics.entity.Club;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.ClubRepository;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache for the hot read endpoints (standings, fixtures, upcoming predictions).
+ *
+ * Entries are {@link JsonSnapshot}s, serialized and gzipped once per change. The data
+ * behind them only changes when the sync or prediction jobs run, so writers call the
+ * matching *Changed method instead of relying on the TTL. Loads are synchronized per key,
+ * so the burst of requests that follows an eviction runs one query rather than one each.
+ * Inside a transaction the eviction is deferred until commit, so a concurrent
+ * reader cannot re-populate the cache with the old rows.
+ */
+@Service
+public class ReadCache {
+    private static final Logger logger = LoggerFactory.getLogger(ReadCache.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    // PredictionService itself invalidates this cache
+    @Autowired
+    @Lazy
+    private PredictionService predictionService;
+
+    private final Map<String, AtomicLong> invalidations = new ConcurrentHashMap<>();
+
+    /**
+     * League table summary, ordered by position.
+     */
+    @Cacheable(value = CacheConfig.STANDINGS, sync = true)
+    public JsonSnapshot getStandings() {
+        List<Map<String, Object>> standings = clubRepository.findAllByOrderByPositionAsc().stream()
+            .map(ReadCache::toStanding)
+            .toList();
+        return JsonSnapshot.of(objectMapper, standings);
+    }
+
+    @Cacheable(value = CacheConfig.FIXTURES, key = "#status", sync = true)
+    public JsonSnapshot getMatchesByStatus(Match.MatchStatus status) {
+        return JsonSnapshot.of(objectMapper, matchRepository.findByStatus(status));
+    }
+
+    @Cacheable(value = CacheConfig.PREDICTIONS, sync = true)
+    public JsonSnapshot getUpcomingPredictions() {
+        return JsonSnapshot.of(objectMapper, predictionService.getUpcomingPredictions());
+    }
+
+    /** League table columns on clubs changed. */
+    public void standingsChanged() {
+        evict(CacheConfig.STANDINGS);
+    }
+
+    /** Match rows changed; upcoming predictions are filtered by match status, so they go too. */
+    public void fixturesChanged() {
+        evict(CacheConfig.FIXTURES, CacheConfig.PREDICTIONS);
+    }
+
+    /** Prediction rows changed. */
+    public void predictionsChanged() {
+        evict(CacheConfig.PREDICTIONS);
+    }
+
+    /**
+     * Per-cache size, hit/miss counts and evictions (size/TTL) plus explicit invalidations.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+            CacheStats stats = nativeCache.stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", nativeCache.estimatedSize());
+            entry.put("hits", stats.hitCount());
+            entry.put("misses", stats.missCount());
+            entry.put("hitRate", stats.hitRate());
+            entry.put("evictions", stats.evictionCount());
+            entry.put("invalidations", invalidations.getOrDefault(name, new AtomicLong()).get());
+            result.put(name, entry);
+        }
+        return result;
+    }
+
+    private void evict(String... names) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear(names);
+                }
+            });
+        } else {
+            clear(names);
+        }
+    }
+
+    private void clear(String... names) {
+        for (String name : names) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+                invalidations.computeIfAbsent(name, n -> new AtomicLong()).incrementAndGet();
+            }
+        }
+        logger.debug("Invalidated caches {}", (Object) names);
+    }
+
+    private static Map<String, Object> toStanding(Club club) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", club.getId());
+        data.put("externalId", club.getExternalId()); // Include external API ID
+        data.put("position", club.getPosition());
+        data.put("name", club.getName());
+        data.put("shortName", club.getShortName());
+        data.put("tla", club.getTla());
+        data.put("crestUrl", club.getCrestUrl());
+        data.put("playedGames", club.getPlayedGames());
+        data.put("won", club.getWon());
+        data.put("draw", club.getDraw());
+        data.put("lost", club.getLost());
+        data.put("points", club.getPoints());
+        data.put("goalsFor", club.getGoalsFor());
+        data.put("goalsAgainst", club.getGoalsAgainst());
+        data.put("goalDifference", club.getGoalDifference());
+        return data;
+    }
+}
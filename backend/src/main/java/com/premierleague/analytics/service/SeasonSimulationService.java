@@ -0,0 +1,302 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.Fixture;
+import com.premierleague.analytics.dto.Forecast;
+import com.premierleague.analytics.dto.SeasonSimulationResult;
+import com.premierleague.analytics.entity.Club;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.ClubRepository;
+import com.premierleague.analytics.repository.MatchRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Monte Carlo simulation of the rest of the season.
+ *
+ * Fixture probabilities come from the configured prediction model and are
+ * resolved once up front into primitive arrays; the hot loop only touches int/double
+ * arrays and a per-chunk SplittableRandom. Iterations are split into chunks that run
+ * in parallel, and each finished chunk is merged and reported to the caller.
+ */
+@Service
+public class SeasonSimulationService {
+    private static final Logger logger = LoggerFactory.getLogger(SeasonSimulationService.class);
+
+    private static final int TOP_FOUR = 4;
+    private static final int RELEGATION_PLACES = 3;
+
+    // ForkJoinPool refuses more than 32767 workers; anything past a few hundred only adds contention
+    public static final int MAX_PARALLELISM = 256;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private ClubFormIndex clubFormIndex;
+
+    @Autowired
+    private HeadToHeadIndex headToHeadIndex;
+
+    @Autowired
+    private EloRatings eloRatings;
+
+    @Autowired
+    private PredictionModels predictionModels;
+
+    @Value("${simulation.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${simulation.parallelism:0}")
+    private int defaultParallelism;
+
+    @PostConstruct
+    void checkSettings() {
+        if (chunkSize <= 0) {
+            throw new IllegalStateException("simulation.chunk-size must be positive, was " + chunkSize);
+        }
+        if (defaultParallelism < 0 || defaultParallelism > MAX_PARALLELISM) {
+            throw new IllegalStateException("simulation.parallelism must be between 0 and " + MAX_PARALLELISM
+                + ", was " + defaultParallelism);
+        }
+    }
+
+    public SeasonSimulationResult simulate(int iterations, int parallelism) {
+        return simulateAsync(iterations, parallelism, null).join();
+    }
+
+    /**
+     * Start a simulation. The listener (if any) receives a merged partial result
+     * every time a chunk of iterations completes, on the worker thread that finished it.
+     *
+     * @param parallelism worker threads, 0 for the configured default
+     * @throws IllegalArgumentException if iterations is not positive or parallelism is out of range
+     */
+    public CompletableFuture<SeasonSimulationResult> simulateAsync(
+        int iterations, int parallelism, Consumer<SeasonSimulationResult> listener
+    ) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        if (parallelism < 0 || parallelism > MAX_PARALLELISM) {
+            throw new IllegalArgumentException("parallelism must be between 0 and " + MAX_PARALLELISM);
+        }
+        SeasonModel model = buildModel();
+        int workers = parallelism > 0 ? parallelism
+            : defaultParallelism > 0 ? defaultParallelism
+            : Runtime.getRuntime().availableProcessors();
+        Tally total = new Tally(model.clubCount());
+        long start = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        SplittableRandom root = new SplittableRandom();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int done = 0; done < iterations; done += chunkSize) {
+            int size = Math.min(chunkSize, iterations - done);
+            SplittableRandom random = root.split();
+            chunks.add(CompletableFuture
+                .supplyAsync(() -> model.run(size, random), pool)
+                .thenAccept(partial -> {
+                    SeasonSimulationResult snapshot;
+                    synchronized (total) {
+                        total.merge(partial);
+                        snapshot = toResult(model, total, iterations, workers, start);
+                    }
+                    if (listener != null) {
+                        listener.accept(snapshot);
+                    }
+                }));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+            .whenComplete((ignored, error) -> pool.shutdown())
+            .thenApply(ignored -> {
+                SeasonSimulationResult result;
+                synchronized (total) {
+                    result = toResult(model, total, iterations, workers, start);
+                }
+                logger.info("Simulated {} seasons over {} fixtures in {} ms ({} sims/sec, parallelism {})",
+                    result.iterationsCompleted(), result.remainingFixtures(), result.durationMs(),
+                    String.format("%.0f", result.simulationsPerSecond()), workers);
+                return result;
+            });
+    }
+
+    private SeasonModel buildModel() {
+        // Only the current season's clubs and fixtures; relegated clubs stay in the table with their old points
+        Optional<String> season = matchRepository.findLatestSeason();
+        List<Club> clubs = clubRepository.findAllByOrderByPositionAsc();
+        if (season.isPresent()) {
+            Set<Long> playing = matchRepository.findClubIdsBySeason(season.get());
+            clubs = clubs.stream().filter(club -> playing.contains(club.getId())).toList();
+        }
+        int n = clubs.size();
+        Map<Long, Integer> index = new HashMap<>();
+        Long[] ids = new Long[n];
+        String[] names = new String[n];
+        int[] basePoints = new int[n];
+        int[] positions = new int[n];
+        int[] formPoints = new int[n];
+        double[] ratings = new double[n];
+        for (int i = 0; i < n; i++) {
+            Club club = clubs.get(i);
+            index.put(club.getId(), i);
+            ids[i] = club.getId();
+            names[i] = club.getName();
+            basePoints[i] = club.getPoints() != null ? club.getPoints() : 0;
+            positions[i] = club.getPosition() != null ? club.getPosition() : 20;
+            formPoints[i] = clubFormIndex.getFormPoints(club.getId());
+            ratings[i] = eloRatings.current(club.getId());
+        }
+
+        List<Fixture> scheduled = season
+            .map(s -> matchRepository.findFixturesByStatusAndSeason(Match.MatchStatus.SCHEDULED, s))
+            .orElseGet(() -> matchRepository.findFixturesByStatus(Match.MatchStatus.SCHEDULED));
+        List<Fixture> fixtures = scheduled.stream()
+            .filter(f -> index.containsKey(f.homeClubId()) && index.containsKey(f.awayClubId()))
+            .toList();
+        int m = fixtures.size();
+        int[] home = new int[m];
+        int[] away = new int[m];
+        double[] homeWin = new double[m];
+        double[] homeOrDraw = new double[m];
+        for (int f = 0; f < m; f++) {
+            int h = index.get(fixtures.get(f).homeClubId());
+            int a = index.get(fixtures.get(f).awayClubId());
+            Forecast p = predictionModels.forecast(new PredictionModel.Context(ids[h], ids[a],
+                formPoints[h], formPoints[a], positions[h], positions[a], basePoints[h], basePoints[a],
+                ratings[h], ratings[a], headToHeadIndex.get(ids[h], ids[a])));
+            double sum = p.homeWinProbability() + p.drawProbability() + p.awayWinProbability();
+            home[f] = h;
+            away[f] = a;
+            homeWin[f] = p.homeWinProbability() / sum;
+            homeOrDraw[f] = (p.homeWinProbability() + p.drawProbability()) / sum;
+        }
+
+        // Clubs arrive in table order, so the array index doubles as the current-standing tie-breaker
+        return new SeasonModel(ids, names, basePoints, home, away, homeWin, homeOrDraw);
+    }
+
+    private SeasonSimulationResult toResult(SeasonModel model, Tally tally, int requested, int workers, long start) {
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        int done = tally.iterations;
+        List<SeasonSimulationResult.ClubOdds> odds = new ArrayList<>(model.clubCount());
+        for (int i = 0; i < model.clubCount(); i++) {
+            double runs = Math.max(1, done);
+            odds.add(new SeasonSimulationResult.ClubOdds(
+                model.ids[i], model.names[i], model.basePoints[i],
+                tally.pointsSum[i] / runs,
+                tally.titles[i] / runs,
+                tally.topFour[i] / runs,
+                tally.relegations[i] / runs
+            ));
+        }
+        odds.sort((a, b) -> Double.compare(b.expectedPoints(), a.expectedPoints()));
+        double perSecond = durationMs > 0 ? done * 1000.0 / durationMs : done;
+        return new SeasonSimulationResult(requested, done, model.home.length, workers, durationMs, perSecond, odds);
+    }
+
+    /**
+     * Immutable, primitive-array view of the remaining season. Safe to share across threads.
+     * Package-private for the JMH benchmark.
+     */
+    record SeasonModel(
+        Long[] ids, String[] names, int[] basePoints,
+        int[] home, int[] away, double[] homeWin, double[] homeOrDraw
+    ) {
+        int clubCount() {
+            return basePoints.length;
+        }
+
+        Tally run(int iterations, SplittableRandom random) {
+            int n = basePoints.length;
+            int fixtures = home.length;
+            int[] points = new int[n];
+            int[] order = new int[n];
+            Tally tally = new Tally(n);
+
+            for (int it = 0; it < iterations; it++) {
+                System.arraycopy(basePoints, 0, points, 0, n);
+                for (int f = 0; f < fixtures; f++) {
+                    double r = random.nextDouble();
+                    if (r < homeWin[f]) {
+                        points[home[f]] += 3;
+                    } else if (r < homeOrDraw[f]) {
+                        points[home[f]] += 1;
+                        points[away[f]] += 1;
+                    } else {
+                        points[away[f]] += 3;
+                    }
+                }
+
+                // Insertion sort by points desc; ties keep the current table order
+                for (int i = 0; i < n; i++) {
+                    int club = i;
+                    int j = i - 1;
+                    while (j >= 0 && points[order[j]] < points[club]) {
+                        order[j + 1] = order[j];
+                        j--;
+                    }
+                    order[j + 1] = club;
+                }
+
+                if (n > 0) {
+                    tally.titles[order[0]]++;
+                }
+                for (int r = 0; r < Math.min(TOP_FOUR, n); r++) {
+                    tally.topFour[order[r]]++;
+                }
+                for (int r = Math.max(0, n - RELEGATION_PLACES); r < n; r++) {
+                    tally.relegations[order[r]]++;
+                }
+                for (int i = 0; i < n; i++) {
+                    tally.pointsSum[i] += points[i];
+                }
+            }
+            tally.iterations = iterations;
+            return tally;
+        }
+    }
+
+    static final class Tally {
+        final long[] pointsSum;
+        final int[] titles;
+        final int[] topFour;
+        final int[] relegations;
+        int iterations;
+
+        Tally(int clubs) {
+            pointsSum = new long[clubs];
+            titles = new int[clubs];
+            topFour = new int[clubs];
+            relegations = new int[clubs];
+        }
+
+        void merge(Tally other) {
+            for (int i = 0; i < pointsSum.length; i++) {
+                pointsSum[i] += other.pointsSum[i];
+                titles[i] += other.titles[i];
+                topFour[i] += other.topFour[i];
+                relegations[i] += other.relegations[i];
+            }
+            iterations += other.iterations;
+        }
+    }
+}
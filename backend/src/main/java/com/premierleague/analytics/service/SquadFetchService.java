@@ -0,0 +1,77 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.entity.Club;
+import com.premierleague.analytics.repository.ClubRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fetches club squads concurrently on a bounded executor.
+ *
+ * Request pacing is left to the shared {@link ApiRateLimiter}, so squads are
+ * fetched as fast as the API quota allows rather than with fixed sleeps, and
+ * callers get a future instead of blocking a request thread.
+ */
+@Service
+public class SquadFetchService {
+    private static final Logger logger = LoggerFactory.getLogger(SquadFetchService.class);
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private FootballDataService footballDataService;
+
+    @Value("${football.data.squads.concurrency:4}")
+    private int concurrency;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        // Virtual threads: a fetch blocked on the rate limiter or the network holds no platform thread
+        executor = Executors.newFixedThreadPool(concurrency, Thread.ofVirtual().name("squad-fetch-", 1).factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public CompletableFuture<Boolean> fetchSquad(Club club) {
+        return CompletableFuture.supplyAsync(
+            () -> footballDataService.fetchAndUpdateTeamSquad(club.getExternalId(), club), executor);
+    }
+
+    /**
+     * Refresh every club with an external id.
+     *
+     * @return future completing with the number of squads fetched successfully
+     */
+    public CompletableFuture<Integer> fetchAllSquads() {
+        List<Club> clubs = clubRepository.findAll().stream()
+            .filter(club -> club.getExternalId() != null)
+            .toList();
+        logger.info("Fetching squad data for {} Premier League teams (concurrency {})", clubs.size(), concurrency);
+        long start = System.currentTimeMillis();
+
+        List<CompletableFuture<Boolean>> fetches = clubs.stream().map(this::fetchSquad).toList();
+        return CompletableFuture.allOf(fetches.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                int fetched = (int) fetches.stream().filter(CompletableFuture::join).count();
+                logger.info("Fetched squad data for {}/{} teams in {} ms",
+                    fetched, clubs.size(), System.currentTimeMillis() - start);
+                return fetched;
+            });
+    }
+}
@@ -0,0 +1,360 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.entity.Club;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.ClubRepository;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local league table maintained from finished results.
+ *
+ * Seeded from the clubs table, with every match already FINISHED at that point
+ * treated as included, so the sync seeds it before writing matches. Each newly
+ * finished match is applied as a delta to its two clubs, the table is re-ranked
+ * (points, goal difference, goals for) and only the rows that changed are written
+ * back in a single JDBC batch and announced as a {@link SyncEvents.StandingsChanged}
+ * event. The delta is computed on a copy of the table, which replaces it only once
+ * the write has committed; a result whose write failed is retried on the next call.
+ *
+ * Only clubs with a match in the latest season are ranked; callers are expected
+ * to pass current-season matches only.
+ */
+@Service
+public class StandingsEngine {
+    private static final Logger logger = LoggerFactory.getLogger(StandingsEngine.class);
+
+    private static final String UPDATE_SQL =
+        "UPDATE clubs SET position = ?, played_games = ?, won = ?, draw = ?, lost = ?, points = ?, " +
+        "goals_for = ?, goals_against = ?, goal_difference = ?, updated_at = ? WHERE id = ?";
+
+    private static final Comparator<Row> TABLE_ORDER = Comparator
+        .comparingInt((Row r) -> r.points).reversed()
+        .thenComparing(Comparator.comparingInt((Row r) -> r.goalsFor - r.goalsAgainst).reversed())
+        .thenComparing(Comparator.comparingInt((Row r) -> r.goalsFor).reversed())
+        .thenComparing(r -> r.name);
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Row> rows = new HashMap<>();
+    // matchId -> score already counted in the table, packed as home << 16 | away
+    private final Map<Long, Integer> applied = new HashMap<>();
+    // Committed results whose table write failed; retried ahead of the next batch
+    private final Map<Long, MatchResult> pending = new LinkedHashMap<>();
+    private boolean loaded = false;
+    // Guards the fields above; a lock rather than synchronized, as seeding and applying query and write
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Seed the table if that has not happened yet. Call before writing matches, so the
+     * scores counted so far are known and a corrected score in the write can be reversed.
+     */
+    public void ensureLoaded() {
+        lock.lock();
+        try {
+            if (!loaded) {
+                seed(pending.keySet());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply committed results in order. A match already counted with the same score is
+     * a no-op; a corrected score reverses the old result first. A result whose write
+     * fails does not stop the others: it is kept and retried on the next call, which
+     * may pass no results at all.
+     *
+     * @return number of club rows written
+     */
+    public int applyResults(List<MatchResult> results) {
+        lock.lock();
+        try {
+            Map<Long, MatchResult> queue = new LinkedHashMap<>(pending);
+            for (MatchResult result : results) {
+                if (result.homeScore() != null && result.awayScore() != null) {
+                    queue.remove(result.matchId());
+                    queue.put(result.matchId(), result);
+                }
+            }
+            pending.clear();
+            if (queue.isEmpty()) {
+                return 0;
+            }
+            if (!loaded) {
+                // Not seeded before the write: these results are saved as FINISHED, but the clubs table does not count them
+                seed(queue.keySet());
+            }
+
+            int written = 0;
+            boolean reseeded = false;
+            List<MatchResult> ordered = new ArrayList<>(queue.values());
+            for (int i = 0; i < ordered.size(); i++) {
+                MatchResult result = ordered.get(i);
+                if (!reseeded && (!rows.containsKey(result.homeClubId()) || !rows.containsKey(result.awayClubId()))) {
+                    // A club new to the latest season, e.g. once a new season's fixtures are stored; the results
+                    // from here on and the failed ones are not counted by the clubs table yet
+                    Set<Long> uncounted = new HashSet<>(pending.keySet());
+                    ordered.subList(i, ordered.size()).forEach(r -> uncounted.add(r.matchId()));
+                    seed(uncounted);
+                    reseeded = true;
+                }
+                try {
+                    written += apply(result);
+                } catch (RuntimeException e) {
+                    pending.put(result.matchId(), result);
+                    logger.warn("Standings write for match {} failed, retrying with the next results", result.matchId(), e);
+                }
+            }
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply a single committed result; see {@link #applyResults}.
+     */
+    public int applyResult(MatchResult result) {
+        return applyResults(List.of(result));
+    }
+
+    /**
+     * Re-seed from the clubs table and the currently finished matches.
+     * Call after the clubs table has been written by something other than this engine.
+     * Results still waiting for a retry stay uncounted and are applied on the next call.
+     */
+    public void reload() {
+        lock.lock();
+        try {
+            seed(pending.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-seed after the clubs table was overwritten with the remote standings, which
+     * already count every result, including any still waiting for a retry.
+     */
+    public void reloadFromStandings() {
+        lock.lock();
+        try {
+            pending.clear();
+            seed(Set.of());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int apply(MatchResult result) {
+        if (!rows.containsKey(result.homeClubId()) || !rows.containsKey(result.awayClubId())) {
+            logger.debug("Standings engine has no row for match {}, skipping", result.matchId());
+            return 0;
+        }
+        int score = pack(result.homeScore(), result.awayScore());
+        Integer previous = applied.get(result.matchId());
+        if (previous != null && previous == score) {
+            return 0;
+        }
+
+        // Computed on a copy: a failed write leaves the table and the applied scores as they were
+        Map<Long, Row> table = new HashMap<>();
+        rows.forEach((id, row) -> table.put(id, row.copy()));
+        Row home = table.get(result.homeClubId());
+        Row away = table.get(result.awayClubId());
+        if (previous != null) {
+            apply(home, away, previous >> 16, previous & 0xFFFF, -1);
+        }
+        apply(home, away, result.homeScore(), result.awayScore(), 1);
+
+        List<Row> changed = rerank(table.values());
+        write(changed);
+        rows.putAll(table);
+        applied.put(result.matchId(), score);
+        logger.info("Standings updated from {} {}-{} {}: {} rows written",
+            home.name, result.homeScore(), result.awayScore(), away.name, changed.size());
+        return changed.size();
+    }
+
+    // Every finished match counts as applied, except those the clubs table is known not to count yet
+    private void seed(Set<Long> uncounted) {
+        rows.clear();
+        applied.clear();
+        // Clubs of the latest season only: relegated clubs keep last season's row but take no position
+        Set<Long> season = matchRepository.findLatestSeason()
+            .map(matchRepository::findClubIdsBySeason)
+            .orElse(Set.of());
+        for (Club club : clubRepository.findAll()) {
+            if (season.isEmpty() || season.contains(club.getId())) {
+                rows.put(club.getId(), Row.of(club));
+            }
+        }
+        for (MatchResult result : matchRepository.findResultsByStatus(Match.MatchStatus.FINISHED)) {
+            if (!uncounted.contains(result.matchId())) {
+                applied.put(result.matchId(), pack(result.homeScore(), result.awayScore()));
+            }
+        }
+        loaded = true;
+        logger.info("Standings engine seeded with {} clubs and {} finished matches", rows.size(), applied.size());
+    }
+
+    private void apply(Row home, Row away, int homeGoals, int awayGoals, int sign) {
+        home.played += sign;
+        away.played += sign;
+        home.goalsFor += sign * homeGoals;
+        home.goalsAgainst += sign * awayGoals;
+        away.goalsFor += sign * awayGoals;
+        away.goalsAgainst += sign * homeGoals;
+        if (homeGoals > awayGoals) {
+            home.won += sign;
+            away.lost += sign;
+            home.points += sign * 3;
+        } else if (homeGoals < awayGoals) {
+            away.won += sign;
+            home.lost += sign;
+            away.points += sign * 3;
+        } else {
+            home.draw += sign;
+            away.draw += sign;
+            home.points += sign;
+            away.points += sign;
+        }
+        home.dirty = true;
+        away.dirty = true;
+    }
+
+    private List<Row> rerank(Collection<Row> candidate) {
+        List<Row> table = new ArrayList<>(candidate);
+        table.sort(TABLE_ORDER);
+        List<Row> changed = new ArrayList<>();
+        for (int i = 0; i < table.size(); i++) {
+            Row row = table.get(i);
+            if (row.position != i + 1) {
+                row.position = i + 1;
+                row.dirty = true;
+            }
+            if (row.dirty) {
+                changed.add(row);
+                row.dirty = false;
+            }
+        }
+        return changed;
+    }
+
+    private void write(List<Row> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.batchUpdate(UPDATE_SQL, changed, changed.size(), (ps, row) -> {
+                ps.setInt(1, row.position);
+                ps.setInt(2, row.played);
+                ps.setInt(3, row.won);
+                ps.setInt(4, row.draw);
+                ps.setInt(5, row.lost);
+                ps.setInt(6, row.points);
+                ps.setInt(7, row.goalsFor);
+                ps.setInt(8, row.goalsAgainst);
+                ps.setInt(9, row.goalsFor - row.goalsAgainst);
+                ps.setTimestamp(10, now);
+                ps.setLong(11, row.id);
+            }));
+        readCache.standingsChanged();
+        Set<Long> clubIds = new HashSet<>();
+        for (Row row : changed) {
+            clubIds.add(row.id);
+        }
+        eventPublisher.publishEvent(new SyncEvents.StandingsChanged(clubIds));
+    }
+
+    private static int pack(int homeGoals, int awayGoals) {
+        return homeGoals << 16 | awayGoals;
+    }
+
+    private static final class Row {
+        long id;
+        String name;
+        int position;
+        int played;
+        int won;
+        int draw;
+        int lost;
+        int points;
+        int goalsFor;
+        int goalsAgainst;
+        boolean dirty;
+
+        Row copy() {
+            Row row = new Row();
+            row.id = id;
+            row.name = name;
+            row.position = position;
+            row.played = played;
+            row.won = won;
+            row.draw = draw;
+            row.lost = lost;
+            row.points = points;
+            row.goalsFor = goalsFor;
+            row.goalsAgainst = goalsAgainst;
+            return row;
+        }
+
+        static Row of(Club club) {
+            Row row = new Row();
+            row.id = club.getId();
+            row.name = club.getName();
+            row.position = valueOf(club.getPosition());
+            row.played = valueOf(club.getPlayedGames());
+            row.won = valueOf(club.getWon());
+            row.draw = valueOf(club.getDraw());
+            row.lost = valueOf(club.getLost());
+            row.points = valueOf(club.getPoints());
+            row.goalsFor = valueOf(club.getGoalsFor());
+            row.goalsAgainst = valueOf(club.getGoalsAgainst());
+            return row;
+        }
+
+        private static int valueOf(Integer value) {
+            return value != null ? value : 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.MatchResult;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Domain events the sync pipeline publishes on the application event bus
+ * once the writes behind them have committed.
+ */
+public final class SyncEvents {
+
+    private SyncEvents() {
+    }
+
+    /** Matches finished or had their score corrected. */
+    public record MatchesFinished(List<MatchResult> results) {
+    }
+
+    /** League table rows (position, points, goals) changed for these clubs. */
+    public record StandingsChanged(Set<Long> clubIds) {
+    }
+
+    /** Match rows were inserted or changed, e.g. new or rescheduled fixtures. */
+    public record FixturesChanged(int matches) {
+    }
+}
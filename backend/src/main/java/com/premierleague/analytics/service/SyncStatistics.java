@@ -0,0 +1,117 @@
+package com.premierleague.analytics.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how much of each sync was skipped versus written, for the last run and since startup.
+ */
+@Component
+public class SyncStatistics {
+
+    private final Counters lastRun = new Counters();
+    private final Counters total = new Counters();
+    private volatile LocalDateTime lastRunStartedAt;
+
+    public void startRun() {
+        lastRun.clear();
+        lastRunStartedAt = LocalDateTime.now();
+    }
+
+    public void payloadChanged(String resource) {
+        increment("payloadsChanged", resource);
+    }
+
+    public void payloadUnchanged(String resource) {
+        increment("payloadsUnchanged", resource);
+    }
+
+    public void rowWritten(String entity) {
+        increment("rowsWritten", entity);
+    }
+
+    public void rowsWritten(String entity, long count) {
+        add("rowsWritten", entity, count);
+    }
+
+    public void rowSkipped(String entity) {
+        increment("rowsSkipped", entity);
+    }
+
+    /** A sync stage committed; duration is the whole transaction. */
+    public void committed(String stage, long nanos) {
+        increment("commits", stage);
+        add("transactionMillis", stage, Duration.ofNanos(nanos).toMillis());
+    }
+
+    public void rolledBack(String stage) {
+        increment("rollbacks", stage);
+    }
+
+    /** One chunk written and flushed; chunkMillis is the sum, chunkMillisMax the slowest. */
+    public void chunkWritten(String entity, long nanos) {
+        long millis = Duration.ofNanos(nanos).toMillis();
+        increment("chunks", entity);
+        add("chunkMillis", entity, millis);
+        lastRun.max("chunkMillisMax", entity, millis);
+        total.max("chunkMillisMax", entity, millis);
+    }
+
+    public Map<String, Object> lastRun() {
+        return lastRun.toMap();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lastRunStartedAt", lastRunStartedAt);
+        result.put("lastRun", lastRun.toMap());
+        result.put("sinceStartup", total.toMap());
+        return result;
+    }
+
+    private void increment(String counter, String key) {
+        add(counter, key, 1);
+    }
+
+    private void add(String counter, String key, long delta) {
+        lastRun.add(counter, key, delta);
+        total.add(counter, key, delta);
+    }
+
+    private static final class Counters {
+        private final Map<String, Map<String, AtomicLong>> counters = new ConcurrentHashMap<>();
+
+        void add(String counter, String key, long delta) {
+            counters.computeIfAbsent(counter, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new AtomicLong())
+                .addAndGet(delta);
+        }
+
+        void max(String counter, String key, long value) {
+            counters.computeIfAbsent(counter, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new AtomicLong())
+                .accumulateAndGet(value, Math::max);
+        }
+
+        void clear() {
+            counters.clear();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> result = new TreeMap<>();
+            counters.forEach((counter, values) -> {
+                Map<String, Long> byKey = new TreeMap<>();
+                values.forEach((key, value) -> byKey.put(key, value.get()));
+                result.put(counter, byKey);
+            });
+            return result;
+        }
+    }
+}
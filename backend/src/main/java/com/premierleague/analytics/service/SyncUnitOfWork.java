@@ -0,0 +1,72 @@
+package com.premierleague.analytics.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Transaction and chunk boundaries for the sync.
+ *
+ * Each sync stage runs in one transaction, so readers see either the old or the
+ * new standings, fixtures or scorers and never a mix. Within a stage rows are
+ * written in chunks; after each chunk the persistence context is flushed and
+ * cleared so a long feed does not accumulate managed entities. Callers download
+ * a feed to a temporary file before starting its stage and stream it back from
+ * there, so no connection is held while waiting on the rate limiter or the
+ * network. Commits, rollbacks and chunk latency are recorded in {@link SyncStatistics}.
+ */
+@Component
+public class SyncUnitOfWork {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SyncStatistics syncStatistics;
+
+    /**
+     * Run one sync stage in a single transaction.
+     */
+    public <T> T stage(String stage, TransactionCallback<T> work) {
+        long start = System.nanoTime();
+        return transactionTemplate.execute(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int outcome) {
+                    if (outcome == STATUS_COMMITTED) {
+                        syncStatistics.committed(stage, System.nanoTime() - start);
+                    } else {
+                        syncStatistics.rolledBack(stage);
+                    }
+                }
+            });
+            return work.doInTransaction(status);
+        });
+    }
+
+    /**
+     * Wrap a batch sink so each batch is one chunk: written, flushed, detached and timed.
+     */
+    public <T> Consumer<List<T>> chunked(String entity, Consumer<List<T>> sink) {
+        return batch -> {
+            long start = System.nanoTime();
+            sink.accept(batch);
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+            syncStatistics.chunkWritten(entity, System.nanoTime() - start);
+        };
+    }
+}
@@ -0,0 +1,126 @@
+-- Baseline: the schema previously generated by Hibernate (ddl-auto: update).
+-- IF NOT EXISTS lets this run against databases that were created that way; the
+-- ALTER statements at the end add the columns and unique indexes such databases lack.
+
+CREATE TABLE IF NOT EXISTS clubs (
+    id              BIGSERIAL PRIMARY KEY,
+    name            VARCHAR(255) NOT NULL CONSTRAINT uk_clubs_name UNIQUE,
+    short_name      VARCHAR(255),
+    stadium         VARCHAR(255),
+    founded_year    INTEGER,
+    manager         VARCHAR(255),
+    logo_url        VARCHAR(255),
+    primary_color   VARCHAR(255),
+    secondary_color VARCHAR(255),
+    external_id     BIGINT,
+    tla             VARCHAR(255),
+    crest_url       VARCHAR(255),
+    position        INTEGER,
+    played_games    INTEGER,
+    won             INTEGER,
+    draw            INTEGER,
+    lost            INTEGER,
+    points          INTEGER,
+    goals_for       INTEGER,
+    goals_against   INTEGER,
+    goal_difference INTEGER,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS players (
+    id             BIGSERIAL PRIMARY KEY,
+    name           VARCHAR(255) NOT NULL,
+    external_id    BIGINT CONSTRAINT uk_players_external_id UNIQUE,
+    jersey_number  INTEGER,
+    position       VARCHAR(255),
+    nationality    VARCHAR(255),
+    date_of_birth  DATE,
+    height         DOUBLE PRECISION,
+    weight         DOUBLE PRECISION,
+    market_value   DOUBLE PRECISION,
+    photo_url      VARCHAR(255),
+    club_id        BIGINT REFERENCES clubs (id),
+    goals          INTEGER,
+    assists        INTEGER,
+    yellow_cards   INTEGER,
+    red_cards      INTEGER,
+    matches_played INTEGER,
+    minutes_played INTEGER,
+    clean_sheets   INTEGER,
+    saves          INTEGER,
+    content_hash   VARCHAR(64),
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS matches (
+    id                   BIGSERIAL PRIMARY KEY,
+    external_id          BIGINT CONSTRAINT uk_matches_external_id UNIQUE,
+    home_club_id         BIGINT       NOT NULL REFERENCES clubs (id),
+    away_club_id         BIGINT       NOT NULL REFERENCES clubs (id),
+    match_date           TIMESTAMP(6) NOT NULL,
+    home_score           INTEGER,
+    away_score           INTEGER,
+    venue                VARCHAR(255),
+    referee              VARCHAR(255),
+    attendance           INTEGER,
+    match_week           INTEGER,
+    season               VARCHAR(255),
+    status               VARCHAR(255),
+    home_possession      DOUBLE PRECISION,
+    away_possession      DOUBLE PRECISION,
+    home_shots           INTEGER,
+    away_shots           INTEGER,
+    home_shots_on_target INTEGER,
+    away_shots_on_target INTEGER,
+    home_corners         INTEGER,
+    away_corners         INTEGER,
+    home_fouls           INTEGER,
+    away_fouls           INTEGER,
+    content_hash         VARCHAR(64),
+    created_at           TIMESTAMP(6),
+    updated_at           TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS predictions (
+    id                   BIGSERIAL PRIMARY KEY,
+    match_id             BIGINT NOT NULL REFERENCES matches (id),
+    predicted_home_score INTEGER,
+    predicted_away_score INTEGER,
+    predicted_outcome    VARCHAR(255),
+    home_win_probability DOUBLE PRECISION,
+    draw_probability     DOUBLE PRECISION,
+    away_win_probability DOUBLE PRECISION,
+    confidence           DOUBLE PRECISION,
+    reasoning            VARCHAR(1000),
+    home_form_points     INTEGER,
+    away_form_points     INTEGER,
+    home_position        INTEGER,
+    away_position        INTEGER,
+    created_at           TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS club_form (
+    club_id    BIGINT PRIMARY KEY,
+    entries    VARCHAR(1000),
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS sync_state (
+    resource      VARCHAR(255) PRIMARY KEY,
+    etag          VARCHAR(255),
+    last_modified VARCHAR(255),
+    content_hash  VARCHAR(64),
+    updated_at    TIMESTAMP(6)
+);
+
+-- Tables that already existed keep their old definition above, so add what is missing
+ALTER TABLE players ADD COLUMN IF NOT EXISTS external_id BIGINT;
+ALTER TABLE players ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS external_id BIGINT;
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+-- No-ops on a fresh database, where the inline constraints created indexes of the same name
+CREATE UNIQUE INDEX IF NOT EXISTS uk_players_external_id ON players (external_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_matches_external_id ON matches (external_id);
@@ -0,0 +1,22 @@
+-- Indexes for the repository queries and sync lookups.
+
+-- Club pages, head-to-head and per-club fixture lists
+CREATE INDEX IF NOT EXISTS idx_matches_home_club ON matches (home_club_id, match_date);
+CREATE INDEX IF NOT EXISTS idx_matches_away_club ON matches (away_club_id, match_date);
+-- findByStatus / fixture and result projections, ordered by kickoff
+CREATE INDEX IF NOT EXISTS idx_matches_status_date ON matches (status, match_date, id);
+-- Season and matchweek listings
+CREATE INDEX IF NOT EXISTS idx_matches_season_week ON matches (season, match_week);
+-- Keyset pagination over all matches
+CREATE INDEX IF NOT EXISTS idx_matches_date_id ON matches (match_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_players_club ON players (club_id);
+-- Leaderboards and keyset pagination by goals
+CREATE INDEX IF NOT EXISTS idx_players_goals ON players (goals DESC, id);
+CREATE INDEX IF NOT EXISTS idx_players_assists ON players (assists DESC, id);
+CREATE INDEX IF NOT EXISTS idx_players_club_goals ON players (club_id, goals DESC);
+
+CREATE INDEX IF NOT EXISTS idx_predictions_match ON predictions (match_id);
+
+-- Standings sync resolves clubs by their Football-Data.org id
+CREATE UNIQUE INDEX IF NOT EXISTS ux_clubs_external_id ON clubs (external_id);
@@ -0,0 +1,26 @@
+-- Predictions are written as immutable generations; readers see the one generation marked current.
+
+CREATE TABLE IF NOT EXISTS prediction_generations (
+    id           BIGSERIAL PRIMARY KEY,
+    model        VARCHAR(255),
+    source       VARCHAR(255),
+    generated_at TIMESTAMP(6),
+    is_current   BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+ALTER TABLE predictions ADD COLUMN IF NOT EXISTS generation_id BIGINT REFERENCES prediction_generations (id);
+ALTER TABLE predictions ADD COLUMN IF NOT EXISTS model_version VARCHAR(255);
+
+-- Existing predictions become the current generation
+INSERT INTO prediction_generations (model, source, generated_at, is_current)
+SELECT 'unknown', 'migration', now(), TRUE
+WHERE EXISTS (SELECT 1 FROM predictions WHERE generation_id IS NULL);
+
+UPDATE predictions
+SET generation_id = (SELECT MAX(id) FROM prediction_generations WHERE is_current)
+WHERE generation_id IS NULL;
+
+ALTER TABLE predictions ALTER COLUMN generation_id SET NOT NULL;
+
+-- Reads of the current generation, and pruning by generation
+CREATE INDEX IF NOT EXISTS idx_predictions_generation_match ON predictions (generation_id, match_id);
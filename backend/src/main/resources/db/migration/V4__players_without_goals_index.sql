@@ -0,0 +1,2 @@
+-- Tail of the player keyset pagination: rows without a goals value, ordered by id
+CREATE INDEX IF NOT EXISTS idx_players_no_goals ON players (id) WHERE goals IS NULL;
@@ -0,0 +1,2 @@
+-- Legacy players without an external id, looked up by name when the feeds claim them
+CREATE INDEX IF NOT EXISTS idx_players_unclaimed_name ON players (LOWER(name)) WHERE external_id IS NULL;
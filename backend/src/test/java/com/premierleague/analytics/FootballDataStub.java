@@ -0,0 +1,128 @@
+package com.premierleague.analytics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Football-Data.org API. Responses are registered per path (the
+ * query string is ignored) and each request is recorded with its headers and arrival time.
+ * One-off responses queued with {@link #respondOnce} are served first. Unregistered paths
+ * answer 404.
+ */
+public class FootballDataStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Response>> once = new ConcurrentHashMap<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public FootballDataStub() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the stub server", e);
+        }
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /** Base URL to use as football.data.api.base-url. */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/v4";
+    }
+
+    public void respond(String path, String body) {
+        respond(path, new Response(200, body, null, Duration.ZERO));
+    }
+
+    public void respond(String path, Response response) {
+        responses.put("/v4" + path, response);
+    }
+
+    public void respondOnce(String path, Response response) {
+        once.computeIfAbsent("/v4" + path, key -> new ConcurrentLinkedQueue<>()).add(response);
+    }
+
+    public List<Request> requests() {
+        return requests;
+    }
+
+    /** Most requests being handled at the same time since the last reset. */
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public void reset() {
+        responses.clear();
+        once.clear();
+        requests.clear();
+        maxInFlight.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.add(new Request(path, exchange.getRequestHeaders().getFirst("If-None-Match"), System.nanoTime()));
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        Queue<Response> queued = once.get(path);
+        Response queuedResponse = queued != null ? queued.poll() : null;
+        Response response = queuedResponse != null ? queuedResponse : responses.get(path);
+        try (exchange) {
+            if (response == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (!response.delay().isZero()) {
+                Thread.sleep(response.delay());
+            }
+            if (response.etag() != null) {
+                exchange.getResponseHeaders().set("ETag", response.etag());
+            }
+            response.headers().forEach(exchange.getResponseHeaders()::set);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            byte[] body = response.body() != null ? response.body().getBytes(StandardCharsets.UTF_8) : new byte[0];
+            exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public record Response(int status, String body, String etag, Duration delay, Map<String, String> headers) {
+        public Response(int status, String body, String etag, Duration delay) {
+            this(status, body, etag, delay, Map.of());
+        }
+    }
+
+    /** A request as received; nanos is its System.nanoTime() arrival. */
+    public record Request(String path, String ifNoneMatch, long nanos) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.premierleague.analytics;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wraps the data source so every statement is recorded with its bound parameters and
+ * the thread that ran it. Import into a test context and {@link #clear()} before the
+ * code under test runs.
+ */
+@TestConfiguration
+public class StatementRecorder implements BeanPostProcessor {
+
+    private static final List<Recorded> RECORDED = new CopyOnWriteArrayList<>();
+
+    public static void clear() {
+        RECORDED.clear();
+    }
+
+    /** Statements run on any thread since the last clear (cache loads run on the cache's executor). */
+    public static List<QueryInfo> all() {
+        return RECORDED.stream().map(Recorded::query).toList();
+    }
+
+    /** Statements run on the calling thread since the last clear. */
+    public static List<QueryInfo> onThisThread() {
+        Thread thread = Thread.currentThread();
+        return RECORDED.stream()
+            .filter(recorded -> recorded.thread() == thread)
+            .map(Recorded::query)
+            .toList();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create(dataSource)
+            .afterQuery((execution, queries) -> {
+                Thread thread = Thread.currentThread();
+                queries.forEach(query -> RECORDED.add(new Recorded(thread, query)));
+            })
+            .build();
+    }
+
+    private record Recorded(Thread thread, QueryInfo query) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.premierleague.analytics.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.premierleague.analytics.FootballDataStub;
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.service.Job;
+import com.premierleague.analytics.service.JobService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Triggers refreshes over HTTP while the stub holds the matches feed for a second, so the
+ * first job is still running when the second request arrives.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DataControllerTest extends PostgresTest {
+
+    private static final FootballDataStub STUB = new FootballDataStub();
+    private static final Duration SLOW = Duration.ofSeconds(1);
+
+    @DynamicPropertySource
+    static void footballData(DynamicPropertyRegistry registry) {
+        registry.add("football.data.api.base-url", STUB::baseUrl);
+        registry.add("football.data.standings.reconcile", () -> "false");
+        registry.add("prediction.refresh.debounce-ms", () -> "600000");
+        registry.add("prediction.refresh.max-delay-ms", () -> "600000");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        STUB.reset();
+        jdbcTemplate.update("DELETE FROM sync_state");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void overlappingRefreshRequestsShareOneJob() throws Exception {
+        STUB.respond("/competitions/PL/matches", new FootballDataStub.Response(200, "{\"matches\": []}", null, SLOW));
+        STUB.respond("/competitions/PL/scorers", "{\"scorers\": []}");
+
+        long start = System.nanoTime();
+        JsonNode first = refresh();
+        JsonNode second = refresh();
+        // Both answered without waiting for the feed
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(SLOW.toMillis());
+
+        assertThat(first.get("deduplicated").asBoolean()).isFalse();
+        assertThat(second.get("deduplicated").asBoolean()).isTrue();
+        assertThat(second.get("jobId").asText()).isEqualTo(first.get("jobId").asText());
+        assertThat(read("/data/status").get("status").asText()).isEqualTo("refreshing");
+
+        Job job = jobService.find(first.get("jobId").asText()).orElseThrow();
+        job.completion().get(30, TimeUnit.SECONDS);
+        assertThat(STUB.requests()).filteredOn(request -> request.path().endsWith("/matches")).hasSize(1);
+
+        JsonNode finished = read("/jobs/" + job.getId());
+        assertThat(finished.get("status").asText()).isEqualTo("SUCCEEDED");
+        assertThat(finished.get("progress").asDouble()).isEqualTo(1.0);
+        assertThat(finished.get("stages").get("matches").asLong()).isGreaterThanOrEqualTo(SLOW.toMillis());
+
+        JsonNode dataStatus = read("/data/status");
+        assertThat(dataStatus.get("status").asText()).isEqualTo("idle");
+        assertThat(dataStatus.get("lastRuns").get("DATA_REFRESH").get("id").asText()).isEqualTo(job.getId());
+    }
+
+    private JsonNode refresh() throws Exception {
+        String body = mockMvc.perform(post("/data/refresh"))
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists("Location"))
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode read(String path) throws Exception {
+        String body = mockMvc.perform(get(path))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
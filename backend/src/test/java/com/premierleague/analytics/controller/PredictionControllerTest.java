@@ -0,0 +1,63 @@
+package com.premierleague.analytics.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.service.Job;
+import com.premierleague.analytics.service.JobService;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Backtests run as jobs against the fixture's finished 2024 matches.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PredictionControllerTest extends PostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void backtestIsSubmittedAsAJob() throws Exception {
+        String body = mockMvc.perform(post("/predictions/backtest").param("model", "heuristic").param("season", "2024"))
+            .andExpect(status().isAccepted())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode response = objectMapper.readTree(body);
+
+        Job job = jobService.find(response.get("jobId").asText()).orElseThrow()
+            .completion().get(30, TimeUnit.SECONDS);
+
+        assertThat(job.getType()).isEqualTo(Job.Type.BACKTEST);
+        assertThat(job.getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(job.toMap().get("result")).asInstanceOf(InstanceOfAssertFactories.MAP)
+            .containsEntry("model", "heuristic")
+            .containsEntry("fixtures", 300);
+    }
+
+    @Test
+    void unknownModelIsRejectedBeforeAJobIsQueued() throws Exception {
+        mockMvc.perform(post("/predictions/backtest").param("model", "nonsense"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.status").value("error"));
+
+        assertThat(jobService.running(Job.Type.BACKTEST)).isEmpty();
+    }
+}
@@ -0,0 +1,44 @@
+package com.premierleague.analytics.controller;
+
+import com.premierleague.analytics.PostgresTest;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SimulationControllerTest extends PostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @ParameterizedTest
+    @CsvSource({
+        "/simulations/season, 0, 0, iterations",
+        "/simulations/season/stream, 0, 0, iterations",
+        "/simulations/season, 20000000, 0, iterations",
+        "/simulations/season/stream, 20000000, 0, iterations",
+        "/simulations/season, 1000, -1, parallelism",
+        "/simulations/season/stream, 1000, -1, parallelism",
+        "/simulations/season, 1000, 40000, parallelism",
+        "/simulations/season/stream, 1000, 40000, parallelism",
+    })
+    void bothEndpointsRejectTheSameParameters(String path, int iterations, int parallelism, String parameter) throws Exception {
+        mockMvc.perform(get(path)
+                .param("iterations", String.valueOf(iterations))
+                .param("parallelism", String.valueOf(parallelism))
+                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.status").value("error"))
+            .andExpect(jsonPath("$.message").value(startsWith(parameter)));
+    }
+}
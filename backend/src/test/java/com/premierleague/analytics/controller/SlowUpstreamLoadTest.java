@@ -0,0 +1,141 @@
+package com.premierleague.analytics.controller;
+
+import com.premierleague.analytics.FootballDataStub;
+import com.premierleague.analytics.PostgresTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the running server over HTTP while every Football-Data.org call hangs on a slow
+ * {@link FootballDataStub}. The quota is set high enough that only the upstream delay
+ * matters. Squad players get external ids from 880000 and are removed after each test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SlowUpstreamLoadTest extends PostgresTest {
+
+    private static final FootballDataStub STUB = new FootballDataStub();
+    private static final Duration UPSTREAM_DELAY = Duration.ofSeconds(4);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
+    private static final int SQUADS = 20;
+    private static final int READS = 100;
+
+    @DynamicPropertySource
+    static void footballData(DynamicPropertyRegistry registry) {
+        registry.add("football.data.api.base-url", STUB::baseUrl);
+        registry.add("football.data.api.requests-per-minute", () -> "600000");
+        registry.add("football.data.http.read-timeout", () -> READ_TIMEOUT.toMillis() + "ms");
+        registry.add("football.data.squads.concurrency", () -> String.valueOf(SQUADS));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    @AfterEach
+    void cleanUp() {
+        STUB.reset();
+        jdbcTemplate.update("DELETE FROM players WHERE external_id >= 880000");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void readsStayFastWhileEverySquadFetchWaitsOnTheUpstream() {
+        IntStream.rangeClosed(101, 100 + SQUADS).forEach(team ->
+            STUB.respond("/teams/" + team, new FootballDataStub.Response(200, squad(team), null, UPSTREAM_DELAY)));
+        List<Long> clubIds = jdbcTemplate.queryForList(
+            "SELECT id FROM clubs WHERE external_id BETWEEN 101 AND 120 ORDER BY external_id", Long.class);
+        clubIds.forEach(id -> send("GET", "/api/clubs/" + id).join());
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> fetches = clubIds.stream()
+            .map(id -> send("POST", "/api/clubs/" + id + "/fetch-squad"))
+            .toList();
+
+        // Wait until every fetch is parked on the stub, then load a read endpoint
+        waitForUpstreamRequests(SQUADS);
+        long readStart = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> reads = IntStream.range(0, READS)
+            .mapToObj(i -> send("GET", "/api/clubs/" + clubIds.get(i % clubIds.size())))
+            .toList();
+        CompletableFuture.allOf(reads.toArray(new CompletableFuture[0])).join();
+        long readMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - readStart);
+
+        assertThat(reads).allSatisfy(read -> assertThat(read.join().statusCode()).isEqualTo(200));
+        // All reads were served while the upstream calls were still pending
+        assertThat(fetches).noneMatch(CompletableFuture::isDone);
+        assertThat(readMillis).isLessThan(UPSTREAM_DELAY.toMillis());
+
+        CompletableFuture.allOf(fetches.toArray(new CompletableFuture[0])).join();
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(fetches).allSatisfy(fetch -> assertThat(fetch.join().statusCode()).isEqualTo(200));
+        // The 20 slow calls overlapped; one at a time they would take 80 s
+        assertThat(totalMillis).isLessThan(3 * UPSTREAM_DELAY.toMillis());
+    }
+
+    @Test
+    void upstreamSlowerThanTheReadTimeoutFailsTheRequest() {
+        STUB.respond("/teams/101", new FootballDataStub.Response(200, squad(101), null, READ_TIMEOUT.plusSeconds(2)));
+        Long clubId = jdbcTemplate.queryForObject("SELECT id FROM clubs WHERE external_id = 101", Long.class);
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = send("POST", "/api/clubs/" + clubId + "/fetch-squad").join();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(elapsedMillis).isBetween(READ_TIMEOUT.toMillis(), READ_TIMEOUT.plusSeconds(2).toMillis());
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(String method, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void waitForUpstreamRequests(int count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (STUB.requests().size() < count) {
+            assertThat(System.nanoTime()).as("upstream requests by the deadline").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static String squad(int team) {
+        return """
+            {"id": %1$d, "squad": [
+              {"id": %2$d, "name": "Squad Player %1$d-1", "position": "Goalkeeper", "shirtNumber": 1}
+            ]}
+            """.formatted(team, 880000 + team * 10 + 1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.premierleague.analytics.controller;
+
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.StatementRecorder;
+import com.premierleague.analytics.service.PredictionService;
+import com.premierleague.analytics.service.ReadCache;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the statements behind each read endpoint of the match, player and prediction
+ * controllers. Every endpoint returns many rows with their associations, so a lazy load per
+ * row would blow the bound. Caches are evicted first, so cached endpoints are measured cold.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementRecorder.class)
+class StatementCountTest extends PostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private PredictionService predictionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void predictFixtures() {
+        Integer predictions = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM predictions", Integer.class);
+        if (predictions == 0) {
+            predictionService.submitRegeneration("test").job().completion().join();
+        }
+        readCache.standingsChanged();
+        readCache.fixturesChanged();
+        readCache.predictionsChanged();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/matches, 1",
+        "/matches/count, 1",
+        "/matches/{match}, 1",
+        "/matches/club/{club}, 1",
+        "/matches/date-range?start=2000-01-01T00:00:00&end=2100-01-01T00:00:00, 1",
+        "/matches/status/FINISHED, 1",
+        "/matches/season/2024, 1",
+        "/matches/season/2024/week/5, 1",
+        "/matches/upcoming, 1",
+        "/matches/live, 1",
+        "/players, 1",
+        "/players/count, 1",
+        "/players/{player}, 1",
+        "/players/club/{club}, 1",
+        "/players/position/Midfield, 1",
+        "/players/nationality/Nation 1, 1",
+        "/players/top-scorers, 1",
+        "/players/top-assists, 1",
+        "/predictions, 1",
+        "/predictions/upcoming, 1",
+        "/predictions/generations, 1",
+        "/predictions/match/{predictedMatch}/history, 1",
+        "/predictions/week/31, 1",
+    })
+    void endpointRunsABoundedNumberOfStatements(String path, int bound) throws Exception {
+        String uri = path
+            .replace("{match}", id("SELECT MIN(id) FROM matches"))
+            .replace("{club}", id("SELECT id FROM clubs WHERE external_id = 101"))
+            .replace("{player}", id("SELECT MIN(id) FROM players"))
+            .replace("{predictedMatch}", id("SELECT MIN(match_id) FROM predictions"));
+
+        StatementRecorder.clear();
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+        List<String> statements = StatementRecorder.all().stream().map(QueryInfo::getQuery).toList();
+
+        assertThat(statements).as(uri).hasSizeLessThanOrEqualTo(bound);
+    }
+
+    private String id(String sql) {
+        return String.valueOf(jdbcTemplate.queryForObject(sql, Long.class));
+    }
+}
@@ -0,0 +1,189 @@
+package com.premierleague.analytics.repository;
+
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.StatementRecorder;
+import com.premierleague.analytics.entity.Match;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.assertj.core.api.AbstractStringAssert;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each index-backed repository query, captures the SQL and parameters Hibernate sent
+ * and replays them under EXPLAIN to check that PostgreSQL serves the query from the
+ * expected index. The tables are seeded with ten seasons of fixtures and analyzed first (and
+ * cleaned up after the class, since the seed is committed), and
+ * sequential scans are disabled for the check, so a query only passes if an index applies.
+ *
+ * findAll, findContentHashes, findByPosition, findByNationality and findByMatchWeek read
+ * whole tables or filter on unindexed columns by design and are not listed.
+ */
+@DataJpaTest
+@Sql(scripts = "/sql/plan-fixtures.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "/sql/plan-fixtures-cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+@Import(StatementRecorder.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest extends PostgresTest {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 50);
+    private static final LocalDateTime DAY = LocalDateTime.of(2020, 1, 1, 15, 0);
+    private static final Long CLUB = 1001L;
+    private static final String SEASON = "2020";
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void matchesByClub() {
+        assertUsesIndexes(() -> matchRepository.findByHomeClubIdOrAwayClubId(CLUB, CLUB),
+            "idx_matches_home_club", "idx_matches_away_club");
+        assertUsesIndexes(() -> matchRepository.findByClubAndStatus(CLUB, Match.MatchStatus.FINISHED),
+            "idx_matches_home_club", "idx_matches_away_club");
+    }
+
+    @Test
+    void matchesByStatus() {
+        assertUsesIndexes(() -> matchRepository.findByStatus(Match.MatchStatus.SCHEDULED), "idx_matches_status_date");
+        // Nearly every row is FINISHED, so walking the kickoff-ordered index instead of sorting is as good
+        assertUsesOneOf(() -> matchRepository.findResultsByStatus(Match.MatchStatus.FINISHED),
+            "idx_matches_status_date", "idx_matches_date_id");
+        assertUsesOneOf(() -> matchRepository.findLatestResult(Match.MatchStatus.FINISHED),
+            "idx_matches_status_date", "idx_matches_date_id");
+        assertUsesIndexes(() -> matchRepository.findFixturesByStatus(Match.MatchStatus.SCHEDULED), "idx_matches_status_date");
+        assertUsesIndexes(() -> matchRepository.findSeasonsByStatus(Match.MatchStatus.FINISHED), "idx_matches_status_date");
+    }
+
+    @Test
+    void matchesBySeason() {
+        assertUsesIndexes(() -> matchRepository.findBySeason(SEASON), "idx_matches_season_week");
+        assertUsesIndexes(() -> matchRepository.findBySeasonAndMatchWeek(SEASON, 10), "idx_matches_season_week");
+        assertUsesIndexes(() -> matchRepository.findResultsByStatusAndSeason(Match.MatchStatus.FINISHED, SEASON),
+            "idx_matches_season_week");
+        assertUsesOneOf(() -> matchRepository.findFixturesByStatusAndSeason(Match.MatchStatus.SCHEDULED, SEASON),
+            "idx_matches_season_week", "idx_matches_status_date");
+        assertUsesIndexes(() -> matchRepository.findClubIdsBySeason(SEASON), "idx_matches_season_week");
+    }
+
+    @Test
+    void matchesByDate() {
+        assertUsesIndexes(() -> matchRepository.findLatestSeason(), "idx_matches_date_id");
+        assertUsesIndexes(() -> matchRepository.findByMatchDateBetween(DAY, DAY.plusDays(7)), "idx_matches_date_id");
+        assertUsesIndexes(() -> matchRepository.findSummaries(null, null, PAGE), "idx_matches_date_id");
+        assertUsesIndexes(() -> matchRepository.findSummariesAfter(null, null, DAY, 100500L, PAGE), "idx_matches_date_id");
+    }
+
+    @Test
+    void matchesByExternalId() {
+        assertUsesIndexes(() -> matchRepository.findResultsByExternalIds(List.of(900001L, 900002L)), "uk_matches_external_id");
+    }
+
+    @Test
+    void playersByClub() {
+        assertUsesIndexes(() -> playerRepository.findByClubId(CLUB), "idx_players_club");
+        assertUsesIndexes(() -> playerRepository.findTopScorersByClub(CLUB), "idx_players_club");
+    }
+
+    @Test
+    void playerPages() {
+        assertUsesIndexes(() -> playerRepository.findSummaries(PAGE), "idx_players_goals");
+        assertUsesIndexes(() -> playerRepository.findSummariesAfter(12, 200500L, PAGE), "idx_players_goals");
+        assertUsesIndexes(() -> playerRepository.findSummariesWithoutGoals(200500L, PAGE), "idx_players_no_goals");
+    }
+
+    @Test
+    void playerLeaderboards() {
+        assertUsesIndexes(() -> playerRepository.findTopScorerSummaries(null, null, PAGE), "idx_players_goals");
+        assertUsesIndexes(() -> playerRepository.findTopAssistSummaries(null, null, PAGE), "idx_players_assists");
+    }
+
+    @Test
+    void playersByExternalId() {
+        assertUsesIndexes(() -> playerRepository.findByExternalId(700001L), "uk_players_external_id");
+        assertUsesIndexes(() -> playerRepository.findSummariesByExternalIds(List.of(700001L, 700002L)), "uk_players_external_id");
+        assertUsesIndexes(() -> playerRepository.findSummariesByIds(List.of(200001L, 200002L)), "players_pkey");
+    }
+
+    @Test
+    void predictions() {
+        assertUsesIndexes(() -> predictionRepository.findHistoryByMatchId(103750L), "idx_predictions_match");
+        assertUsesIndexes(() -> predictionRepository.findCurrent(), "idx_predictions_generation_match");
+        assertUsesIndexes(() -> predictionRepository.findPredictedMatchIds(3010L), "idx_predictions_generation_match");
+        assertUsesIndexes(() -> predictionRepository.findByMatchStatus(Match.MatchStatus.SCHEDULED),
+            "idx_predictions_generation_match");
+    }
+
+    @Test
+    void clubsByExternalId() {
+        assertUsesIndexes(() -> clubRepository.findByExternalId(5001L), "ux_clubs_external_id");
+    }
+
+    private void assertUsesIndexes(Runnable query, String... indexes) {
+        plan(query).contains(indexes);
+    }
+
+    private void assertUsesOneOf(Runnable query, String... indexes) {
+        plan(query).containsAnyOf(indexes);
+    }
+
+    private AbstractStringAssert<?> plan(Runnable query) {
+        StatementRecorder.clear();
+        query.run();
+        List<QueryInfo> statements = StatementRecorder.onThisThread();
+        assertThat(statements).as("statements run").isNotEmpty();
+        QueryInfo statement = statements.get(0);
+        return assertThat(explain(statement)).as(statement.getQuery())
+            .doesNotContain("Seq Scan on matches", "Seq Scan on players", "Seq Scan on predictions");
+    }
+
+    // Replays the statement with its bound values; runs in the test transaction, so SET LOCAL only affects this check
+    private String explain(QueryInfo statement) {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.getQuery())) {
+                if (!statement.getParametersList().isEmpty()) {
+                    for (ParameterSetOperation parameter : statement.getParametersList().get(0)) {
+                        try {
+                            parameter.getMethod().invoke(explain, parameter.getArgs());
+                        } catch (ReflectiveOperationException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
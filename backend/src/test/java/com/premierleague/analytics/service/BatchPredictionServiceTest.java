@@ -0,0 +1,76 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.entity.Club;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.entity.Prediction;
+import com.premierleague.analytics.repository.ClubRepository;
+import com.premierleague.analytics.repository.MatchRepository;
+import com.premierleague.analytics.repository.PredictionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BatchPredictionServiceTest extends PostgresTest {
+
+    @Autowired
+    private BatchPredictionService batchPredictionService;
+
+    @Autowired
+    private PredictionService predictionService;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Test
+    void batchPublishesANewGenerationWithTheCurrentPredictionsCarriedForward() {
+        Set<Long> before = currentlyPredictedMatchIds();
+        Match fixture = scheduleFixture();
+
+        Job job = batchPredictionService.submitBatch("test").job().completion().join();
+
+        assertThat(job.getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(currentlyPredictedMatchIds()).containsAll(before).contains(fixture.getId());
+    }
+
+    @Test
+    void batchAndRegenerationShareTheSingleFlight() {
+        JobService.Submission regeneration = predictionService.submitRegeneration("test");
+        JobService.Submission batch = batchPredictionService.submitBatch("test");
+
+        assertThat(batch.deduplicated()).isTrue();
+        assertThat(batch.job()).isSameAs(regeneration.job());
+        regeneration.job().completion().join();
+    }
+
+    private Set<Long> currentlyPredictedMatchIds() {
+        return predictionRepository.findCurrent().stream()
+            .map(Prediction::getMatch)
+            .map(Match::getId)
+            .collect(Collectors.toSet());
+    }
+
+    private Match scheduleFixture() {
+        List<Club> clubs = clubRepository.findAll();
+        Match match = new Match();
+        match.setHomeClub(clubs.get(0));
+        match.setAwayClub(clubs.get(1));
+        match.setMatchDate(LocalDateTime.now().plusYears(1));
+        match.setStatus(Match.MatchStatus.SCHEDULED);
+        return matchRepository.save(match);
+    }
+}
@@ -0,0 +1,156 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.ClubFormRepository;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Loading and rebuilding the persisted form buffers. Each test starts from a fresh rebuild
+ * and unloads the index to simulate a restart; scores changed directly in the database
+ * are restored afterwards.
+ */
+@SpringBootTest
+class ClubFormIndexTest extends PostgresTest {
+
+    @Autowired
+    private ClubFormIndex clubFormIndex;
+
+    @Autowired
+    private ClubFormRepository clubFormRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MatchResult latest;
+
+    @BeforeEach
+    void rebuild() {
+        clubFormIndex.rebuild();
+        latest = matchRepository.findLatestResult(Match.MatchStatus.FINISHED).orElseThrow();
+    }
+
+    @AfterEach
+    void restore() {
+        ReflectionTestUtils.setField(clubFormIndex, "clubFormRepository", clubFormRepository);
+        jdbcTemplate.update("UPDATE matches SET home_score = ?, away_score = ?, match_date = ? WHERE id = ?",
+            latest.homeScore(), latest.awayScore(), latest.matchDate(), latest.matchId());
+        clubFormIndex.rebuild();
+    }
+
+    @Test
+    void currentBuffersAreLoadedAsPersisted() {
+        Long bystander = jdbcTemplate.queryForObject(
+            "SELECT MIN(club_id) FROM club_form WHERE club_id NOT IN (?, ?)", Long.class,
+            latest.homeClubId(), latest.awayClubId());
+        jdbcTemplate.update("DELETE FROM club_form WHERE club_id = ?", bystander);
+
+        unload();
+
+        // No rebuild: the club without a row has no form until its next result
+        assertThat(clubFormIndex.getFormString(bystander)).isEmpty();
+        assertThat(clubFormIndex.getFormString(latest.homeClubId())).isNotEmpty();
+    }
+
+    @Test
+    void buffersMissingTheLatestResultAreRebuilt() {
+        // A corrected score committed while the buffers were not maintained
+        int home = latest.homeScore() + 5;
+        jdbcTemplate.update("UPDATE matches SET home_score = ? WHERE id = ?", home, latest.matchId());
+
+        unload();
+
+        assertThat(clubFormIndex.getFormString(latest.homeClubId())).startsWith("W");
+        assertThat(clubFormIndex.getFormString(latest.awayClubId())).startsWith("L");
+        assertThat(jdbcTemplate.queryForObject("SELECT entries FROM club_form WHERE club_id = ?",
+            String.class, latest.homeClubId())).startsWith(latest.matchId() + ":").contains(":W");
+    }
+
+    @Test
+    void failedRebuildKeepsThePersistedBuffers() {
+        Map<Long, String> before = persisted();
+        ClubFormRepository failing = (ClubFormRepository) Proxy.newProxyInstance(
+            ClubFormRepository.class.getClassLoader(), new Class<?>[]{ClubFormRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("saveAll")) {
+                    throw new IllegalStateException("Simulated write failure");
+                }
+                try {
+                    return method.invoke(clubFormRepository, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        ReflectionTestUtils.setField(clubFormIndex, "clubFormRepository", failing);
+
+        assertThatThrownBy(clubFormIndex::rebuild).hasMessage("Simulated write failure");
+
+        assertThat(persisted()).isNotEmpty().isEqualTo(before);
+    }
+
+    @Test
+    void kickoffMovedOutOfTheWindowRebuildsTheIndex() {
+        // A corrected kickoff a year earlier: the club's sixth-latest result belongs in its form instead
+        LocalDateTime moved = latest.matchDate().minusYears(1);
+        jdbcTemplate.update("UPDATE matches SET match_date = ? WHERE id = ?", moved, latest.matchId());
+
+        clubFormIndex.recordResult(new MatchResult(latest.matchId(), latest.homeClubId(), latest.awayClubId(),
+            moved, latest.homeScore(), latest.awayScore()));
+
+        String entries = jdbcTemplate.queryForObject("SELECT entries FROM club_form WHERE club_id = ?",
+            String.class, latest.homeClubId());
+        assertThat(entries.split(",")).hasSize(5).noneMatch(entry -> entry.startsWith(latest.matchId() + ":"));
+        assertThat(clubFormIndex.getFormString(latest.homeClubId())).hasSize(5);
+    }
+
+    @Test
+    void bufferMovingAResultBehindDroppedOnesIsIncomplete() {
+        ClubFormIndex.RecentForm form = new ClubFormIndex.RecentForm(3);
+        for (long match = 1; match <= 4; match++) {
+            form.add(match, match * 100, 'W');
+        }
+        assertThat(form.isIncomplete()).isFalse();
+        // A changed score keeps its place; only a kickoff moved behind match 1, which was dropped, is a problem
+        assertThat(form.add(2, 200, 'L')).isTrue();
+        assertThat(form.isIncomplete()).isFalse();
+        assertThat(form.add(4, 50, 'W')).isTrue();
+        assertThat(form.isIncomplete()).isTrue();
+    }
+
+    private Map<Long, String> persisted() {
+        return jdbcTemplate.query("SELECT club_id, entries FROM club_form", rs -> {
+            Map<Long, String> rows = new HashMap<>();
+            while (rs.next()) {
+                rows.put(rs.getLong(1), rs.getString(2));
+            }
+            return rows;
+        });
+    }
+
+    // As after a restart: the next lookup loads from club_form
+    private void unload() {
+        ReflectionTestUtils.setField(clubFormIndex, "forms", new ConcurrentHashMap<>());
+        ReflectionTestUtils.setField(clubFormIndex, "loaded", false);
+    }
+}
@@ -0,0 +1,225 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.dto.Forecast;
+import com.premierleague.analytics.dto.MatchResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Fits the model on synthetic leagues drawn from known attack, defence and home-advantage
+ * parameters. Replicas are used throughout, so nothing is read from the database.
+ */
+class DixonColesModelTest {
+
+    private static final double HOME_ADVANTAGE = 0.25;
+
+    @Test
+    void recoversTheGeneratingParameters() {
+        // Fifty seasons, so sampling noise stays within a few points of probability
+        League league = new League(20, 42);
+        PredictionModel model = model(0.0);
+        model.resultsRecorded(league.seasons(50));
+
+        assertThat((Double) model.status().get("homeAdvantage")).isCloseTo(HOME_ADVANTAGE, within(0.05));
+        // Goals are drawn without the low-score correction
+        assertThat((Double) model.status().get("rho")).isCloseTo(0.0, within(0.05));
+        for (int home = 0; home < 20; home++) {
+            for (int away = 0; away < 20; away++) {
+                if (home == away) {
+                    continue;
+                }
+                Forecast forecast = model.forecast(context(home, away)).orElseThrow();
+                double[] truth = league.outcomeProbabilities(home, away);
+                assertThat(forecast.homeWinProbability()).as("home win %d v %d", home, away).isCloseTo(truth[0], within(4.0));
+                assertThat(forecast.drawProbability()).as("draw %d v %d", home, away).isCloseTo(truth[1], within(4.0));
+                assertThat(forecast.awayWinProbability()).as("away win %d v %d", home, away).isCloseTo(truth[2], within(4.0));
+            }
+        }
+    }
+
+    @Test
+    void forecastIsConsistentWithItsScoreline() {
+        PredictionModel model = model(0.0019);
+        model.resultsRecorded(new League(20, 7).seasons(3));
+
+        Forecast forecast = model.forecast(context(0, 19)).orElseThrow();
+
+        assertThat(forecast.homeWinProbability() + forecast.drawProbability() + forecast.awayWinProbability())
+            .isCloseTo(100.0, within(1e-6));
+        int likely = Integer.compare(forecast.homeScore(), forecast.awayScore());
+        double[] byOutcome = {forecast.awayWinProbability(), forecast.drawProbability(), forecast.homeWinProbability()};
+        assertThat(byOutcome[likely + 1]).isEqualTo(Math.max(byOutcome[0], Math.max(byOutcome[1], byOutcome[2])));
+    }
+
+    @Test
+    void incrementalRefitMatchesAFullFitInFewIterations() {
+        List<MatchResult> results = new League(20, 11).seasons(4);
+        int split = results.size() - 50;
+
+        PredictionModel full = model(0.0019);
+        full.resultsRecorded(results);
+        int fullIterations = (Integer) full.status().get("iterations");
+
+        PredictionModel incremental = model(0.0019);
+        incremental.resultsRecorded(results.subList(0, split));
+        int refitIterations = 0;
+        // One matchday (ten results) at a time, as the sync delivers them
+        for (int from = split; from < results.size(); from += 10) {
+            incremental.resultsRecorded(results.subList(from, Math.min(from + 10, results.size())));
+            refitIterations = Math.max(refitIterations, (Integer) incremental.status().get("iterations"));
+        }
+
+        assertThat(refitIterations).isLessThan(fullIterations);
+        for (int home = 0; home < 20; home++) {
+            for (int away = 0; away < 20; away++) {
+                if (home != away) {
+                    Forecast expected = full.forecast(context(home, away)).orElseThrow();
+                    Forecast actual = incremental.forecast(context(home, away)).orElseThrow();
+                    assertThat(actual.homeWinProbability()).isCloseTo(expected.homeWinProbability(), within(0.01));
+                    assertThat(actual.awayWinProbability()).isCloseTo(expected.awayWinProbability(), within(0.01));
+                }
+            }
+        }
+    }
+
+    @Test
+    void fitsAMultiSeasonHistoryWellUnderASecond() {
+        // Twenty seasons with promotion and relegation: 40 clubs, 7600 matches
+        List<MatchResult> history = new ArrayList<>();
+        for (int season = 0; season < 20; season++) {
+            history.addAll(new League(20, season).withClubOffset(season % 21).season(season));
+        }
+        // Warm the JIT up on a separate model first
+        model(0.0019).resultsRecorded(history);
+
+        PredictionModel model = model(0.0019);
+        long start = System.nanoTime();
+        model.resultsRecorded(history);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Object> status = model.status();
+        assertThat(status).containsEntry("fitted", true).containsEntry("matches", 7600);
+        assertThat((Double) status.get("fitMillis")).isLessThan(500.0);
+        assertThat(elapsedMillis).isLessThan(1000);
+    }
+
+    @Test
+    void declinesUntilEnoughMatchesAreStored() {
+        PredictionModel model = model(0.0019);
+        model.resultsRecorded(new League(20, 3).season(0).subList(0, 49));
+
+        assertThat(model.status()).containsEntry("fitted", false);
+        assertThat(model.forecast(context(0, 1))).isEmpty();
+    }
+
+    private static PredictionModel model(double decayPerDay) {
+        DixonColesModel configured = new DixonColesModel();
+        ReflectionTestUtils.setField(configured, "decayPerDay", decayPerDay);
+        ReflectionTestUtils.setField(configured, "maxGoals", 10);
+        ReflectionTestUtils.setField(configured, "minMatches", 50);
+        return configured.replica();
+    }
+
+    private static PredictionModel.Context context(int home, int away) {
+        return new PredictionModel.Context((long) home + 1, (long) away + 1, 0, 0, 0, 0, 0, 0, 1500, 1500, null);
+    }
+
+    /**
+     * Double round-robin seasons with Poisson goals from fixed club parameters.
+     */
+    private static final class League {
+        private final int clubs;
+        private final double[] attack;
+        private final double[] defence;
+        private final SplittableRandom random;
+        private int clubOffset;
+
+        League(int clubs, long seed) {
+            this.clubs = clubs;
+            this.random = new SplittableRandom(seed);
+            this.attack = new double[clubs];
+            this.defence = new double[clubs];
+            // Strength falls with the index, so club 0 is the best side
+            for (int c = 0; c < clubs; c++) {
+                double strength = 0.4 - 0.8 * c / (clubs - 1);
+                attack[c] = strength;
+                defence[c] = -strength;
+            }
+        }
+
+        League withClubOffset(int offset) {
+            this.clubOffset = offset;
+            return this;
+        }
+
+        List<MatchResult> seasons(int count) {
+            List<MatchResult> results = new ArrayList<>();
+            for (int season = 0; season < count; season++) {
+                results.addAll(season(season));
+            }
+            return results;
+        }
+
+        List<MatchResult> season(int season) {
+            List<MatchResult> results = new ArrayList<>();
+            LocalDateTime kickoff = LocalDateTime.of(2000 + season, 8, 10, 15, 0);
+            long id = season * 1000L;
+            for (int home = 0; home < clubs; home++) {
+                for (int away = 0; away < clubs; away++) {
+                    if (home != away) {
+                        results.add(new MatchResult(++id, clubId(home), clubId(away), kickoff,
+                            poisson(Math.exp(HOME_ADVANTAGE + attack[home] + defence[away])),
+                            poisson(Math.exp(attack[away] + defence[home]))));
+                        kickoff = kickoff.plusHours(10);
+                    }
+                }
+            }
+            return results;
+        }
+
+        /** Home win, draw and away win probabilities in percent under the generating model. */
+        double[] outcomeProbabilities(int home, int away) {
+            double lambda = Math.exp(HOME_ADVANTAGE + attack[home] + defence[away]);
+            double mu = Math.exp(attack[away] + defence[home]);
+            double[] outcome = new double[3];
+            for (int x = 0; x <= 15; x++) {
+                for (int y = 0; y <= 15; y++) {
+                    outcome[x > y ? 0 : x == y ? 1 : 2] += pmf(lambda, x) * pmf(mu, y) * 100.0;
+                }
+            }
+            return outcome;
+        }
+
+        private long clubId(int index) {
+            return index + clubOffset + 1L;
+        }
+
+        private int poisson(double rate) {
+            double limit = Math.exp(-rate);
+            double product = random.nextDouble();
+            int goals = 0;
+            while (product > limit) {
+                product *= random.nextDouble();
+                goals++;
+            }
+            return goals;
+        }
+
+        private static double pmf(double rate, int k) {
+            double p = Math.exp(-rate);
+            for (int i = 1; i <= k; i++) {
+                p *= rate / i;
+            }
+            return p;
+        }
+    }
+}
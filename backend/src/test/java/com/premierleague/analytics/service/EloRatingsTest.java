@@ -0,0 +1,61 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.entity.Match;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the replica the backtest workers use against the shared point-in-time ratings,
+ * over the finished matches of the test league.
+ */
+@SpringBootTest
+class EloRatingsTest extends PostgresTest {
+
+    @Autowired
+    private EloRatings eloRatings;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Test
+    void replicaFedInKickoffOrderMatchesThePointInTimeRatings() {
+        eloRatings.replay();
+        List<MatchResult> results = matchRepository.findResultsByStatus(Match.MatchStatus.FINISHED);
+        assertThat(results).isNotEmpty();
+        Set<Long> clubs = new TreeSet<>();
+        Set<LocalDateTime> days = new TreeSet<>();
+        for (MatchResult result : results) {
+            clubs.add(result.homeClubId());
+            clubs.add(result.awayClubId());
+            days.add(result.matchDate().toLocalDate().atStartOfDay());
+        }
+        days.add(results.get(results.size() - 1).matchDate().plusDays(1));
+
+        EloRatings.Replica replica = eloRatings.replica();
+        int fed = 0;
+        for (LocalDateTime cutoff : days) {
+            while (fed < results.size() && results.get(fed).matchDate().isBefore(cutoff)) {
+                replica.record(results.get(fed++));
+            }
+            for (Long club : clubs) {
+                assertThat(replica.current(club)).as("club %d at %s", club, cutoff)
+                    .isEqualTo(eloRatings.at(club, cutoff));
+            }
+        }
+        assertThat(fed).isEqualTo(results.size());
+        for (Long club : clubs) {
+            assertThat(replica.current(club)).isEqualTo(eloRatings.current(club));
+        }
+    }
+}
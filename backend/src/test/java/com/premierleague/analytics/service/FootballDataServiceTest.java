@@ -0,0 +1,186 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.FootballDataStub;
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.entity.Club;
+import com.premierleague.analytics.entity.SyncState;
+import com.premierleague.analytics.repository.ClubRepository;
+import com.premierleague.analytics.repository.SyncStateRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the sync against {@link FootballDataStub}. Standings reconciliation is off and the
+ * prediction refresh is debounced past the end of each test, so only the matches and
+ * scorers stages touch the database. Chunks are two rows. Feed matches get external ids
+ * from 990000 and are removed after each test.
+ */
+@SpringBootTest
+class FootballDataServiceTest extends PostgresTest {
+
+    private static final FootballDataStub STUB = new FootballDataStub();
+    private static final String MATCHES = "/competitions/PL/matches";
+    private static final String SCORERS = "/competitions/PL/scorers";
+
+    @DynamicPropertySource
+    static void footballData(DynamicPropertyRegistry registry) {
+        registry.add("football.data.api.base-url", STUB::baseUrl);
+        registry.add("football.data.standings.reconcile", () -> "false");
+        registry.add("football.data.sync.batch-size", () -> "2");
+        registry.add("prediction.refresh.debounce-ms", () -> "600000");
+        registry.add("prediction.refresh.max-delay-ms", () -> "600000");
+    }
+
+    @Autowired
+    private FootballDataService footballDataService;
+
+    @Autowired
+    private SyncStateRepository syncStateRepository;
+
+    @Autowired
+    private SyncStatistics syncStatistics;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        STUB.reset();
+        jdbcTemplate.update("DELETE FROM matches WHERE external_id >= 990000");
+        jdbcTemplate.update("DELETE FROM clubs WHERE name = 'Promoted FC'");
+        jdbcTemplate.update("DELETE FROM sync_state");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void feedIsNotMarkedSyncedWhileARowCannotBeApplied() {
+        String feed = matchesFeed(
+            fixture(990001, "Test Club 1", "Test Club 2"),
+            fixture(990002, "Test Club 3", "Promoted FC"));
+        STUB.respond(MATCHES, new FootballDataStub.Response(200, feed, "\"v1\"", Duration.ZERO));
+        STUB.respond(SCORERS, "{\"scorers\": []}");
+
+        footballDataService.refreshAllData(JobProgress.NONE);
+
+        assertThat(feedMatches()).isEqualTo(1);
+        assertThat(syncStateRepository.findById("matches")).isEmpty();
+
+        // Once the club exists the same payload is fetched again and the missing row is written
+        jdbcTemplate.update("INSERT INTO clubs (name) VALUES ('Promoted FC')");
+        footballDataService.refreshAllData(JobProgress.NONE);
+
+        assertThat(feedMatches()).isEqualTo(2);
+        assertThat(syncStateRepository.findById("matches")).map(SyncState::getEtag).contains("\"v1\"");
+    }
+
+    @Test
+    void clubsFirstSeenInTheMatchesFeedAreCreatedBeforeTheirFixtures() {
+        String feed = matchesFeed(fixture(990001, "Test Club 1", 101L, "Promoted FC", 9901L));
+        STUB.respond(MATCHES, new FootballDataStub.Response(200, feed, "\"v1\"", Duration.ZERO));
+        STUB.respond(SCORERS, "{\"scorers\": []}");
+
+        footballDataService.refreshAllData(JobProgress.NONE);
+
+        assertThat(clubRepository.findByExternalId(9901L)).map(Club::getName).contains("Promoted FC");
+        assertThat(feedMatches()).isEqualTo(1);
+        assertThat(syncStateRepository.findById("matches")).isPresent();
+    }
+
+    @Test
+    void unparseableRowKeepsTheFeedUnsynced() {
+        String feed = matchesFeed(fixture(990001, "Test Club 1", "Test Club 2"), "{\"id\": 990002}");
+        STUB.respond(MATCHES, new FootballDataStub.Response(200, feed, "\"v1\"", Duration.ZERO));
+        STUB.respond(SCORERS, "{\"scorers\": []}");
+
+        footballDataService.refreshAllData(JobProgress.NONE);
+
+        assertThat(feedMatches()).isEqualTo(1);
+        assertThat(syncStateRepository.findById("matches")).isEmpty();
+        assertThat(syncStateRepository.findById("scorers")).isPresent();
+    }
+
+    @Test
+    void downloadIsNotPartOfTheStageTransaction() throws IOException {
+        Duration slow = Duration.ofMillis(500);
+        String feed = matchesFeed(
+            fixture(990001, "Test Club 1", "Test Club 2"),
+            fixture(990002, "Test Club 3", "Test Club 4"),
+            fixture(990003, "Test Club 5", "Test Club 6"),
+            fixture(990004, "Test Club 7", "Test Club 8"),
+            fixture(990005, "Test Club 9", "Test Club 10"));
+        STUB.respond(MATCHES, new FootballDataStub.Response(200, feed, "\"v1\"", slow));
+        STUB.respond(SCORERS, new FootballDataStub.Response(200, "{\"scorers\": []}", null, slow));
+
+        footballDataService.refreshAllData(JobProgress.NONE);
+
+        Map<String, Object> run = syncStatistics.lastRun();
+        assertThat(counter(run, "commits")).containsEntry("matches", 1L).containsEntry("scorers", 1L);
+        assertThat(counter(run, "chunks")).containsEntry("matches", 3L);
+        assertThat(counter(run, "chunkMillisMax").get("matches")).isLessThan(slow.toMillis());
+        // Each response took 500 ms; neither transaction waited for it
+        assertThat(counter(run, "transactionMillis").get("matches")).isLessThan(slow.toMillis());
+        assertThat(counter(run, "transactionMillis").get("scorers")).isLessThan(slow.toMillis());
+        assertThat(feedMatches()).isEqualTo(5);
+        // Both feeds were spooled to disk and read back in the stage; the files are gone
+        assertThat(spooledFeeds()).isEmpty();
+    }
+
+    private static List<Path> spooledFeeds() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(f -> f.getFileName().toString().startsWith("football-data-")).toList();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> counter(Map<String, Object> run, String name) {
+        return (Map<String, Long>) run.get(name);
+    }
+
+    private int feedMatches() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM matches WHERE external_id >= 990000", Integer.class);
+    }
+
+    static String matchesFeed(String... matches) {
+        return Arrays.stream(matches).collect(Collectors.joining(",", "{\"matches\": [", "]}"));
+    }
+
+    static String fixture(long id, String home, String away) {
+        return fixture(id, home, null, away, null);
+    }
+
+    static String fixture(long id, String home, Long homeId, String away, Long awayId) {
+        // Two years out, clear of fixtures other tests add without an external id (which the sync would adopt)
+        LocalDateTime kickoff = LocalDateTime.now().plusYears(2).withNano(0);
+        return """
+            {"id": %d, "utcDate": "%sZ", "status": "SCHEDULED", "matchday": 1,
+             "homeTeam": {"id": %s, "name": "%s"}, "awayTeam": {"id": %s, "name": "%s"},
+             "score": {"fullTime": {"home": null, "away": null}}}
+            """.formatted(id, kickoff.plusMinutes(id % 1000), homeId, home, awayId, away);
+    }
+}
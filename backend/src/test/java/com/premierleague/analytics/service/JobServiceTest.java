@@ -0,0 +1,160 @@
+package com.premierleague.analytics.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobServiceTest {
+
+    private JobService jobService;
+
+    @BeforeEach
+    void createService() {
+        jobService = new JobService();
+        ReflectionTestUtils.setField(jobService, "historySize", 3);
+    }
+
+    @AfterEach
+    void stopService() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void concurrentSubmissionsOfOneTypeShareOneRun() throws Exception {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CyclicBarrier barrier = new CyclicBarrier(callers);
+
+        List<JobService.Submission> submissions;
+        try (ExecutorService threads = Executors.newFixedThreadPool(callers)) {
+            List<Future<JobService.Submission>> futures = IntStream.range(0, callers)
+                .mapToObj(i -> threads.submit(() -> {
+                    barrier.await();
+                    return jobService.submit(Job.Type.DATA_REFRESH, "caller-" + i, progress -> {
+                        runs.incrementAndGet();
+                        release.await();
+                        return null;
+                    });
+                }))
+                .toList();
+            submissions = futures.stream().map(JobServiceTest::get).toList();
+        }
+
+        assertThat(submissions).filteredOn(submission -> !submission.deduplicated()).hasSize(1);
+        assertThat(submissions).extracting(submission -> submission.job().getId()).containsOnly(submissions.get(0).job().getId());
+        // Another type is not held up by the refresh
+        Job predictions = jobService.submit(Job.Type.PREDICTIONS, "test", progress -> null).job();
+        assertThat(predictions.completion().get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+
+        release.countDown();
+        Job refresh = submissions.get(0).job().completion().get(5, TimeUnit.SECONDS);
+        assertThat(runs).hasValue(1);
+        assertThat(refresh.getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(jobService.running(Job.Type.DATA_REFRESH)).isEmpty();
+
+        // Once finished, the next submission starts a new run
+        JobService.Submission next = jobService.submit(Job.Type.DATA_REFRESH, "again", progress -> null);
+        assertThat(next.deduplicated()).isFalse();
+        assertThat(next.job().getId()).isNotEqualTo(refresh.getId());
+        next.job().completion().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void progressAndStageTimingsAreReported() throws Exception {
+        CountDownLatch inSecondStage = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Job job = jobService.submit(Job.Type.DATA_REFRESH, "test", 2, progress -> {
+            progress.stage("download");
+            Thread.sleep(50);
+            progress.stage("write");
+            inSecondStage.countDown();
+            release.await();
+            return Map.of("rows", 3);
+        }).job();
+
+        assertThat(inSecondStage.await(5, TimeUnit.SECONDS)).isTrue();
+        Map<String, Object> running = job.toMap();
+        assertThat(running).containsEntry("status", Job.Status.RUNNING)
+            .containsEntry("currentStage", "write")
+            .containsEntry("progress", 0.5);
+        assertThat(jobService.running(Job.Type.DATA_REFRESH)).contains(job);
+
+        release.countDown();
+        job.completion().get(5, TimeUnit.SECONDS);
+        Map<String, Object> finished = job.toMap();
+        assertThat(finished).containsEntry("status", Job.Status.SUCCEEDED)
+            .containsEntry("progress", 1.0)
+            .containsEntry("currentStage", null)
+            .containsEntry("result", Map.of("rows", 3));
+        @SuppressWarnings("unchecked")
+        Map<String, Long> stages = (Map<String, Long>) finished.get("stages");
+        assertThat(stages).containsOnlyKeys("download", "write");
+        assertThat(stages.get("download")).isGreaterThanOrEqualTo(50L);
+        assertThat((Long) finished.get("durationMs")).isGreaterThanOrEqualTo(stages.get("download"));
+        assertThat(jobService.lastFinished(Job.Type.DATA_REFRESH)).contains(job);
+    }
+
+    @Test
+    void failureIsRecordedAndReleasesTheType() throws Exception {
+        Job job = jobService.submit(Job.Type.PREDICTIONS, "test", progress -> {
+            throw new IllegalStateException("model not fitted");
+        }).job();
+
+        job.completion().get(5, TimeUnit.SECONDS);
+
+        assertThat(job.getStatus()).isEqualTo(Job.Status.FAILED);
+        assertThat(job.getError()).isEqualTo("model not fitted");
+        assertThat(jobService.running(Job.Type.PREDICTIONS)).isEmpty();
+        assertThat(jobService.lastFinished(Job.Type.PREDICTIONS)).contains(job);
+        assertThat(jobService.submit(Job.Type.PREDICTIONS, "retry", progress -> null).deduplicated()).isFalse();
+    }
+
+    @Test
+    void historyDropsOldFinishedJobsButKeepsRunningOnes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Job running = jobService.submit(Job.Type.DATA_REFRESH, "slow", progress -> {
+            release.await();
+            return null;
+        }).job();
+        for (int i = 0; i < 4; i++) {
+            jobService.submit(Job.Type.PREDICTIONS, "quick-" + i, progress -> null).job()
+                .completion().get(5, TimeUnit.SECONDS);
+        }
+
+        // The running job is the oldest entry, so nothing behind it can be dropped yet
+        assertThat(jobService.recent()).hasSize(5).last().isEqualTo(running);
+        assertThat(jobService.find(running.getId())).contains(running);
+
+        release.countDown();
+        running.completion().get(5, TimeUnit.SECONDS);
+        Job latest = jobService.submit(Job.Type.PREDICTIONS, "latest", progress -> null).job();
+        latest.completion().get(5, TimeUnit.SECONDS);
+
+        assertThat(jobService.recent()).hasSize(3).first().isEqualTo(latest);
+        assertThat(jobService.find(running.getId())).isEmpty();
+    }
+
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
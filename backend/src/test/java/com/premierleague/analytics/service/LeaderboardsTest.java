@@ -0,0 +1,70 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.dto.PlayerSummary;
+import com.premierleague.analytics.repository.PlayerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeding of the in-memory boards against the fixture's players, whose goals stay below 15.
+ */
+@SpringBootTest
+class LeaderboardsTest extends PostgresTest {
+
+    @Autowired
+    private Leaderboards leaderboards;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @AfterEach
+    void restore() {
+        ReflectionTestUtils.setField(leaderboards, "playerRepository", playerRepository);
+        leaderboards.invalidate();
+    }
+
+    @Test
+    void updateArrivingWhileTheBoardIsSeededIsKept() throws Exception {
+        CountDownLatch seeding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PlayerRepository slow = (PlayerRepository) Proxy.newProxyInstance(
+            PlayerRepository.class.getClassLoader(), new Class<?>[]{PlayerRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("findTopScorerSummaries")) {
+                    seeding.countDown();
+                    release.await();
+                }
+                try {
+                    return method.invoke(playerRepository, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        ReflectionTestUtils.setField(leaderboards, "playerRepository", slow);
+        PlayerSummary scorer = new PlayerSummary(-1L, "Late Scorer", "Offence", null, 9, 99, 0, 30, null);
+
+        CompletableFuture<List<PlayerSummary>> read = CompletableFuture.supplyAsync(
+            () -> leaderboards.top(Leaderboards.Metric.GOALS, 5, null, null));
+        assertThat(seeding.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> update = CompletableFuture.runAsync(() -> leaderboards.update(List.of(scorer)));
+        Thread.sleep(100);
+        release.countDown();
+        read.get(5, TimeUnit.SECONDS);
+        update.get(5, TimeUnit.SECONDS);
+
+        assertThat(leaderboards.top(Leaderboards.Metric.GOALS, 1, null, null)).containsExactly(scorer);
+    }
+}
@@ -0,0 +1,126 @@
+package com.premierleague.analytics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.premierleague.analytics.dto.LiveScore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+/**
+ * Fan-out with recording emitters in place of HTTP clients; a "stalled" emitter blocks every
+ * send until released, like a client that stopped reading.
+ */
+class LiveScoreBroadcasterTest {
+
+    private final Deque<SseEmitter> emitters = new ArrayDeque<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final LiveScoreBroadcaster broadcaster = new LiveScoreBroadcaster() {
+        @Override
+        SseEmitter newEmitter() {
+            return emitters.pop();
+        }
+    };
+
+    LiveScoreBroadcasterTest() {
+        ReflectionTestUtils.setField(broadcaster, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(broadcaster, "backlog", 4);
+    }
+
+    @AfterEach
+    void releaseStalled() {
+        release.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void stalledSubscriberDoesNotHoldUpTheOthers() {
+        Recording stalled = subscribe(true);
+        Recording healthy = subscribe(false);
+
+        // The stalled client holds its send for ten seconds; publishing must not wait for it
+        assertTimeout(Duration.ofSeconds(1), () -> broadcaster.publish(List.of(score(1))));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> healthy.events().contains("score"));
+        assertThat(stalled.events()).doesNotContain("score");
+    }
+
+    @Test
+    void subscriberIsDroppedOnceItsBacklogIsFull() {
+        subscribe(true);
+
+        // The snapshot is in flight and four scores are queued; the fifth overflows
+        for (int i = 0; i < 4; i++) {
+            broadcaster.publish(List.of(score(i)));
+        }
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+
+        broadcaster.publish(List.of(score(4)));
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    @Test
+    void heartbeatReachesIdleSubscribers() {
+        Recording idle = subscribe(false);
+
+        broadcaster.heartbeat();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> idle.events().contains(":heartbeat"));
+    }
+
+    private Recording subscribe(boolean stalled) {
+        Recording recording = new Recording(stalled);
+        emitters.push(recording);
+        broadcaster.subscribe();
+        return recording;
+    }
+
+    private static LiveScore score(long id) {
+        return new LiveScore(id, null, null, null, null, null, null);
+    }
+
+    private final class Recording extends SseEmitter {
+        private final boolean stalled;
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+
+        Recording(boolean stalled) {
+            super(0L);
+            this.stalled = stalled;
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            if (stalled) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String text = items.stream().map(item -> item.getData().toString()).collect(Collectors.joining());
+            // "event:<name>" for named events, ":<comment>" for heartbeats
+            sent.add(text.startsWith("event:") ? text.substring(6, text.indexOf('\n')) : text.strip());
+        }
+
+        List<String> events() {
+            return List.copyOf(sent);
+        }
+    }
+}
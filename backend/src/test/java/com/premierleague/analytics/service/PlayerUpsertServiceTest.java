@@ -0,0 +1,126 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.dto.ScorerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claiming of legacy player rows (no external id) by the scorers upsert. Legacy rows are
+ * named 'Legacy ...', scorers get external ids from 870000, and both are removed after each test.
+ */
+@SpringBootTest
+class PlayerUpsertServiceTest extends PostgresTest {
+
+    private static final LocalDate BORN = LocalDate.of(1995, 3, 1);
+
+    @Autowired
+    private PlayerUpsertService playerUpsertService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM players WHERE name LIKE 'Legacy %' OR external_id >= 870000");
+    }
+
+    @Test
+    void transferredPlayerIsClaimedByNameAndBirthDate() {
+        long mover = legacy("Legacy Mover", 101, BORN);
+        legacy("Legacy Mover", 103, LocalDate.of(1990, 1, 1));
+
+        playerUpsertService.upsertScorers(List.of(scorer(870001, "legacy mover", 102, BORN)));
+
+        assertThat(rows("Legacy Mover")).hasSize(2);
+        assertThat(row(mover)).containsEntry("external_id", 870001L).containsEntry("club_id", clubId(102));
+    }
+
+    @Test
+    void uniqueNameIsClaimedAtAnotherClub() {
+        long unique = legacy("Legacy Unique", 101, null);
+
+        playerUpsertService.upsertScorers(List.of(scorer(870001, "Legacy Unique", 102, BORN)));
+
+        assertThat(rows("Legacy Unique")).hasSize(1);
+        assertThat(row(unique)).containsEntry("external_id", 870001L)
+            .containsEntry("club_id", clubId(102))
+            .containsEntry("date_of_birth", Date.valueOf(BORN));
+    }
+
+    @Test
+    void ambiguousNameElsewhereIsNotClaimed() {
+        legacy("Legacy Twin", 101, null);
+        legacy("Legacy Twin", 103, null);
+
+        playerUpsertService.upsertScorers(List.of(scorer(870001, "Legacy Twin", 102, null)));
+
+        assertThat(rows("Legacy Twin")).hasSize(3);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM players WHERE name = 'Legacy Twin' AND external_id IS NULL", Integer.class))
+            .isEqualTo(2);
+    }
+
+    @Test
+    void sameClubBreaksANameTie() {
+        legacy("Legacy Twin", 101, null);
+        long twin = legacy("Legacy Twin", 103, null);
+
+        playerUpsertService.upsertScorers(List.of(scorer(870001, "Legacy Twin", 103, null)));
+
+        assertThat(rows("Legacy Twin")).hasSize(2);
+        assertThat(row(twin)).containsEntry("external_id", 870001L);
+    }
+
+    @Test
+    void differentBirthDateIsAnotherPlayer() {
+        long namesake = legacy("Legacy Namesake", 101, LocalDate.of(1980, 6, 1));
+
+        playerUpsertService.upsertScorers(List.of(scorer(870001, "Legacy Namesake", 101, BORN)));
+
+        assertThat(rows("Legacy Namesake")).hasSize(2);
+        assertThat(row(namesake)).containsEntry("external_id", null);
+    }
+
+    @Test
+    void aRowIsClaimedOnlyOnce() {
+        long unique = legacy("Legacy Unique", 101, BORN);
+
+        assertThat(playerUpsertService.claim(870002L, clubId(104), "Legacy Unique", BORN)).isTrue();
+        assertThat(playerUpsertService.claim(870003L, clubId(104), "Legacy Unique", BORN)).isFalse();
+        assertThat(row(unique)).containsEntry("external_id", 870002L);
+    }
+
+    private long legacy(String name, long clubExternalId, LocalDate born) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO players (name, club_id, date_of_birth, goals, assists, matches_played) " +
+            "VALUES (?, ?, ?, 0, 0, 0) RETURNING id",
+            Long.class, name, clubId(clubExternalId), born == null ? null : Date.valueOf(born));
+    }
+
+    private long clubId(long externalId) {
+        return jdbcTemplate.queryForObject("SELECT id FROM clubs WHERE external_id = ?", Long.class, externalId);
+    }
+
+    private List<Map<String, Object>> rows(String name) {
+        return jdbcTemplate.queryForList("SELECT * FROM players WHERE LOWER(name) = LOWER(?)", name);
+    }
+
+    private Map<String, Object> row(long id) {
+        return jdbcTemplate.queryForMap("SELECT external_id, club_id, date_of_birth FROM players WHERE id = ?", id);
+    }
+
+    private static ScorerRecord scorer(long externalId, String name, long teamExternalId, LocalDate born) {
+        return new ScorerRecord(externalId, name, teamExternalId, "England", null, "Offence", born, 3, 1, 10, "hash");
+    }
+}
@@ -0,0 +1,66 @@
+package com.premierleague.analytics.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PredictionRefreshTrackerTest {
+
+    private final List<Set<Long>> refreshed = new CopyOnWriteArrayList<>();
+    private final CountDownLatch refreshedOnce = new CountDownLatch(1);
+    private JobService jobService;
+    private PredictionRefreshTracker tracker;
+
+    @BeforeEach
+    void createTracker() {
+        jobService = new JobService();
+        ReflectionTestUtils.setField(jobService, "historySize", 10);
+        // Fails its first run, then records what it was asked to refresh
+        PredictionService predictionService = new PredictionService() {
+            private boolean failed;
+
+            @Override
+            public Map<String, Object> refreshPredictions(Set<Long> clubIds, boolean fillMissing) {
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalStateException("Simulated refresh failure");
+                }
+                refreshed.add(clubIds);
+                refreshedOnce.countDown();
+                return Map.of();
+            }
+        };
+        tracker = new PredictionRefreshTracker();
+        ReflectionTestUtils.setField(tracker, "jobService", jobService);
+        ReflectionTestUtils.setField(tracker, "predictionService", predictionService);
+        ReflectionTestUtils.setField(tracker, "debounceMillis", 10L);
+        ReflectionTestUtils.setField(tracker, "maxDelayMillis", 100L);
+    }
+
+    @AfterEach
+    void stop() {
+        tracker.shutdown();
+        jobService.shutdown();
+    }
+
+    @Test
+    void clubsOfAFailedRefreshAreKeptAndRetried() throws Exception {
+        tracker.onStandingsChanged(new SyncEvents.StandingsChanged(Set.of(1L, 2L)));
+
+        assertThat(refreshedOnce.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(refreshed).containsExactly(Set.of(1L, 2L));
+        jobService.recent().get(0).completion().get(5, TimeUnit.SECONDS);
+        assertThat(jobService.recent()).extracting(Job::getStatus)
+            .containsExactly(Job.Status.SUCCEEDED, Job.Status.FAILED);
+    }
+}
@@ -0,0 +1,104 @@
+package com.premierleague.analytics.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simulated seasons per second of the {@link SeasonSimulationService} hot loop at each
+ * parallelism, over a 20-club table with ten rounds (100 fixtures) left. The score is per
+ * simulated season, so linear scaling shows as a score proportional to parallelism.
+ *
+ * Not part of the test run. From backend/:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main SeasonSimulationBenchmark"
+ * </pre>
+ * Add e.g. {@code -p parallelism=1,4} to the JMH arguments to pick thread counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeasonSimulationBenchmark {
+
+    private static final int CLUBS = 20;
+    private static final int ROUNDS = 10;
+    private static final int ITERATIONS = 100_000;
+    private static final int CHUNK_SIZE = 5_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private SeasonSimulationService.SeasonModel model;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Long[] ids = new Long[CLUBS];
+        String[] names = new String[CLUBS];
+        int[] basePoints = new int[CLUBS];
+        for (int i = 0; i < CLUBS; i++) {
+            ids[i] = (long) i + 1;
+            names[i] = "Club " + (i + 1);
+            basePoints[i] = 80 - i * 3;
+        }
+        int fixtures = ROUNDS * CLUBS / 2;
+        int[] home = new int[fixtures];
+        int[] away = new int[fixtures];
+        double[] homeWin = new double[fixtures];
+        double[] homeOrDraw = new double[fixtures];
+        for (int f = 0; f < fixtures; f++) {
+            // Circle-method pairing: every club plays once per round
+            int round = f / (CLUBS / 2);
+            int slot = f % (CLUBS / 2);
+            home[f] = slot == 0 ? 0 : 1 + (round + slot) % (CLUBS - 1);
+            away[f] = 1 + (round + CLUBS - 1 - slot) % (CLUBS - 1);
+            homeWin[f] = 0.35 + random.nextDouble() * 0.2;
+            homeOrDraw[f] = homeWin[f] + 0.25;
+        }
+        model = new SeasonSimulationService.SeasonModel(ids, names, basePoints, home, away, homeWin, homeOrDraw);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    // Same chunking as SeasonSimulationService.simulateAsync, without the progress snapshots
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public SeasonSimulationService.Tally simulate() {
+        SplittableRandom root = new SplittableRandom();
+        List<CompletableFuture<SeasonSimulationService.Tally>> chunks = new ArrayList<>();
+        for (int done = 0; done < ITERATIONS; done += CHUNK_SIZE) {
+            int size = Math.min(CHUNK_SIZE, ITERATIONS - done);
+            SplittableRandom random = root.split();
+            chunks.add(CompletableFuture.supplyAsync(() -> model.run(size, random), pool));
+        }
+        SeasonSimulationService.Tally total = new SeasonSimulationService.Tally(CLUBS);
+        for (CompletableFuture<SeasonSimulationService.Tally> chunk : chunks) {
+            total.merge(chunk.join());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,62 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.dto.SeasonSimulationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class SeasonSimulationServiceTest extends PostgresTest {
+
+    @Autowired
+    private SeasonSimulationService seasonSimulationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM matches WHERE season = '2023'");
+        jdbcTemplate.update("DELETE FROM clubs WHERE name = 'Relegated FC'");
+    }
+
+    @Test
+    void onlyClubsOfTheCurrentSeasonAreSimulated() {
+        // Top of the stored table, but last played in an earlier season
+        jdbcTemplate.update("INSERT INTO clubs (name, position, points) VALUES ('Relegated FC', 1, 99)");
+        jdbcTemplate.update("""
+            INSERT INTO matches (home_club_id, away_club_id, match_date, home_score, away_score, season, status)
+            SELECT r.id, t.id, '2023-05-01 15:00', 1, 0, '2023', 'FINISHED'
+            FROM clubs r, clubs t WHERE r.name = 'Relegated FC' AND t.name = 'Test Club 1'
+            """);
+
+        SeasonSimulationResult result = seasonSimulationService.simulate(1000, 1);
+
+        assertThat(result.clubs()).hasSize(20)
+            .extracting(SeasonSimulationResult.ClubOdds::name).doesNotContain("Relegated FC");
+        assertThat(result.remainingFixtures()).isEqualTo(80);
+    }
+
+    @Test
+    void parallelismOutOfRangeIsRejected() {
+        assertThatThrownBy(() -> seasonSimulationService.simulate(1000, -1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> seasonSimulationService.simulate(1000, 40_000))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void chunkSizeMustBePositive() {
+        SeasonSimulationService service = new SeasonSimulationService();
+        ReflectionTestUtils.setField(service, "chunkSize", 0);
+
+        assertThatThrownBy(service::checkSettings).isInstanceOf(IllegalStateException.class);
+    }
+}
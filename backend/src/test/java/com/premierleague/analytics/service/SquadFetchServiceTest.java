@@ -0,0 +1,146 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.FootballDataStub;
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.dto.PlayerSummary;
+import com.premierleague.analytics.entity.Club;
+import com.premierleague.analytics.repository.ClubRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the squad fetcher against {@link FootballDataStub} with a quota of 20 requests a
+ * second and a bucket of one, so the n-th request of a run can be sent no earlier than
+ * n x 50 ms after it starts, and up to three retries after a 429. Squad players get external ids from 880000 and are removed after each test.
+ */
+@SpringBootTest
+class SquadFetchServiceTest extends PostgresTest {
+
+    private static final FootballDataStub STUB = new FootballDataStub();
+    private static final Duration SLOW = Duration.ofMillis(400);
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @DynamicPropertySource
+    static void footballData(DynamicPropertyRegistry registry) {
+        registry.add("football.data.api.base-url", STUB::baseUrl);
+        registry.add("football.data.api.requests-per-minute", () -> "1200");
+        registry.add("football.data.api.burst", () -> "1");
+        registry.add("football.data.api.max-retries", () -> "3");
+        registry.add("football.data.squads.concurrency", () -> "4");
+    }
+
+    @Autowired
+    private SquadFetchService squadFetchService;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private Leaderboards leaderboards;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        STUB.reset();
+        jdbcTemplate.update("DELETE FROM players WHERE external_id >= 880000 OR name LIKE 'Squad Player %'");
+        leaderboards.invalidate();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void allSquadsAreFetchedConcurrentlyWithinTheQuota() throws InterruptedException {
+        IntStream.rangeClosed(101, 120).forEach(team ->
+            STUB.respond("/teams/" + team, new FootballDataStub.Response(200, squad(team), null, SLOW)));
+        // Warm the HTTP client up, then let the bucket refill
+        squadFetchService.fetchSquad(clubRepository.findByExternalId(101L).orElseThrow()).join();
+        Thread.sleep(100);
+        STUB.requests().clear();
+
+        long start = System.nanoTime();
+        int fetched = squadFetchService.fetchAllSquads().join();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(fetched).isEqualTo(20);
+        assertThat(squadPlayers()).isEqualTo(40);
+        // Serially the responses alone would take 20 x 400 ms; four at a time they take a quarter of that
+        assertThat(STUB.maxInFlight()).isEqualTo(4);
+        assertThat(elapsedMillis).isLessThan(20 * SLOW.toMillis());
+        assertRequestsWithinQuota(STUB.requests(), start);
+    }
+
+    @Test
+    void tooManyRequestsPausesAndRetries() {
+        STUB.respondOnce("/teams/101",
+            new FootballDataStub.Response(429, null, null, Duration.ZERO, Map.of("Retry-After", "1")));
+        STUB.respond("/teams/101", squad(101));
+        Club club = clubRepository.findByExternalId(101L).orElseThrow();
+
+        boolean fetched = squadFetchService.fetchSquad(club).join();
+
+        assertThat(fetched).isTrue();
+        List<FootballDataStub.Request> requests = STUB.requests();
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).nanos() - requests.get(0).nanos())
+            .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(950));
+        assertThat(squadPlayers()).isEqualTo(2);
+    }
+
+    @Test
+    void squadPlayersAreOfferedToTheLeaderboards() {
+        leaderboards.top(Leaderboards.Metric.GOALS, 10, null, null);
+        // A legacy row the seeded board has not seen, claimed by the squad sync
+        jdbcTemplate.update("INSERT INTO players (name, club_id, goals, assists, matches_played) " +
+            "SELECT 'Squad Player 101-2', id, 99, 0, 30 FROM clubs WHERE external_id = 101");
+        STUB.respond("/teams/101", squad(101));
+
+        boolean fetched = squadFetchService.fetchSquad(clubRepository.findByExternalId(101L).orElseThrow()).join();
+
+        assertThat(fetched).isTrue();
+        assertThat(leaderboards.top(Leaderboards.Metric.GOALS, 1, null, null))
+            .extracting(PlayerSummary::name, PlayerSummary::goals)
+            .containsExactly(tuple("Squad Player 101-2", 99));
+    }
+
+    // Arrivals can bunch up behind a busy client, but none can get ahead of the bucket's refill
+    private static void assertRequestsWithinQuota(List<FootballDataStub.Request> requests, long start) {
+        long[] arrivals = requests.stream().mapToLong(FootballDataStub.Request::nanos).sorted().toArray();
+        assertThat(arrivals).hasSize(20);
+        for (int i = 0; i < arrivals.length; i++) {
+            assertThat(arrivals[i] - start).as("request %d", i).isGreaterThanOrEqualTo(i * INTERVAL_NANOS);
+        }
+    }
+
+    private int squadPlayers() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM players WHERE external_id >= 880000", Integer.class);
+    }
+
+    private static String squad(int team) {
+        return """
+            {"id": %1$d, "squad": [
+              {"id": %2$d, "name": "Squad Player %1$d-1", "position": "Goalkeeper", "dateOfBirth": "1995-01-01", "shirtNumber": 1},
+              {"id": %3$d, "name": "Squad Player %1$d-2", "position": "Centre-Forward", "dateOfBirth": "1998-06-30", "shirtNumber": 9}
+            ]}
+            """.formatted(team, 880000 + team * 10 + 1, 880000 + team * 10 + 2);
+    }
+}
@@ -0,0 +1,157 @@
+package com.premierleague.analytics.service;
+
+import com.premierleague.analytics.PostgresTest;
+import com.premierleague.analytics.dto.MatchResult;
+import com.premierleague.analytics.repository.MatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Works on clubs 101-104; the table rows of all test clubs are restored after each
+ * test. Matches added here get external ids from 970000 and are removed again, along
+ * with the clubs added here.
+ */
+@SpringBootTest
+class StandingsEngineTest extends PostgresTest {
+
+    @Autowired
+    private StandingsEngine standingsEngine;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long[] clubs;
+    private List<Map<String, Object>> before;
+
+    @BeforeEach
+    void rememberClubs() {
+        clubs = new long[]{clubId(101), clubId(102), clubId(103), clubId(104)};
+        before = jdbcTemplate.queryForList("SELECT * FROM clubs WHERE external_id BETWEEN 101 AND 120");
+        standingsEngine.reload();
+    }
+
+    @AfterEach
+    void restoreTable() {
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS fail_club_updates ON clubs");
+        jdbcTemplate.update("DELETE FROM matches WHERE external_id >= 970000");
+        jdbcTemplate.update("DELETE FROM clubs WHERE name IN ('Relegated FC', 'Promoted FC')");
+        for (Map<String, Object> club : before) {
+            jdbcTemplate.update("UPDATE clubs SET position = ?, played_games = ?, won = ?, draw = ?, lost = ?, " +
+                    "points = ?, goals_for = ?, goals_against = ?, goal_difference = ? WHERE id = ?",
+                club.get("position"), club.get("played_games"), club.get("won"), club.get("draw"), club.get("lost"),
+                club.get("points"), club.get("goals_for"), club.get("goals_against"), club.get("goal_difference"),
+                club.get("id"));
+        }
+        standingsEngine.reloadFromStandings();
+    }
+
+    @Test
+    void failedWriteIsRetriedOnTheNextCallWithoutStoppingTheBatch() {
+        // Not stored matches; the engine only keys its applied scores by their ids
+        MatchResult failing = new MatchResult(-1L, clubs[0], clubs[1], LocalDateTime.now(), 2, 0);
+        MatchResult other = new MatchResult(-2L, clubs[2], clubs[3], LocalDateTime.now(), 1, 1);
+        int[] played = playedGames();
+        jdbcTemplate.execute("CREATE OR REPLACE FUNCTION fail_update() RETURNS trigger AS $$ " +
+            "BEGIN IF NEW.id = " + clubs[0] + " AND NEW.played_games <> OLD.played_games THEN " +
+            "RAISE EXCEPTION 'club is read-only'; END IF; RETURN NEW; END $$ LANGUAGE plpgsql");
+        jdbcTemplate.execute("CREATE TRIGGER fail_club_updates BEFORE UPDATE ON clubs " +
+            "FOR EACH ROW EXECUTE FUNCTION fail_update()");
+
+        assertThat(standingsEngine.applyResults(List.of(failing, other))).isPositive();
+        assertThat(playedGames()).containsExactly(played[0], played[1], played[2] + 1, played[3] + 1);
+
+        jdbcTemplate.execute("DROP TRIGGER fail_club_updates ON clubs");
+        // A reload in between (e.g. a club created by the sync) keeps the failed result uncounted
+        standingsEngine.reload();
+        assertThat(standingsEngine.applyResults(List.of())).isPositive();
+        assertThat(playedGames()).containsExactly(played[0] + 1, played[1] + 1, played[2] + 1, played[3] + 1);
+        assertThat(standingsEngine.applyResults(List.of())).isZero();
+        assertThat(standingsEngine.applyResults(List.of(failing))).isZero();
+    }
+
+    @Test
+    void restartedEngineCountsEveryResultOfTheFirstBatch() {
+        int[] played = playedGames();
+        jdbcTemplate.update("""
+            INSERT INTO matches (external_id, home_club_id, away_club_id, match_date, home_score, away_score, season, status)
+            VALUES (970001, ?, ?, now() - INTERVAL '1 hour', 2, 0, '2024', 'FINISHED'),
+                   (970002, ?, ?, now() - INTERVAL '1 hour', 1, 3, '2024', 'FINISHED')
+            """, clubs[0], clubs[1], clubs[2], clubs[3]);
+        // As after a restart: nothing seeded, and the batch is already committed
+        ReflectionTestUtils.setField(standingsEngine, "loaded", false);
+
+        List<MatchResult> results = matchRepository.findResultsByExternalIds(List.of(970001L, 970002L));
+        assertThat(results).hasSize(2);
+        assertThat(standingsEngine.applyResults(results)).isPositive();
+
+        assertThat(playedGames()).containsExactly(played[0] + 1, played[1] + 1, played[2] + 1, played[3] + 1);
+        assertThat(standingsEngine.applyResults(results)).isZero();
+    }
+
+    @Test
+    void onlyClubsOfTheLatestSeasonAreRanked() {
+        // Top of the stored table, but last played in an earlier season
+        jdbcTemplate.update("INSERT INTO clubs (name, position, points, played_games) VALUES ('Relegated FC', 1, 99, 38)");
+        jdbcTemplate.update("""
+            INSERT INTO matches (external_id, home_club_id, away_club_id, match_date, home_score, away_score, season, status)
+            SELECT 970010, r.id, ?, '2023-05-01 15:00', 1, 0, '2023', 'FINISHED' FROM clubs r WHERE r.name = 'Relegated FC'
+            """, clubs[0]);
+        standingsEngine.reload();
+
+        standingsEngine.applyResults(List.of(new MatchResult(-1L, clubs[3], clubs[0], LocalDateTime.now(), 5, 0)));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT position FROM clubs WHERE name = 'Relegated FC'", Integer.class))
+            .isEqualTo(1);
+        assertThat(testClubPositions()).containsExactlyElementsOf(IntStream.rangeClosed(1, 20).boxed().toList());
+    }
+
+    @Test
+    void clubNewToTheSeasonIsAddedWhenItsFirstResultArrives() {
+        jdbcTemplate.update("INSERT INTO clubs (name, played_games, won, draw, lost, points, goals_for, goals_against) " +
+            "VALUES ('Promoted FC', 0, 0, 0, 0, 0, 0, 0)");
+        jdbcTemplate.update("""
+            INSERT INTO matches (external_id, home_club_id, away_club_id, match_date, home_score, away_score, season, status)
+            SELECT 970020, p.id, ?, now() - INTERVAL '1 hour', 1, 0, '2024', 'FINISHED' FROM clubs p WHERE p.name = 'Promoted FC'
+            """, clubs[0]);
+
+        List<MatchResult> results = matchRepository.findResultsByExternalIds(List.of(970020L));
+        assertThat(standingsEngine.applyResults(results)).isPositive();
+
+        assertThat(jdbcTemplate.queryForMap("SELECT played_games, points, position FROM clubs WHERE name = 'Promoted FC'"))
+            .containsEntry("played_games", 1).containsEntry("points", 3).containsKey("position");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT position) FROM clubs " +
+            "WHERE external_id BETWEEN 101 AND 120 OR name = 'Promoted FC'", Integer.class)).isEqualTo(21);
+    }
+
+    private List<Integer> testClubPositions() {
+        return jdbcTemplate.queryForList(
+            "SELECT position FROM clubs WHERE external_id BETWEEN 101 AND 120 ORDER BY position", Integer.class);
+    }
+
+    private long clubId(long externalId) {
+        return jdbcTemplate.queryForObject("SELECT id FROM clubs WHERE external_id = ?", Long.class, externalId);
+    }
+
+    private int[] playedGames() {
+        int[] played = new int[clubs.length];
+        for (int i = 0; i < clubs.length; i++) {
+            played[i] = jdbcTemplate.queryForObject("SELECT played_games FROM clubs WHERE id = ?", Integer.class, clubs[i]);
+        }
+        return played;
+    }
+}
@@ -0,0 +1,34 @@
+-- One 20-club season loaded once per test JVM, after the migrations: matchweeks 1-30 are
+-- finished, 31-38 are still to be played, and every club has a 25-player squad.
+
+INSERT INTO clubs (name, short_name, tla, external_id, stadium, position, played_games, won, draw, lost,
+                   points, goals_for, goals_against, goal_difference)
+SELECT 'Test Club ' || c, 'Club ' || c, 'T' || lpad(c::text, 2, '0'), 100 + c, 'Ground ' || c,
+       c, 30, 20 - c / 2, 5, 5 + c / 2, 65 - c, 60 - c, 20 + c, 40 - 2 * c
+FROM generate_series(1, 20) c;
+
+INSERT INTO matches (external_id, home_club_id, away_club_id, match_date, home_score, away_score,
+                     venue, match_week, season, status)
+SELECT 500000 + w * 10 + i,
+       home.id,
+       away.id,
+       date_trunc('day', now()) - INTERVAL '31 weeks' + w * INTERVAL '1 week' + i * INTERVAL '2 hours',
+       CASE WHEN w <= 30 THEN (w * 7 + i * 3) % 4 END,
+       CASE WHEN w <= 30 THEN (w * 5 + i) % 3 END,
+       home.stadium,
+       w,
+       '2024',
+       CASE WHEN w <= 30 THEN 'FINISHED' ELSE 'SCHEDULED' END
+FROM generate_series(1, 38) w
+CROSS JOIN generate_series(0, 9) i
+JOIN clubs home ON home.external_id = 101 + (i + w) % 20
+JOIN clubs away ON away.external_id = 101 + (19 - i + w) % 20;
+
+INSERT INTO players (name, external_id, jersey_number, position, nationality, club_id, goals, assists,
+                     matches_played)
+SELECT 'Player ' || c.external_id || '-' || n, 600000 + c.external_id * 100 + n, n,
+       (ARRAY['Goalkeeper', 'Defence', 'Midfield', 'Offence'])[1 + n % 4],
+       'Nation ' || n % 8, c.id, (n * 7 + c.id) % 15, n % 9, 30 - n % 10
+FROM clubs c
+CROSS JOIN generate_series(1, 25) n
+WHERE c.external_id BETWEEN 101 AND 120;
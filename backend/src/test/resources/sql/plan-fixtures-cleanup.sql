@@ -0,0 +1,6 @@
+-- Removes the rows added by plan-fixtures.sql
+DELETE FROM predictions WHERE generation_id BETWEEN 3001 AND 3010;
+DELETE FROM prediction_generations WHERE id BETWEEN 3001 AND 3010;
+DELETE FROM players WHERE id BETWEEN 200000 AND 229999;
+DELETE FROM matches WHERE id BETWEEN 100000 AND 103799;
+DELETE FROM clubs WHERE id BETWEEN 1001 AND 1020;
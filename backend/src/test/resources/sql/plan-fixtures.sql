@@ -0,0 +1,47 @@
+-- Ten seasons of a 20-club league with a players table in the tens of thousands, then ANALYZE,
+-- so the planner costs the repository queries against realistic row counts.
+
+INSERT INTO clubs (id, name, short_name, external_id, position, points)
+SELECT 1000 + c, 'Plan Club ' || c, 'PC' || c, 5000 + c, c, 60 - c
+FROM generate_series(1, 20) c;
+
+INSERT INTO matches (id, external_id, home_club_id, away_club_id, match_date, home_score, away_score,
+                     match_week, season, status, content_hash)
+SELECT 100000 + n,
+       900000 + n,
+       1000 + 1 + n % 20,
+       1000 + 1 + (n / 20 + n) % 20,
+       TIMESTAMP '2015-08-01' + (n * INTERVAL '5 hours'),
+       n % 4, n % 3,
+       1 + (n / 10) % 38,
+       (2015 + n / 380)::text,
+       CASE WHEN n < 3700 THEN 'FINISHED' WHEN n < 3702 THEN 'LIVE' ELSE 'SCHEDULED' END,
+       md5(n::text)
+FROM generate_series(0, 3799) n;
+
+INSERT INTO players (id, name, external_id, position, nationality, club_id, goals, assists, content_hash)
+SELECT 200000 + n,
+       'Plan Player ' || n,
+       700000 + n,
+       (ARRAY['Goalkeeper', 'Defence', 'Midfield', 'Offence'])[1 + n % 4],
+       'Nation ' || n % 60,
+       1000 + 1 + n % 20,
+       CASE WHEN n % 5 = 0 THEN NULL ELSE n % 31 END,
+       CASE WHEN n % 7 = 0 THEN NULL ELSE n % 17 END,
+       md5(n::text)
+FROM generate_series(0, 29999) n;
+
+INSERT INTO prediction_generations (id, model, source, generated_at, is_current)
+SELECT 3000 + g, 'dixon-coles', 'plan', TIMESTAMP '2024-01-01' + g * INTERVAL '1 hour', g = 10
+FROM generate_series(1, 10) g;
+
+INSERT INTO predictions (match_id, generation_id, predicted_home_score, predicted_away_score, created_at)
+SELECT m.id, 3000 + g, 1, 1, TIMESTAMP '2024-01-01' + g * INTERVAL '1 hour'
+FROM matches m CROSS JOIN generate_series(1, 10) g
+WHERE m.id >= 100000;
+
+ANALYZE clubs;
+ANALYZE matches;
+ANALYZE players;
+ANALYZE prediction_generations;
+ANALYZE predictions;
@@ -35,16 +35,16 @@ const Dashboard = () => {
   const fetchDashboardData = async () => {
     try {
       const [players, matches, upcoming, scorers] = await Promise.all([
-        playersAPI.getAll(),
-        matchesAPI.getAll(),
+        playersAPI.count(),
+        matchesAPI.count(),
         matchesAPI.getUpcoming(),
         playersAPI.getTopScorers(5),
       ]);
 
       setStats({
-        totalPlayers: players.data.length,
+        totalPlayers: players.data.count,
         totalClubs: 20,
-        totalMatches: matches.data.length,
+        totalMatches: matches.data.count,
         upcomingMatches: upcoming.data.length,
       });
 
@@ -14,6 +14,7 @@ import {
   MenuItem,
   InputLabel,
   Grid,
+  Button,
 } from '@mui/material';
 import {
   Schedule,
@@ -24,12 +25,16 @@ import {
 import { matchesAPI } from '../services/api';
 import { format } from 'date-fns';
 
+const PAGE_SIZE = 100;
+
 const Matches = () => {
   const [matches, setMatches] = useState([]);
   const [loading, setLoading] = useState(true);
   const [tabValue, setTabValue] = useState(0);
   const [filteredMatches, setFilteredMatches] = useState([]);
   const [selectedWeek, setSelectedWeek] = useState('all');
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     fetchMatches();
@@ -39,17 +44,25 @@ const Matches = () => {
     filterMatches();
   }, [matches, tabValue, selectedWeek]);
 
-  const fetchMatches = async () => {
+  // Loads one page at a time; filters apply to the pages loaded so far
+  const fetchMatches = async (cursor = null) => {
     try {
-      const response = await matchesAPI.getAll();
-      setMatches(response.data);
-      setLoading(false);
+      const response = await matchesAPI.getPage(cursor, PAGE_SIZE);
+      setMatches((loaded) => (cursor ? [...loaded, ...response.data] : response.data));
+      setNextCursor(response.headers['x-next-cursor'] || null);
     } catch (error) {
       console.error('Error fetching matches:', error);
+    } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
+  const loadMore = () => {
+    setLoadingMore(true);
+    fetchMatches(nextCursor);
+  };
+
   const filterMatches = () => {
     let filtered = [];
 
@@ -325,6 +338,14 @@ const Matches = () => {
           </CardContent>
         </Card>
       )}
+
+      {nextCursor && (
+        <Box sx={{ display: 'flex', justifyContent: 'center', mt: 3 }}>
+          <Button variant="outlined" onClick={loadMore} disabled={loadingMore}>
+            {loadingMore ? 'Loading...' : 'Load more matches'}
+          </Button>
+        </Box>
+      )}
     </Box>
   );
 };
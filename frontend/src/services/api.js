@@ -9,6 +9,22 @@ const api = axios.create({
   },
 });
 
+// One keyset page; the cursor for the next page comes back in the X-Next-Cursor header
+const getPage = (url, cursor, limit) => api.get(url, { params: { limit, ...(cursor ? { cursor } : {}) } });
+
+// Polls a job submitted with a 202 until it finishes; rejects if it failed
+const waitForJob = async (submission, intervalMs = 1000) => {
+  let job = submission.data.job;
+  while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+    await new Promise((resolve) => setTimeout(resolve, intervalMs));
+    job = (await api.get(`/jobs/${job.id}`)).data;
+  }
+  if (job.status === 'FAILED') {
+    throw new Error(job.error);
+  }
+  return job;
+};
+
 export const clubsAPI = {
   getAll: () => api.get('/clubs'),
   getById: (id) => api.get(`/clubs/${id}`),
@@ -19,7 +35,8 @@ export const clubsAPI = {
 };
 
 export const playersAPI = {
-  getAll: () => api.get('/players'),
+  getPage: (cursor, limit = 50) => getPage('/players', cursor, limit),
+  count: () => api.get('/players/count'),
   getById: (id) => api.get(`/players/${id}`),
   getByClub: (clubId) => api.get(`/players/club/${clubId}`),
   getTopScorers: (limit = 10) => api.get(`/players/top-scorers?limit=${limit}`),
@@ -30,12 +47,13 @@ export const playersAPI = {
 };
 
 export const matchesAPI = {
-  getAll: () => api.get('/matches'),
+  getPage: (cursor, limit = 50) => getPage('/matches', cursor, limit),
+  count: () => api.get('/matches/count'),
   getById: (id) => api.get(`/matches/${id}`),
-  getByClub: (clubId) => api.get(`/matches/club/${clubId}`),
+  getByClub: (clubId, cursor, limit = 50) => getPage(`/matches/club/${clubId}`, cursor, limit),
   getUpcoming: () => api.get('/matches/upcoming'),
   getLive: () => api.get('/matches/live'),
-  getBySeason: (season) => api.get(`/matches/season/${season}`),
+  getBySeason: (season, cursor, limit = 50) => getPage(`/matches/season/${season}`, cursor, limit),
   create: (match) => api.post('/matches', match),
   update: (id, match) => api.put(`/matches/${id}`, match),
   delete: (id) => api.delete(`/matches/${id}`),
@@ -45,12 +63,17 @@ export const predictionsAPI = {
   getAll: () => api.get('/predictions'),
   getUpcoming: () => api.get('/predictions/upcoming'),
   getByWeek: (week) => api.get(`/predictions/week/${week}`),
-  generate: () => api.post('/predictions/generate'),
+  generate: () => api.post('/predictions/generate').then(waitForJob),
 };
 
 export const dataAPI = {
-  refresh: () => api.post('/data/refresh'),
+  refresh: () => api.post('/data/refresh').then(waitForJob),
   getStatus: () => api.get('/data/status'),
 };
 
+export const jobsAPI = {
+  getRecent: () => api.get('/jobs'),
+  getById: (id) => api.get(`/jobs/${id}`),
+};
+
 export default api;